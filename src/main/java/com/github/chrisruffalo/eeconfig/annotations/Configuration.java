@@ -13,6 +13,9 @@ import java.lang.annotation.Target;
 import javax.enterprise.util.Nonbinding;
 import javax.inject.Qualifier;
 
+import com.github.chrisruffalo.eeconfig.strategy.executor.DefaultSourceExecutor;
+import com.github.chrisruffalo.eeconfig.strategy.executor.SourceExecutor;
+
 /**
  * Annotation for specifying configuration file that
  * should be loaded.
@@ -58,4 +61,59 @@ public @interface Configuration {
 	 */
 	@Nonbinding
 	Resolver resolver() default @Resolver();
+	
+	/**
+	 * Controls the resolution of ${} enclosed tokens inside of the loaded values.  Tokens
+	 * are resolved against the other values in the configuration first and then by
+	 * the configured {@link Resolver}.  Only applies to configurations that are
+	 * injected as properties.
+	 * <br/>
+	 * Defaults to {@link Interpolation#NONE}.
+	 * 
+	 * @return the interpolation mode
+	 */
+	@Nonbinding
+	Interpolation interpolate() default Interpolation.NONE;
+	
+	/**
+	 * The name of the character set properties files are read with.  Defaults to
+	 * ISO-8859-1, the same as {@link java.util.Properties#load(java.io.InputStream)}.  Files
+	 * that start with a UTF-8 byte order mark are always read as UTF-8.
+	 * 
+	 * @return the character set name
+	 */
+	@Nonbinding
+	String encoding() default "ISO-8859-1";
+	
+	/**
+	 * If true the sources are located and loaded at the same time, with the
+	 * {@link #executor()}, instead of one after the other.  The results are
+	 * merged in priority order so the values are the same either way.
+	 * 
+	 * @return true if the sources should be loaded in parallel
+	 */
+	@Nonbinding
+	boolean parallel() default false;
+	
+	/**
+	 * The implementing class for the executor that runs the tasks when
+	 * the sources are loaded in parallel
+	 * 
+	 * @return the class that implements the executor behavior
+	 */
+	@Nonbinding
+	Class<? extends SourceExecutor> executor() default DefaultSourceExecutor.class;
+	
+	/**
+	 * If true the files that the configuration was loaded from are watched and, when
+	 * one of them changes, the configuration is loaded again.  The injected object
+	 * always reads from the latest load.  Only sources that are files can be watched.
+	 * Only {@link java.util.Properties} and Commons Configuration objects are reloaded,
+	 * a {@link com.github.chrisruffalo.eeconfig.immutable.ConfigMap} is immutable and 
+	 * keeps the values it was created with.
+	 * 
+	 * @return true if the configuration should be reloaded when its files change
+	 */
+	@Nonbinding
+	boolean reload() default false;
 }
\ No newline at end of file
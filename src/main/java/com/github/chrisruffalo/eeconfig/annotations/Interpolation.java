@@ -0,0 +1,27 @@
+package com.github.chrisruffalo.eeconfig.annotations;
+
+/**
+ * How ${} enclosed tokens inside of the values of a loaded
+ * {@link Configuration} are handled
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public enum Interpolation {
+	
+	/**
+	 * Values are used exactly as they are loaded
+	 */
+	NONE,
+	
+	/**
+	 * Every value is resolved when the configuration is loaded
+	 */
+	EAGER,
+	
+	/**
+	 * Each value is resolved the first time it is read
+	 */
+	LAZY
+	;
+}
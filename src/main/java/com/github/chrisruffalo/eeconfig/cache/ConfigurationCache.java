@@ -0,0 +1,239 @@
+package com.github.chrisruffalo.eeconfig.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+
+/**
+ * Holds produced {@link Configuration} results so that the same (read-only)
+ * instance can be shared between injection points.  Each entry remembers
+ * the {@link SourceFingerprint} of the sources it was loaded from and is
+ * only returned while the sources still match that fingerprint.
+ * <br/>
+ * Loads can be run through {@link #load(ConfigurationKey, Callable)} so that
+ * concurrent requests for the same configuration wait for a single load
+ * instead of each locating and parsing the sources.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@ApplicationScoped
+public class ConfigurationCache {
+
+	// cached entries
+	private final ConcurrentMap<ConfigurationKey, Entry> entries;
+	
+	// loads that are running
+	private final ConcurrentMap<ConfigurationKey, Flight<?>> loading;
+	
+	// statistics
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private final AtomicLong joins;
+	
+	/**
+	 * Create an empty cache
+	 * 
+	 */
+	public ConfigurationCache() {
+		this.entries = new ConcurrentHashMap<ConfigurationKey, Entry>();
+		this.loading = new ConcurrentHashMap<ConfigurationKey, Flight<?>>();
+		this.hits = new AtomicLong(0);
+		this.misses = new AtomicLong(0);
+		this.joins = new AtomicLong(0);
+	}
+	
+	/**
+	 * Get the cached value for the given key if the sources it was loaded
+	 * from still match the given fingerprint.
+	 * 
+	 * @param key the normalized configuration
+	 * @param fingerprint the current state of the located sources
+	 * @param type the type of the cached value
+	 * @return the cached value or null if no current value is cached
+	 */
+	public <T> T get(ConfigurationKey key, SourceFingerprint fingerprint, Class<T> type) {
+		Entry entry = this.entries.get(key);
+		if(entry == null || !entry.fingerprint.equals(fingerprint) || !type.isInstance(entry.value)) {
+			this.misses.incrementAndGet();
+			return null;
+		}
+		this.hits.incrementAndGet();
+		return type.cast(entry.value);
+	}
+	
+	/**
+	 * Store a value for the given key, replacing any previous value
+	 * 
+	 * @param key the normalized configuration
+	 * @param fingerprint the state of the sources the value was loaded from
+	 * @param value the (read-only) value to share
+	 */
+	public void put(ConfigurationKey key, SourceFingerprint fingerprint, Object value) {
+		if(key == null || fingerprint == null || value == null) {
+			return;
+		}
+		this.entries.put(key, new Entry(fingerprint, value));
+	}
+	
+	/**
+	 * Run the loader for the given key unless a load for the same key is already
+	 * running, in which case wait for that load and return its result (or throw its
+	 * exception).  A load that is started again from inside itself, on the same 
+	 * thread, runs the loader directly.
+	 * 
+	 * @param key the normalized configuration
+	 * @param loader loads the value, usually checking the cache first
+	 * @return the loaded value
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T load(ConfigurationKey key, Callable<T> loader) {
+		Flight<T> flight = new Flight<T>(loader);
+		Flight<?> running = this.loading.putIfAbsent(key, flight);
+		
+		// another load is running, join it
+		if(running != null) {
+			if(running.owner == Thread.currentThread()) {
+				return ConfigurationCache.call(loader);
+			}
+			this.joins.incrementAndGet();
+			return (T)ConfigurationCache.await(running);
+		}
+		
+		// run the load, later callers start a new one
+		try {
+			flight.run();
+		} finally {
+			this.loading.remove(key, flight);
+		}
+		return ConfigurationCache.await(flight);
+	}
+	
+	/**
+	 * Remove the value cached for the given key
+	 * 
+	 * @param key
+	 */
+	public void invalidate(ConfigurationKey key) {
+		this.entries.remove(key);
+	}
+	
+	/**
+	 * Remove all cached values.  Does not reset the statistics.
+	 * 
+	 */
+	public void clear() {
+		this.entries.clear();
+	}
+	
+	/**
+	 * The number of entries in the cache
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * The number of lookups that returned a cached value
+	 * 
+	 * @return
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+	
+	/**
+	 * The number of lookups that did not find a current value
+	 * 
+	 * @return
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+	
+	/**
+	 * The number of loads that waited for a load of the same configuration
+	 * that was already running
+	 * 
+	 * @return
+	 */
+	public long getJoins() {
+		return this.joins.get();
+	}
+	
+	private static <T> T call(Callable<T> loader) {
+		try {
+			return loader.call();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException("Could not load configuration", e);
+		}
+	}
+	
+	private static <T> T await(Future<T> flight) {
+		boolean interrupted = false;
+		try {
+			while(true) {
+				try {
+					return flight.get();
+				} catch (InterruptedException e) {
+					// keep waiting, the load is not interruptible from here
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw new IllegalStateException("Could not load configuration", cause);
+		} finally {
+			if(interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * A running load and the thread that runs it
+	 */
+	private static final class Flight<T> extends FutureTask<T> {
+		
+		private final Thread owner;
+		
+		private Flight(Callable<T> loader) {
+			super(loader);
+			this.owner = Thread.currentThread();
+		}
+	}
+	
+	/**
+	 * Cached value and the fingerprint it was loaded with
+	 */
+	private static final class Entry {
+		
+		private final SourceFingerprint fingerprint;
+		
+		private final Object value;
+		
+		private Entry(SourceFingerprint fingerprint, Object value) {
+			this.fingerprint = fingerprint;
+			this.value = value;
+		}
+	}
+	
+}
@@ -0,0 +1,179 @@
+package com.github.chrisruffalo.eeconfig.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.chrisruffalo.eeconfig.annotations.Bootstrap;
+import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+import com.github.chrisruffalo.eeconfig.annotations.DefaultProperty;
+import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.wrapper.ConfigurationWrapper;
+import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
+import com.github.chrisruffalo.eeconfig.wrapper.WrapperFactory;
+
+/**
+ * Normalized, immutable form of a {@link ConfigurationWrapper} that can be
+ * used as a key in maps.  Two {@link Configuration} or {@link Bootstrap} 
+ * elements that would load the same sources with the same settings produce
+ * equal keys.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class ConfigurationKey {
+
+	// the type of object the configuration is produced as
+	private final Class<?> type;
+	
+	// flattened values from the wrapper
+	private final List<Object> parts;
+	
+	// precomputed hash
+	private final int hash;
+	
+	private ConfigurationKey(Class<?> type, List<Object> parts) {
+		this.type = type;
+		this.parts = Collections.unmodifiableList(parts);
+		this.hash = 31 * type.hashCode() + parts.hashCode();
+	}
+	
+	/**
+	 * Create a key for the given configuration as it would be produced as
+	 * the given type
+	 * 
+	 * @param type the type the configuration is produced as
+	 * @param configuration the configuration to normalize
+	 * @return the normalized key
+	 */
+	public static ConfigurationKey of(Class<?> type, ConfigurationWrapper configuration) {
+		if(type == null || configuration == null) {
+			throw new IllegalArgumentException("A non-null type and configuration must be provided");
+		}
+		List<Object> parts = new ArrayList<Object>();
+		ConfigurationKey.appendConfiguration(parts, configuration);
+		return new ConfigurationKey(type, parts);
+	}
+	
+	/**
+	 * Create a key for values (like a property name) that are resolved with 
+	 * the given resolver settings and then produced as the given type
+	 * 
+	 * @param type the type the resolved values are produced as
+	 * @param resolver the resolver settings used to resolve the values
+	 * @param values the unresolved values
+	 * @return the normalized key
+	 */
+	public static ConfigurationKey of(Class<?> type, ResolverWrapper resolver, String... values) {
+		if(type == null) {
+			throw new IllegalArgumentException("A non-null type must be provided");
+		}
+		List<Object> parts = new ArrayList<Object>();
+		int count = values == null ? 0 : values.length;
+		parts.add(count);
+		for(int i = 0; i < count; i++) {
+			parts.add(values[i]);
+		}
+		ConfigurationKey.appendResolver(parts, resolver);
+		return new ConfigurationKey(type, parts);
+	}
+	
+	/**
+	 * The type that the configuration is produced as
+	 * 
+	 * @return
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+	
+	private static void appendConfiguration(List<Object> parts, ConfigurationWrapper configuration) {
+		// sources, in priority order
+		Source[] sources = configuration.sources();
+		int count = sources == null ? 0 : sources.length;
+		parts.add(count);
+		for(int i = 0; i < count; i++) {
+			Source source = sources[i];
+			parts.add(source.value());
+			parts.add(source.resolve());
+			parts.add(source.locator());
+		}
+		
+		// merge flag
+		parts.add(configuration.merge());
+		
+		// interpolation mode
+		parts.add(configuration.interpolate());
+		
+		// encoding
+		parts.add(configuration.encoding());
+		
+		// parallel loading, the executor doesn't change what is loaded
+		parts.add(configuration.parallel());
+		
+		// reloading, a reloading configuration is a different object
+		parts.add(configuration.reload());
+		
+		// resolver settings
+		ConfigurationKey.appendResolver(parts, configuration.resolver());
+	}
+	
+	private static void appendResolver(List<Object> parts, ResolverWrapper resolver) {
+		if(resolver == null) {
+			parts.add(null);
+			return;
+		}
+		parts.add(resolver.impl());
+		
+		// default properties
+		DefaultProperty[] properties = resolver.properties();
+		int count = properties == null ? 0 : properties.length;
+		parts.add(count);
+		for(int i = 0; i < count; i++) {
+			parts.add(properties[i].key());
+			parts.add(properties[i].value());
+		}
+		
+		// bootstrap configuration, a bootstrap can't have a bootstrap of its own
+		// so this does not recurse more than once.  a bootstrap without sources
+		// loads nothing so it is the same as no bootstrap at all.
+		Bootstrap bootstrap = resolver.bootstrap();
+		if(bootstrap == null || bootstrap.sources() == null || bootstrap.sources().length == 0) {
+			parts.add(null);
+		} else {
+			ConfigurationKey.appendConfiguration(parts, WrapperFactory.wrap(bootstrap));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(!(obj instanceof ConfigurationKey)) {
+			return false;
+		}
+		ConfigurationKey other = (ConfigurationKey) obj;
+		return this.hash == other.hash && this.type.equals(other.type) && this.parts.equals(other.parts);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "ConfigurationKey [type: " + this.type.getSimpleName() + ", parts: " + this.parts + "]";
+	}
+	
+}
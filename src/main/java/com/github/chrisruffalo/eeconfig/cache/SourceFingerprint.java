@@ -0,0 +1,91 @@
+package com.github.chrisruffalo.eeconfig.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.SourceAttributes;
+import com.github.chrisruffalo.eeconfig.source.impl.PathSource;
+
+/**
+ * Captures the identity and state (availability, modification
+ * time, and size) of a list of located {@link ISource}s so that 
+ * a later lookup can tell if anything has changed.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class SourceFingerprint {
+
+	// flattened source state
+	private final List<Object> parts;
+	
+	// precomputed hash
+	private final int hash;
+	
+	private SourceFingerprint(List<Object> parts) {
+		this.parts = Collections.unmodifiableList(parts);
+		this.hash = parts.hashCode();
+	}
+	
+	/**
+	 * Take the fingerprint of the given sources
+	 * 
+	 * @param sources the located sources
+	 * @return the fingerprint
+	 */
+	public static SourceFingerprint of(List<ISource> sources) {
+		if(sources == null) {
+			return new SourceFingerprint(new ArrayList<Object>(0));
+		}
+		List<Object> parts = new ArrayList<Object>(sources.size() * 6);
+		for(ISource source : sources) {
+			if(source == null) {
+				parts.add(null);
+				continue;
+			}
+			boolean available = source.available();
+			parts.add(source.getClass());
+			parts.add(source.getPath());
+			parts.add(available);
+			parts.add(available ? SourceAttributes.lastModified(source) : 0L);
+			parts.add(available ? SourceAttributes.size(source) : -1L);
+			// replaced files have a new key even with the same size and time
+			parts.add(source instanceof PathSource ? ((PathSource)source).getFileKey() : null);
+		}
+		return new SourceFingerprint(parts);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(!(obj instanceof SourceFingerprint)) {
+			return false;
+		}
+		SourceFingerprint other = (SourceFingerprint) obj;
+		return this.hash == other.hash && this.parts.equals(other.parts);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "SourceFingerprint " + this.parts;
+	}
+	
+}
@@ -0,0 +1,294 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link PropertyTable} that holds its keys and values in two arrays
+ * addressed by the hash of the key (open addressing with linear probing).  There
+ * is no per-entry object so it is much smaller than a {@link java.util.Hashtable} 
+ * holding the same entries and reads are never synchronized.
+ * <br/>
+ * Tables are created with a {@link Builder}.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class CompactPropertyTable implements PropertyTable {
+
+	// shared empty table
+	private static final CompactPropertyTable EMPTY = new Builder().build();
+	
+	private final String[] keys;
+	
+	private final String[] values;
+	
+	private final int size;
+	
+	private CompactPropertyTable(String[] keys, String[] values, int size) {
+		this.keys = keys;
+		this.values = values;
+		this.size = size;
+	}
+	
+	/**
+	 * A table with no entries
+	 * 
+	 * @return empty table
+	 */
+	public static CompactPropertyTable empty() {
+		return CompactPropertyTable.EMPTY;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String get(String key) {
+		int slot = CompactPropertyTable.find(this.keys, key);
+		return slot < 0 ? null : this.values[slot];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(String key) {
+		return CompactPropertyTable.find(this.keys, key) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<String> keys() {
+		final String[] local = this.keys;
+		return new Iterator<String>() {
+			
+			private int slot = this.advance(0);
+			
+			private int advance(int from) {
+				while(from < local.length && local[from] == null) {
+					from++;
+				}
+				return from;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return this.slot < local.length;
+			}
+
+			@Override
+			public String next() {
+				if(!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				String key = local[this.slot];
+				this.slot = this.advance(this.slot + 1);
+				return key;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+	
+	/**
+	 * The slot that holds the key, slots are stable for the life of the table
+	 * 
+	 * @param key to find
+	 * @return the slot or -1 if the key isn't in the table
+	 */
+	int slot(String key) {
+		int slot = CompactPropertyTable.find(this.keys, key);
+		return slot < 0 ? -1 : slot;
+	}
+	
+	/**
+	 * The value in a slot
+	 * 
+	 * @param slot from {@link #slot(String)}
+	 * @return the value
+	 */
+	String valueAt(int slot) {
+		return this.values[slot];
+	}
+	
+	/**
+	 * The number of slots in the table
+	 * 
+	 * @return the number of slots
+	 */
+	int capacity() {
+		return this.keys.length;
+	}
+	
+	/**
+	 * Find the slot that holds the key
+	 * 
+	 * @param keys the key array
+	 * @param key to find
+	 * @return the slot or -(empty slot + 1) if the key isn't there
+	 */
+	private static int find(String[] keys, String key) {
+		if(key == null) {
+			return -1;
+		}
+		int mask = keys.length - 1;
+		int slot = MappedPropertyTable.spread(key.hashCode()) & mask;
+		while(true) {
+			String existing = keys[slot];
+			if(existing == null) {
+				return -(slot + 1);
+			}
+			if(existing.equals(key)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+	
+	/**
+	 * Collects entries for a table.  Entries are put in layers where layer 0 is the most 
+	 * important: an entry only replaces an entry from the same layer or a less 
+	 * important one.  This lets the layers of a merged configuration be added most
+	 * important first and lets a parser skip values that would not be used.
+	 * <br/>
+	 * A builder is not thread safe and can't be used after {@link #build()}.
+	 */
+	public static final class Builder {
+		
+		private String[] keys;
+		
+		private String[] values;
+		
+		private int[] layers;
+		
+		private int size;
+		
+		/**
+		 * Create an empty builder
+		 * 
+		 */
+		public Builder() {
+			this(8);
+		}
+		
+		/**
+		 * Create a builder with room for the expected number of entries
+		 * 
+		 * @param expected number of entries
+		 */
+		public Builder(int expected) {
+			int capacity = 2;
+			while(capacity < expected * 2) {
+				capacity <<= 1;
+			}
+			this.keys = new String[capacity];
+			this.values = new String[capacity];
+			this.layers = new int[capacity];
+			this.size = 0;
+		}
+		
+		/**
+		 * If a more important layer than the given one already has a value for the 
+		 * key, in which case a put to the given layer would be ignored
+		 * 
+		 * @param key to check
+		 * @param layer that would be put to
+		 * @return true if the key is already set by a more important layer
+		 */
+		public boolean isShadowed(String key, int layer) {
+			int slot = CompactPropertyTable.find(this.keys, key);
+			return slot >= 0 && this.layers[slot] < layer;
+		}
+		
+		/**
+		 * Put an entry in the given layer
+		 * 
+		 * @param key of the entry
+		 * @param value of the entry
+		 * @param layer of the entry, 0 is the most important
+		 * @return this builder
+		 */
+		public Builder put(String key, String value, int layer) {
+			if(key == null || value == null) {
+				throw new IllegalArgumentException("Keys and values can not be null");
+			}
+			int slot = CompactPropertyTable.find(this.keys, key);
+			if(slot >= 0) {
+				if(this.layers[slot] >= layer) {
+					this.values[slot] = value;
+					this.layers[slot] = layer;
+				}
+				return this;
+			}
+			
+			// grow at half full, the slot needs to be found again
+			if((this.size + 1) * 2 > this.keys.length) {
+				this.grow();
+				slot = CompactPropertyTable.find(this.keys, key);
+			}
+			slot = -(slot + 1);
+			this.keys[slot] = key;
+			this.values[slot] = value;
+			this.layers[slot] = layer;
+			this.size++;
+			return this;
+		}
+		
+		/**
+		 * The number of entries so far
+		 * 
+		 * @return number of entries
+		 */
+		public int size() {
+			return this.size;
+		}
+		
+		/**
+		 * Create the table, the builder can't be used afterwards
+		 * 
+		 * @return the table
+		 */
+		public CompactPropertyTable build() {
+			if(this.keys == null) {
+				throw new IllegalStateException("The table has already been built");
+			}
+			CompactPropertyTable table = new CompactPropertyTable(this.keys, this.values, this.size);
+			this.keys = null;
+			this.values = null;
+			this.layers = null;
+			return table;
+		}
+		
+		private void grow() {
+			String[] oldKeys = this.keys;
+			String[] oldValues = this.values;
+			int[] oldLayers = this.layers;
+			this.keys = new String[oldKeys.length * 2];
+			this.values = new String[oldKeys.length * 2];
+			this.layers = new int[oldKeys.length * 2];
+			for(int i = 0; i < oldKeys.length; i++) {
+				if(oldKeys[i] == null) {
+					continue;
+				}
+				int slot = -(CompactPropertyTable.find(this.keys, oldKeys[i]) + 1);
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+				this.layers[slot] = oldLayers[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable configuration values with typed accessors.  Reads take no lock: the
+ * values are held in a {@link CompactPropertyTable} and the typed value of a key is
+ * parsed the first time it is asked for and kept, so later reads of the same
+ * key don't parse the string again.  The typed accessors return primitives.
+ * <br/>
+ * Durations are written as a number followed by a unit: <code>ns</code>, 
+ * <code>us</code>, <code>ms</code>, <code>s</code>, <code>m</code>, <code>h</code> 
+ * or <code>d</code>.  A number on its own is in milliseconds.
+ * <br/>
+ * Code that needs {@link Properties} can use the (read-only) view from {@link #asProperties()}.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class ConfigMap {
+
+	private final CompactPropertyTable table;
+	
+	// the parsed form of each slot, filled in on first use.  the 
+	// fields of a parsed value are final so racing writers are harmless.
+	private final Parsed[] parsed;
+	
+	private final TableProperties view;
+	
+	/**
+	 * Create a configuration map over the given table
+	 * 
+	 * @param table the values
+	 */
+	public ConfigMap(CompactPropertyTable table) {
+		this.table = table;
+		this.parsed = new Parsed[table.capacity()];
+		this.view = new TableProperties(table);
+	}
+	
+	/**
+	 * Create a configuration map with the values from the given properties, 
+	 * properties that already read from a compact table are not copied
+	 * 
+	 * @param properties the values
+	 * @return the configuration map
+	 */
+	public static ConfigMap of(Properties properties) {
+		if(properties instanceof TableProperties && ((TableProperties)properties).getTable() instanceof CompactPropertyTable) {
+			return new ConfigMap((CompactPropertyTable)((TableProperties)properties).getTable());
+		}
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder(properties.size());
+		for(String name : properties.stringPropertyNames()) {
+			builder.put(name, properties.getProperty(name), 0);
+		}
+		return new ConfigMap(builder.build());
+	}
+	
+	/**
+	 * The value for a key
+	 * 
+	 * @param key the key
+	 * @return the value or null if there is no value for the key
+	 */
+	public String get(String key) {
+		return this.table.get(key);
+	}
+	
+	/**
+	 * The value for a key
+	 * 
+	 * @param key the key
+	 * @param defaultValue returned when there is no value for the key
+	 * @return the value or the default
+	 */
+	public String get(String key, String defaultValue) {
+		String value = this.table.get(key);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * The value for a key as an int
+	 * 
+	 * @param key the key
+	 * @param defaultValue returned when there is no value for the key or it is not an int
+	 * @return the value or the default
+	 */
+	public int getInt(String key, int defaultValue) {
+		Parsed value = this.parsed(key);
+		if(value == null || !value.isNumber || value.number < Integer.MIN_VALUE || value.number > Integer.MAX_VALUE) {
+			return defaultValue;
+		}
+		return (int)value.number;
+	}
+	
+	/**
+	 * The value for a key as a long
+	 * 
+	 * @param key the key
+	 * @param defaultValue returned when there is no value for the key or it is not a long
+	 * @return the value or the default
+	 */
+	public long getLong(String key, long defaultValue) {
+		Parsed value = this.parsed(key);
+		if(value == null || !value.isNumber) {
+			return defaultValue;
+		}
+		return value.number;
+	}
+	
+	/**
+	 * The value for a key as a boolean, "true", "yes", "on" and "1" are true
+	 * and "false", "no", "off" and "0" are false (ignoring case)
+	 * 
+	 * @param key the key
+	 * @param defaultValue returned when there is no value for the key or it is not a boolean
+	 * @return the value or the default
+	 */
+	public boolean getBoolean(String key, boolean defaultValue) {
+		Parsed value = this.parsed(key);
+		if(value == null || !value.isBoolean) {
+			return defaultValue;
+		}
+		return value.bool;
+	}
+	
+	/**
+	 * The value for a key as a duration
+	 * 
+	 * @param key the key
+	 * @param unit the unit to return the duration in
+	 * @param defaultValue returned, as is, when there is no value for the key or it is not a duration
+	 * @return the value in the given unit or the default
+	 */
+	public long getDuration(String key, TimeUnit unit, long defaultValue) {
+		Parsed value = this.parsed(key);
+		if(value == null || !value.isDuration) {
+			return defaultValue;
+		}
+		return unit.convert(value.nanos, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * If there is a value for the key
+	 * 
+	 * @param key the key
+	 * @return true if there is a value
+	 */
+	public boolean containsKey(String key) {
+		return this.table.containsKey(key);
+	}
+	
+	/**
+	 * The number of values
+	 * 
+	 * @return the number of values
+	 */
+	public int size() {
+		return this.table.size();
+	}
+	
+	/**
+	 * The keys, in no particular order
+	 * 
+	 * @return the keys
+	 */
+	public Iterator<String> keys() {
+		return this.table.keys();
+	}
+	
+	/**
+	 * A read-only {@link Properties} view of the same values
+	 * 
+	 * @return the properties view
+	 */
+	public Properties asProperties() {
+		return this.view;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return this.view.toString();
+	}
+	
+	private Parsed parsed(String key) {
+		int slot = this.table.slot(key);
+		if(slot < 0) {
+			return null;
+		}
+		Parsed value = this.parsed[slot];
+		if(value == null) {
+			value = new Parsed(this.table.valueAt(slot));
+			this.parsed[slot] = value;
+		}
+		return value;
+	}
+	
+	/**
+	 * The typed forms of a value
+	 *
+	 */
+	private static final class Parsed {
+		
+		private final boolean isNumber;
+		
+		private final long number;
+		
+		private final boolean isBoolean;
+		
+		private final boolean bool;
+		
+		private final boolean isDuration;
+		
+		private final long nanos;
+		
+		private Parsed(String raw) {
+			String value = raw.trim();
+			
+			// number
+			long number = 0;
+			boolean isNumber = false;
+			try {
+				number = Long.parseLong(value);
+				isNumber = true;
+			} catch (NumberFormatException e) {
+				// not a number
+			}
+			this.number = number;
+			this.isNumber = isNumber;
+			
+			// boolean
+			String lower = value.toLowerCase(Locale.ENGLISH);
+			this.isBoolean = "true".equals(lower) || "yes".equals(lower) || "on".equals(lower) || "1".equals(lower)
+						  || "false".equals(lower) || "no".equals(lower) || "off".equals(lower) || "0".equals(lower);
+			this.bool = "true".equals(lower) || "yes".equals(lower) || "on".equals(lower) || "1".equals(lower);
+			
+			// duration
+			long nanos = 0;
+			boolean isDuration = false;
+			if(isNumber) {
+				nanos = TimeUnit.MILLISECONDS.toNanos(number);
+				isDuration = true;
+			} else {
+				int split = 0;
+				while(split < lower.length() && (Character.isDigit(lower.charAt(split)) || (split == 0 && lower.charAt(0) == '-'))) {
+					split++;
+				}
+				TimeUnit unit = Parsed.unit(lower.substring(split).trim());
+				if(unit != null && split > 0) {
+					try {
+						nanos = unit.toNanos(Long.parseLong(lower.substring(0, split)));
+						isDuration = true;
+					} catch (NumberFormatException e) {
+						// not a duration
+					}
+				}
+			}
+			this.nanos = nanos;
+			this.isDuration = isDuration;
+		}
+		
+		private static TimeUnit unit(String suffix) {
+			if("ns".equals(suffix)) {
+				return TimeUnit.NANOSECONDS;
+			} else if("us".equals(suffix)) {
+				return TimeUnit.MICROSECONDS;
+			} else if("ms".equals(suffix)) {
+				return TimeUnit.MILLISECONDS;
+			} else if("s".equals(suffix)) {
+				return TimeUnit.SECONDS;
+			} else if("m".equals(suffix)) {
+				return TimeUnit.MINUTES;
+			} else if("h".equals(suffix)) {
+				return TimeUnit.HOURS;
+			} else if("d".equals(suffix)) {
+				return TimeUnit.DAYS;
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.Iterator;
+
+import org.apache.commons.configuration.AbstractConfiguration;
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * A read-only view of a Commons {@link Configuration}.  Reads are passed
+ * through to the wrapped configuration and any attempt to change the
+ * configuration throws an {@link UnsupportedOperationException}.  The wrapped
+ * configuration should not be changed once it is wrapped.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ImmutableConfiguration extends AbstractConfiguration {
+
+	// wrapped configuration
+	private final Configuration delegate;
+	
+	/**
+	 * Wrap the given configuration
+	 * 
+	 * @param delegate
+	 */
+	public ImmutableConfiguration(Configuration delegate) {
+		if(delegate == null) {
+			throw new IllegalArgumentException("A non-null configuration must be provided");
+		}
+		this.delegate = delegate;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return this.delegate.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(String key) {
+		return this.delegate.containsKey(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getProperty(String key) {
+		return this.delegate.getProperty(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<String> getKeys() {
+		final Iterator<String> keys = this.delegate.getKeys();
+		return new Iterator<String>() {
+			@Override
+			public boolean hasNext() {
+				return keys.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return keys.next();
+			}
+
+			@Override
+			public void remove() {
+				throw ImmutableConfiguration.readOnly();
+			}
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addPropertyDirect(String key, Object value) {
+		throw ImmutableConfiguration.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void clearPropertyDirect(String key) {
+		throw ImmutableConfiguration.readOnly();
+	}
+	
+	/**
+	 * Shared exception for attempts to change the configuration
+	 * 
+	 * @return
+	 */
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("Injected configuration is read-only");
+	}
+}
@@ -0,0 +1,240 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A read-only {@link Properties} instance.  The values are copied in when
+ * the instance is created and any attempt to change them afterwards throws
+ * an {@link UnsupportedOperationException}.  This allows a single instance
+ * to be shared safely between many injection points.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ImmutableProperties extends Properties {
+
+	// serialization version
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Create a read-only copy of the given values
+	 * 
+	 * @param values the values to copy
+	 */
+	public ImmutableProperties(Map<?, ?> values) {
+		super();
+		if(values != null) {
+			for(Map.Entry<?, ?> entry : values.entrySet()) {
+				if(entry.getKey() == null || entry.getValue() == null) {
+					continue;
+				}
+				super.put(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+	
+	/**
+	 * Create a read-only copy of the entries of a table
+	 * 
+	 * @param table the entries to copy
+	 * @return the properties
+	 */
+	public static ImmutableProperties of(PropertyTable table) {
+		ImmutableProperties properties = new ImmutableProperties(null);
+		Iterator<String> keys = table.keys();
+		while(keys.hasNext()) {
+			String key = keys.next();
+			properties.putDirect(key, table.get(key));
+		}
+		return properties;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Object put(Object key, Object value) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Object remove(Object key) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void putAll(Map<? extends Object, ? extends Object> t) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void clear() {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Object setProperty(String key, String value) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void load(Reader reader) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void load(InputStream inStream) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void loadFromXML(InputStream in) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized Object putIfAbsent(Object key, Object value) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized boolean remove(Object key, Object value) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized Object replace(Object key, Object value) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized Object computeIfAbsent(Object key, Function<? super Object, ? extends Object> mappingFunction) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+		throw ImmutableProperties.readOnly();
+	}
+
+	/**
+	 * Not supported on read-only properties
+	 * 
+	 */
+	public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ? extends Object> function) {
+		throw ImmutableProperties.readOnly();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Object> keySet() {
+		return Collections.unmodifiableSet(super.keySet());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Map.Entry<Object, Object>> entrySet() {
+		return Collections.unmodifiableSet(super.entrySet());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<Object> values() {
+		return Collections.unmodifiableCollection(super.values());
+	}
+
+	/**
+	 * Replace a value without going through the read-only checks, 
+	 * only for use by subclasses that fill in values after creation
+	 * 
+	 * @param key to replace
+	 * @param value new value
+	 */
+	synchronized void putDirect(Object key, Object value) {
+		super.put(key, value);
+	}
+
+	/**
+	 * Shared exception for attempts to change the properties
+	 * 
+	 * @return
+	 */
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("Injected configuration properties are read-only");
+	}
+}
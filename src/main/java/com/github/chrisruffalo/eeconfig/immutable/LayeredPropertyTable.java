@@ -0,0 +1,108 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Looks keys up in a list of tables, in priority order, without copying 
+ * them in to one table.  The first table with a key wins.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class LayeredPropertyTable implements PropertyTable {
+
+	private final PropertyTable[] layers;
+	
+	// every distinct key, only gathered if it is asked for
+	private volatile Set<String> keys;
+	
+	/**
+	 * Create the layered table
+	 * 
+	 * @param layers tables in priority order, the most important first
+	 */
+	public LayeredPropertyTable(List<? extends PropertyTable> layers) {
+		this.layers = layers.toArray(new PropertyTable[layers.size()]);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String get(String key) {
+		for(PropertyTable layer : this.layers) {
+			String value = layer.get(key);
+			if(value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(String key) {
+		for(PropertyTable layer : this.layers) {
+			if(layer.containsKey(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		if(this.layers.length == 1) {
+			return this.layers[0].size();
+		}
+		return this.keySet().size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<String> keys() {
+		if(this.layers.length == 1) {
+			return this.layers[0].keys();
+		}
+		return this.keySet().iterator();
+	}
+	
+	private Set<String> keySet() {
+		Set<String> local = this.keys;
+		if(local == null) {
+			Set<String> gathered = new LinkedHashSet<String>();
+			for(PropertyTable layer : this.layers) {
+				Iterator<String> layerKeys = layer.keys();
+				while(layerKeys.hasNext()) {
+					gathered.add(layerKeys.next());
+				}
+			}
+			local = Collections.unmodifiableSet(gathered);
+			this.keys = local;
+		}
+		return local;
+	}
+	
+	/**
+	 * The layers, most important first
+	 * 
+	 * @return copy of the layers
+	 */
+	public List<PropertyTable> getLayers() {
+		List<PropertyTable> list = new ArrayList<PropertyTable>(this.layers.length);
+		Collections.addAll(list, this.layers);
+		return list;
+	}
+}
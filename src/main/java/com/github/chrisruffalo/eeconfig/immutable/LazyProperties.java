@@ -0,0 +1,245 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import com.github.chrisruffalo.eeconfig.strategy.property.ValueInterpolator;
+
+/**
+ * Read-only {@link java.util.Properties} that resolve each value the first time it is read.
+ * The loaded values are held as they were loaded and {@link #getProperty(String)} 
+ * and {@link #get(Object)} go through the {@link ValueInterpolator}.  Any of the
+ * bulk views (entries, values, forEach, storing, printing, comparing) resolves every 
+ * value once before the view is used.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class LazyProperties extends ImmutableProperties {
+
+	// serialization version
+	private static final long serialVersionUID = 1L;
+	
+	private final transient ValueInterpolator interpolator;
+	
+	private volatile transient boolean materialized;
+	
+	/**
+	 * Create lazily resolved properties from the given interpolator
+	 * 
+	 * @param values the values as they were loaded
+	 * @param interpolator interpolator created over the same values
+	 */
+	public LazyProperties(Map<?, ?> values, ValueInterpolator interpolator) {
+		super(values);
+		this.interpolator = interpolator;
+		this.materialized = false;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getProperty(String key) {
+		if(this.materialized || key == null) {
+			return super.getProperty(key);
+		}
+		return this.interpolator.get(key);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getProperty(String key, String defaultValue) {
+		String value = this.getProperty(key);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object get(Object key) {
+		if(this.materialized || !(key instanceof String)) {
+			return super.get(key);
+		}
+		return this.interpolator.get((String)key);
+	}
+	
+	/**
+	 * Not overridden before Java 8, reads a value with a default
+	 * 
+	 */
+	public Object getOrDefault(Object key, Object defaultValue) {
+		Object value = this.get(key);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * Not overridden before Java 8, resolves every value before
+	 * calling the action with each entry
+	 * 
+	 */
+	public void forEach(BiConsumer<? super Object, ? super Object> action) {
+		this.materialize();
+		super.forEach(action);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Map.Entry<Object, Object>> entrySet() {
+		this.materialize();
+		return super.entrySet();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<Object> values() {
+		this.materialize();
+		return super.values();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Enumeration<Object> elements() {
+		this.materialize();
+		return super.elements();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object value) {
+		this.materialize();
+		return super.contains(value);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		this.materialize();
+		return super.containsValue(value);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void store(OutputStream out, String comments) throws IOException {
+		this.materialize();
+		super.store(out, comments);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void store(Writer writer, String comments) throws IOException {
+		this.materialize();
+		super.store(writer, comments);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void storeToXML(OutputStream os, String comment, String encoding) throws IOException {
+		this.materialize();
+		super.storeToXML(os, comment, encoding);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void list(PrintStream out) {
+		this.materialize();
+		super.list(out);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void list(PrintWriter out) {
+		this.materialize();
+		super.list(out);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized boolean equals(Object o) {
+		this.materialize();
+		return super.equals(o);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized int hashCode() {
+		this.materialize();
+		return super.hashCode();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized String toString() {
+		this.materialize();
+		return super.toString();
+	}
+	
+	/**
+	 * Resolve every value and replace the loaded values with them, 
+	 * after this all reads go straight to the underlying table
+	 * 
+	 */
+	private void materialize() {
+		if(this.materialized) {
+			return;
+		}
+		synchronized(this) {
+			if(this.materialized) {
+				return;
+			}
+			for(Map.Entry<String, String> entry : this.interpolator.resolveAll().entrySet()) {
+				this.putDirect(entry.getKey(), entry.getValue());
+			}
+			this.materialized = true;
+		}
+	}
+	
+	/**
+	 * Serialize as plain read-only properties with every value resolved
+	 * 
+	 * @return replacement for serialization
+	 * @throws ObjectStreamException never
+	 */
+	private Object writeReplace() throws ObjectStreamException {
+		this.materialize();
+		return new ImmutableProperties(this);
+	}
+}
@@ -0,0 +1,244 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.github.chrisruffalo.eeconfig.parser.PropertiesScanner;
+
+/**
+ * A {@link PropertyTable} over properties that stay in their (usually memory 
+ * mapped) buffer.  Creating the table scans the buffer once and keeps only the 
+ * position and hash of each entry.  Keys and values are decoded from the buffer 
+ * the first time they are read and kept after that so the heap that is used 
+ * grows with the entries that are read and not with the size of the file.
+ * <br/>
+ * Entries are found through an open addressing table of entry numbers.  When
+ * a key appears more than once the last value wins, as it does when loading
+ * {@link java.util.Properties}.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class MappedPropertyTable implements PropertyTable {
+
+	private final ByteBuffer buffer;
+	
+	private final Charset charset;
+	
+	// key start, key end, value start, value end for each entry
+	private final int[] spans;
+	
+	// hash of each decoded key
+	private final int[] hashes;
+	
+	// entry number + 1 for each slot, 0 for empty
+	private final int[] slots;
+	
+	// keys and values that have been decoded
+	private final String[] keys;
+	
+	private final String[] values;
+	
+	private final int size;
+	
+	private MappedPropertyTable(ByteBuffer buffer, Charset charset, int[] spans, int count) {
+		this.buffer = buffer;
+		this.charset = charset;
+		this.spans = spans;
+		this.hashes = new int[count];
+		this.keys = new String[count];
+		this.values = new String[count];
+		
+		// at most half full
+		int capacity = 2;
+		while(capacity < count * 2) {
+			capacity <<= 1;
+		}
+		this.slots = new int[capacity];
+		
+		int mask = capacity - 1;
+		int size = 0;
+		for(int entry = 0; entry < count; entry++) {
+			// the key is decoded to hash it but not kept
+			String key = this.decodeKey(entry);
+			int hash = key.hashCode();
+			this.hashes[entry] = hash;
+			
+			int slot = MappedPropertyTable.spread(hash) & mask;
+			while(true) {
+				int existing = this.slots[slot] - 1;
+				if(existing < 0) {
+					this.slots[slot] = entry + 1;
+					size++;
+					break;
+				}
+				if(this.hashes[existing] == hash && key.equals(this.decodeKey(existing))) {
+					// later entries replace earlier ones
+					this.slots[slot] = entry + 1;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		this.size = size;
+	}
+	
+	/**
+	 * Index the properties in the buffer, from its position to its limit
+	 * 
+	 * @param buffer the properties file contents, must not be changed afterwards
+	 * @param charset the encoding of the contents, ISO-8859-1 or UTF-8
+	 * @return the table
+	 */
+	public static MappedPropertyTable index(ByteBuffer buffer, Charset charset) {
+		final int[][] holder = new int[][]{new int[64]};
+		final int[] count = new int[1];
+		PropertiesScanner.scan(buffer, new PropertiesScanner.Handler() {
+			@Override
+			public void entry(ByteBuffer buffer, int keyStart, int keyEnd, int valueStart, int valueEnd) {
+				int[] spans = holder[0];
+				int offset = count[0] * 4;
+				if(offset + 4 > spans.length) {
+					spans = Arrays.copyOf(spans, spans.length * 2);
+					holder[0] = spans;
+				}
+				spans[offset] = keyStart;
+				spans[offset + 1] = keyEnd;
+				spans[offset + 2] = valueStart;
+				spans[offset + 3] = valueEnd;
+				count[0]++;
+			}
+		});
+		int[] spans = Arrays.copyOf(holder[0], count[0] * 4);
+		return new MappedPropertyTable(buffer, charset, spans, count[0]);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String get(String key) {
+		int entry = this.find(key);
+		if(entry < 0) {
+			return null;
+		}
+		String value = this.values[entry];
+		if(value == null) {
+			// strings are immutable so a value decoded by more than one thread at once is harmless
+			value = PropertiesScanner.decode(this.buffer, this.spans[entry * 4 + 2], this.spans[entry * 4 + 3], this.charset);
+			this.values[entry] = value;
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(String key) {
+		return this.find(key) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<String> keys() {
+		return new Iterator<String>() {
+			
+			private int slot = this.advance(0);
+			
+			private int advance(int from) {
+				while(from < MappedPropertyTable.this.slots.length && MappedPropertyTable.this.slots[from] == 0) {
+					from++;
+				}
+				return from;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return this.slot < MappedPropertyTable.this.slots.length;
+			}
+
+			@Override
+			public String next() {
+				if(!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int entry = MappedPropertyTable.this.slots[this.slot] - 1;
+				this.slot = this.advance(this.slot + 1);
+				return MappedPropertyTable.this.key(entry);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+	
+	/**
+	 * Find the entry number for a key
+	 * 
+	 * @param key to find
+	 * @return the entry or -1 if the key isn't in the table
+	 */
+	private int find(String key) {
+		if(key == null) {
+			return -1;
+		}
+		int hash = key.hashCode();
+		int mask = this.slots.length - 1;
+		int slot = MappedPropertyTable.spread(hash) & mask;
+		while(true) {
+			int entry = this.slots[slot] - 1;
+			if(entry < 0) {
+				return -1;
+			}
+			if(this.hashes[entry] == hash && key.equals(this.key(entry))) {
+				return entry;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+	
+	/**
+	 * The decoded key of an entry, kept once decoded
+	 * 
+	 * @param entry number
+	 * @return the key
+	 */
+	private String key(int entry) {
+		String key = this.keys[entry];
+		if(key == null) {
+			key = this.decodeKey(entry);
+			this.keys[entry] = key;
+		}
+		return key;
+	}
+	
+	private String decodeKey(int entry) {
+		return PropertiesScanner.decode(this.buffer, this.spans[entry * 4], this.spans[entry * 4 + 1], this.charset);
+	}
+	
+	/**
+	 * Mix the high bits of the hash in to the low bits used for the slot
+	 * 
+	 * @param hash to spread
+	 * @return spread hash
+	 */
+	static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -0,0 +1,238 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A merged view of a list of tables, in priority order, that is held as one 
+ * flat table so that a read is a single lookup.  The first table with a key wins.
+ * <br/>
+ * {@link #replace(int, PropertyTable)} creates a new merged table with one of the
+ * layers replaced.  Only the keys of the old and new layer are merged again and
+ * the other layers, and the flat table, are shared with the original.  The merged
+ * keys are kept in a small patch over the flat table that is folded back in to 
+ * a new flat table once it grows past a quarter of the size of the flat table.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class MergedPropertyTable implements PropertyTable {
+
+	// marks a key in the patch that is no longer in any layer
+	private static final String REMOVED = new String("");
+	
+	private final PropertyTable[] layers;
+	
+	private final CompactPropertyTable flat;
+	
+	private final CompactPropertyTable patch;
+	
+	private final int size;
+	
+	private MergedPropertyTable(PropertyTable[] layers, CompactPropertyTable flat, CompactPropertyTable patch) {
+		this.layers = layers;
+		this.flat = flat;
+		this.patch = patch;
+		
+		// the patch replaces, adds and removes keys of the flat table
+		int count = flat.size();
+		Iterator<String> patched = patch.keys();
+		while(patched.hasNext()) {
+			String key = patched.next();
+			if(flat.containsKey(key)) {
+				count--;
+			}
+			if(patch.get(key) != MergedPropertyTable.REMOVED) {
+				count++;
+			}
+		}
+		this.size = count;
+	}
+	
+	/**
+	 * Merge the layers
+	 * 
+	 * @param layers tables in priority order, the most important first
+	 * @return the merged table
+	 */
+	public static MergedPropertyTable of(List<? extends PropertyTable> layers) {
+		PropertyTable[] array = layers.toArray(new PropertyTable[layers.size()]);
+		return new MergedPropertyTable(array, MergedPropertyTable.flatten(array), CompactPropertyTable.empty());
+	}
+	
+	/**
+	 * Create a merged table with one layer replaced
+	 * 
+	 * @param index of the layer to replace, 0 is the most important
+	 * @param layer the new layer
+	 * @return the new merged table, this table is not changed
+	 */
+	public MergedPropertyTable replace(int index, PropertyTable layer) {
+		if(index < 0 || index >= this.layers.length) {
+			throw new IndexOutOfBoundsException("No layer " + index + " in " + this.layers.length + " layers");
+		}
+		PropertyTable old = this.layers[index];
+		PropertyTable[] replaced = this.layers.clone();
+		replaced[index] = layer;
+		if(old == layer) {
+			return new MergedPropertyTable(replaced, this.flat, this.patch);
+		}
+		
+		// keep the existing patch and merge the keys of both versions of the layer again
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder(this.patch.size() + old.size() + layer.size());
+		Iterator<String> patched = this.patch.keys();
+		while(patched.hasNext()) {
+			String key = patched.next();
+			builder.put(key, this.patch.get(key), 1);
+		}
+		MergedPropertyTable.remerge(replaced, old.keys(), builder);
+		MergedPropertyTable.remerge(replaced, layer.keys(), builder);
+		CompactPropertyTable patch = builder.build();
+		
+		// fold a large patch in to a new flat table
+		if(patch.size() * 4 > this.flat.size()) {
+			return new MergedPropertyTable(replaced, MergedPropertyTable.flatten(replaced), CompactPropertyTable.empty());
+		}
+		return new MergedPropertyTable(replaced, this.flat, patch);
+	}
+	
+	/**
+	 * The layers, most important first
+	 * 
+	 * @return copy of the layers
+	 */
+	public List<PropertyTable> getLayers() {
+		List<PropertyTable> list = new ArrayList<PropertyTable>(this.layers.length);
+		Collections.addAll(list, this.layers);
+		return list;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String get(String key) {
+		String value = this.patch.get(key);
+		if(value != null) {
+			return value == MergedPropertyTable.REMOVED ? null : value;
+		}
+		return this.flat.get(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(String key) {
+		return this.get(key) != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<String> keys() {
+		if(this.patch.size() == 0) {
+			return this.flat.keys();
+		}
+		final Iterator<String> flatKeys = this.flat.keys();
+		final Iterator<String> patchKeys = this.patch.keys();
+		return new Iterator<String>() {
+			
+			private String next = this.advance();
+			
+			private String advance() {
+				// flat keys that the patch doesn't touch, then the keys the patch has
+				while(flatKeys.hasNext()) {
+					String key = flatKeys.next();
+					if(!MergedPropertyTable.this.patch.containsKey(key)) {
+						return key;
+					}
+				}
+				while(patchKeys.hasNext()) {
+					String key = patchKeys.next();
+					if(MergedPropertyTable.this.patch.get(key) != MergedPropertyTable.REMOVED) {
+						return key;
+					}
+				}
+				return null;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return this.next != null;
+			}
+
+			@Override
+			public String next() {
+				if(this.next == null) {
+					throw new NoSuchElementException();
+				}
+				String key = this.next;
+				this.next = this.advance();
+				return key;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+	
+	/**
+	 * Merge every key of every layer in to one flat table
+	 * 
+	 * @param layers most important first
+	 * @return the flat table
+	 */
+	private static CompactPropertyTable flatten(PropertyTable[] layers) {
+		int expected = 0;
+		for(PropertyTable layer : layers) {
+			expected = Math.max(expected, layer.size());
+		}
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder(expected);
+		for(int index = 0; index < layers.length; index++) {
+			Iterator<String> keys = layers[index].keys();
+			while(keys.hasNext()) {
+				String key = keys.next();
+				if(!builder.isShadowed(key, index)) {
+					builder.put(key, layers[index].get(key), index);
+				}
+			}
+		}
+		return builder.build();
+	}
+	
+	/**
+	 * Put the merged value of each key in to the patch
+	 * 
+	 * @param layers most important first
+	 * @param keys to merge again
+	 * @param patch to put the values in to
+	 */
+	private static void remerge(PropertyTable[] layers, Iterator<String> keys, CompactPropertyTable.Builder patch) {
+		while(keys.hasNext()) {
+			String key = keys.next();
+			String value = null;
+			for(PropertyTable layer : layers) {
+				value = layer.get(key);
+				if(value != null) {
+					break;
+				}
+			}
+			patch.put(key, value == null ? MergedPropertyTable.REMOVED : value, 0);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.Iterator;
+
+/**
+ * Read-only string keys and values loaded from a configuration.  Implementations
+ * are safe to read from many threads at once without locking.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public interface PropertyTable {
+
+	/**
+	 * The value for the given key
+	 * 
+	 * @param key to look up
+	 * @return the value or null if the key is not in the table
+	 */
+	String get(String key);
+	
+	/**
+	 * If the table has a value for the key
+	 * 
+	 * @param key to look up
+	 * @return true if the key is in the table
+	 */
+	boolean containsKey(String key);
+	
+	/**
+	 * The number of keys in the table
+	 * 
+	 * @return number of keys
+	 */
+	int size();
+	
+	/**
+	 * Every key in the table, once each
+	 * 
+	 * @return iterator over the keys, does not support removal
+	 */
+	Iterator<String> keys();
+	
+}
@@ -0,0 +1,376 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.io.ObjectStreamException;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only {@link java.util.Properties} that read from a {@link PropertyTable}
+ * instead of copying it.  Lookups go straight to the table so they take no lock
+ * and only touch the entries that are asked for.  The inherited table is empty
+ * so every method that reads entries, including the ones added to 
+ * {@link java.util.Hashtable} in Java 8, reads the table instead.
+ * <br/>
+ * The default {@link java.util.Properties} injection copies its values in to
+ * a plain {@link ImmutableProperties}, these are only used where the table
+ * is the point (memory mapped files, reloading and {@link ConfigMap#asProperties()}).
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class TableProperties extends ImmutableProperties {
+
+	// serialization version
+	private static final long serialVersionUID = 1L;
+	
+	private final transient PropertyTable table;
+	
+	/**
+	 * Create properties that read from the given table
+	 * 
+	 * @param table to read from
+	 */
+	public TableProperties(PropertyTable table) {
+		super(null);
+		this.table = table;
+	}
+	
+	/**
+	 * The table these properties read from
+	 * 
+	 * @return the table
+	 */
+	public PropertyTable getTable() {
+		return this.table;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getProperty(String key) {
+		return this.table.get(key);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getProperty(String key, String defaultValue) {
+		String value = this.table.get(key);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object get(Object key) {
+		if(!(key instanceof String)) {
+			return null;
+		}
+		return this.table.get((String)key);
+	}
+	
+	/**
+	 * Not overridden before Java 8, reads a value with a default
+	 * 
+	 */
+	public Object getOrDefault(Object key, Object defaultValue) {
+		Object value = this.get(key);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * Not overridden before Java 8, calls the action with each entry of the table
+	 * 
+	 */
+	public void forEach(BiConsumer<? super Object, ? super Object> action) {
+		if(action == null) {
+			throw new NullPointerException();
+		}
+		Iterator<String> keys = this.table.keys();
+		while(keys.hasNext()) {
+			String key = keys.next();
+			action.accept(key, this.table.get(key));
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof String && this.table.containsKey((String)key);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object value) {
+		if(value == null) {
+			throw new NullPointerException();
+		}
+		Iterator<String> keys = this.table.keys();
+		while(keys.hasNext()) {
+			if(value.equals(this.table.get(keys.next()))) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		return this.contains(value);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.table.size();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return this.table.size() == 0;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Enumeration<Object> keys() {
+		return Collections.enumeration(this.keySet());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Enumeration<Object> elements() {
+		return Collections.enumeration(this.values());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Enumeration<?> propertyNames() {
+		return this.keys();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<String> stringPropertyNames() {
+		Set<String> names = new LinkedHashSet<String>();
+		Iterator<String> keys = this.table.keys();
+		while(keys.hasNext()) {
+			names.add(keys.next());
+		}
+		return Collections.unmodifiableSet(names);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Object> keySet() {
+		return new AbstractSet<Object>() {
+			@Override
+			public Iterator<Object> iterator() {
+				final Iterator<String> keys = TableProperties.this.table.keys();
+				return new Iterator<Object>() {
+					@Override
+					public boolean hasNext() {
+						return keys.hasNext();
+					}
+
+					@Override
+					public Object next() {
+						return keys.next();
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return TableProperties.this.containsKey(o);
+			}
+
+			@Override
+			public int size() {
+				return TableProperties.this.table.size();
+			}
+		};
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Map.Entry<Object, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<Object, Object>>() {
+			@Override
+			public Iterator<Map.Entry<Object, Object>> iterator() {
+				final Iterator<String> keys = TableProperties.this.table.keys();
+				return new Iterator<Map.Entry<Object, Object>>() {
+					@Override
+					public boolean hasNext() {
+						return keys.hasNext();
+					}
+
+					@Override
+					public Map.Entry<Object, Object> next() {
+						String key = keys.next();
+						return new AbstractMap.SimpleImmutableEntry<Object, Object>(key, TableProperties.this.table.get(key));
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return TableProperties.this.table.size();
+			}
+		};
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<Object> values() {
+		return new AbstractCollection<Object>() {
+			@Override
+			public Iterator<Object> iterator() {
+				final Iterator<Map.Entry<Object, Object>> entries = TableProperties.this.entrySet().iterator();
+				return new Iterator<Object>() {
+					@Override
+					public boolean hasNext() {
+						return entries.hasNext();
+					}
+
+					@Override
+					public Object next() {
+						return entries.next().getValue();
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return TableProperties.this.table.size();
+			}
+		};
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(!(o instanceof Map)) {
+			return false;
+		}
+		Map<?, ?> other = (Map<?, ?>)o;
+		if(other.size() != this.size()) {
+			return false;
+		}
+		Iterator<String> keys = this.table.keys();
+		while(keys.hasNext()) {
+			String key = keys.next();
+			if(!this.table.get(key).equals(other.get(key))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		Iterator<String> keys = this.table.keys();
+		while(keys.hasNext()) {
+			String key = keys.next();
+			hash += key.hashCode() ^ this.table.get(key).hashCode();
+		}
+		return hash;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		Iterator<String> keys = this.table.keys();
+		while(keys.hasNext()) {
+			String key = keys.next();
+			builder.append(key).append('=').append(this.table.get(key));
+			if(keys.hasNext()) {
+				builder.append(", ");
+			}
+		}
+		return builder.append('}').toString();
+	}
+	
+	/**
+	 * Copies are plain read-only properties holding every value
+	 * 
+	 */
+	@Override
+	public Object clone() {
+		return new ImmutableProperties(this);
+	}
+	
+	/**
+	 * Serialize as plain read-only properties holding every value
+	 * 
+	 * @return replacement for serialization
+	 * @throws ObjectStreamException never
+	 */
+	private Object writeReplace() throws ObjectStreamException {
+		return new ImmutableProperties(this);
+	}
+}
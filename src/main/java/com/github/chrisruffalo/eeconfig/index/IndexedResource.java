@@ -0,0 +1,79 @@
+package com.github.chrisruffalo.eeconfig.index;
+
+import java.net.URL;
+
+/**
+ * A classpath resource found while building a {@link ResourceIndex}
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class IndexedResource {
+
+	private final String name;
+	
+	private final URL url;
+	
+	private final long size;
+	
+	private final long hash;
+	
+	/**
+	 * Create an indexed resource
+	 * 
+	 * @param name the resource name
+	 * @param url where the resource is
+	 * @param size the size in bytes, -1 if unknown
+	 * @param hash the CRC-32 of the contents, -1 if unknown
+	 */
+	public IndexedResource(String name, URL url, long size, long hash) {
+		this.name = name;
+		this.url = url;
+		this.size = size;
+		this.hash = hash;
+	}
+	
+	/**
+	 * The resource name, as it would be given to {@link ClassLoader#getResource(String)}
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Where the resource is
+	 * 
+	 * @return the url
+	 */
+	public URL getUrl() {
+		return this.url;
+	}
+	
+	/**
+	 * The size of the resource when it was indexed
+	 * 
+	 * @return the size in bytes, -1 if unknown
+	 */
+	public long getSize() {
+		return this.size;
+	}
+	
+	/**
+	 * The CRC-32 of the contents when the resource was indexed
+	 * 
+	 * @return the hash, -1 if unknown
+	 */
+	public long getHash() {
+		return this.hash;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "IndexedResource [" + this.name + " at " + this.url + "]";
+	}
+}
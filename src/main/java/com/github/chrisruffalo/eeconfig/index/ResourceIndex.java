@@ -0,0 +1,256 @@
+package com.github.chrisruffalo.eeconfig.index;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.chrisruffalo.eeconfig.source.impl.ContentHash;
+
+/**
+ * An index of the classpath resources under a set of prefixes, built once, so
+ * that finding those resources doesn't search the class loader.  Each name maps
+ * to every resource with that name, in class loader order.
+ * <br/>
+ * Resources are only found under a prefix if the archive or directory they are in 
+ * has an entry for the prefix itself, so a name that isn't in the index should
+ * still be looked up the usual way.  Only directories and jar archives can be 
+ * indexed: if any other root (like the <code>vfs:</code> roots of JBoss) has 
+ * an entry for a prefix the index is not {@link #isComplete() complete} and
+ * shouldn't be used in place of the class loader.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class ResourceIndex {
+
+	/**
+	 * The prefix that is always indexed
+	 */
+	public static final String DEFAULT_PREFIX = "META-INF/ee-config/";
+	
+	/**
+	 * System property with more prefixes to index, separated by commas
+	 */
+	public static final String PREFIXES_PROPERTY = "ee-config.index.prefixes";
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResourceIndex.class);
+	
+	private static final ResourceIndex EMPTY = new ResourceIndex(Collections.<String, List<IndexedResource>>emptyMap(), false);
+	
+	private final Map<String, List<IndexedResource>> resources;
+	
+	private final boolean complete;
+	
+	private ResourceIndex(Map<String, List<IndexedResource>> resources, boolean complete) {
+		this.resources = resources;
+		this.complete = complete;
+	}
+	
+	/**
+	 * An index with nothing in it, it is not complete
+	 * 
+	 * @return the empty index
+	 */
+	public static ResourceIndex empty() {
+		return ResourceIndex.EMPTY;
+	}
+	
+	/**
+	 * The prefixes to index: the default and any from the System Property
+	 * {@value #PREFIXES_PROPERTY}
+	 * 
+	 * @return the prefixes, each ending with '/'
+	 */
+	public static Set<String> prefixes() {
+		Set<String> prefixes = new LinkedHashSet<String>();
+		prefixes.add(ResourceIndex.DEFAULT_PREFIX);
+		String declared = System.getProperty(ResourceIndex.PREFIXES_PROPERTY);
+		if(declared != null) {
+			for(String prefix : declared.split(",")) {
+				prefix = prefix.trim();
+				if(prefix.startsWith("/")) {
+					prefix = prefix.substring(1);
+				}
+				if(prefix.isEmpty()) {
+					continue;
+				}
+				prefixes.add(prefix.endsWith("/") ? prefix : prefix + "/");
+			}
+		}
+		return prefixes;
+	}
+	
+	/**
+	 * Build an index of the resources under the given prefixes
+	 * 
+	 * @param loader the class loader to index
+	 * @param prefixes the prefixes to index, each ending with '/'
+	 * @return the index
+	 */
+	public static ResourceIndex build(ClassLoader loader, Set<String> prefixes) {
+		Map<String, List<IndexedResource>> resources = new HashMap<String, List<IndexedResource>>();
+		boolean complete = true;
+		for(String prefix : prefixes) {
+			Enumeration<URL> roots;
+			try {
+				roots = loader.getResources(prefix.substring(0, prefix.length() - 1));
+			} catch (IOException e) {
+				ResourceIndex.LOGGER.warn("Could not find resources under '{}': {}", prefix, e.getMessage());
+				complete = false;
+				continue;
+			}
+			while(roots.hasMoreElements()) {
+				URL root = roots.nextElement();
+				try {
+					complete &= ResourceIndex.index(root, prefix, resources);
+				} catch (IOException e) {
+					ResourceIndex.LOGGER.warn("Could not index resources in '{}': {}", root, e.getMessage());
+					complete = false;
+				}
+			}
+		}
+		
+		// freeze
+		for(Map.Entry<String, List<IndexedResource>> entry : resources.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		if(complete) {
+			ResourceIndex.LOGGER.debug("Indexed {} configuration resource names under {}", resources.size(), prefixes);
+		} else {
+			ResourceIndex.LOGGER.debug("Indexed {} configuration resource names under {}, some roots could not be indexed so the class loader will be used", resources.size(), prefixes);
+		}
+		return new ResourceIndex(Collections.unmodifiableMap(resources), complete);
+	}
+	
+	/**
+	 * Was every root with an entry for a prefix indexed.  Only a complete index
+	 * has every resource under the prefixes, in class loader order.
+	 * 
+	 * @return true if the index can be used in place of the class loader
+	 */
+	public boolean isComplete() {
+		return this.complete;
+	}
+	
+	/**
+	 * The first resource with the name, the same one {@link ClassLoader#getResource(String)} finds
+	 * 
+	 * @param name the resource name
+	 * @return the resource or null if it is not in the index
+	 */
+	public IndexedResource get(String name) {
+		List<IndexedResource> found = this.resources.get(name);
+		return found == null ? null : found.get(0);
+	}
+	
+	/**
+	 * Every resource with the name, like {@link ClassLoader#getResources(String)}
+	 * 
+	 * @param name the resource name
+	 * @return the resources, empty if none are in the index
+	 */
+	public List<IndexedResource> getAll(String name) {
+		List<IndexedResource> found = this.resources.get(name);
+		return found == null ? Collections.<IndexedResource>emptyList() : found;
+	}
+	
+	/**
+	 * The indexed resource names
+	 * 
+	 * @return the names
+	 */
+	public Set<String> names() {
+		return this.resources.keySet();
+	}
+	
+	/**
+	 * The number of indexed names
+	 * 
+	 * @return the number of names
+	 */
+	public int size() {
+		return this.resources.size();
+	}
+	
+	private static boolean index(URL root, String prefix, Map<String, List<IndexedResource>> resources) throws IOException {
+		if("file".equalsIgnoreCase(root.getProtocol())) {
+			File directory;
+			try {
+				directory = new File(root.toURI());
+			} catch (URISyntaxException | IllegalArgumentException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+			ResourceIndex.indexDirectory(directory, prefix, resources);
+			return true;
+		}
+		
+		URLConnection connection = root.openConnection();
+		if(!(connection instanceof JarURLConnection)) {
+			ResourceIndex.LOGGER.debug("Can't index resources in '{}', they will be looked up as needed", root);
+			return false;
+		}
+		JarURLConnection jarConnection = (JarURLConnection)connection;
+		jarConnection.setUseCaches(false);
+		String base = "jar:" + jarConnection.getJarFileURL().toExternalForm() + "!/";
+		try (JarFile jar = jarConnection.getJarFile()) {
+			Enumeration<JarEntry> entries = jar.entries();
+			while(entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				if(entry.isDirectory() || !entry.getName().startsWith(prefix)) {
+					continue;
+				}
+				// the archive already has the crc of each entry
+				ResourceIndex.add(resources, new IndexedResource(entry.getName(), new URL(base + entry.getName()), entry.getSize(), entry.getCrc()));
+			}
+		}
+		return true;
+	}
+	
+	private static void indexDirectory(File directory, String name, Map<String, List<IndexedResource>> resources) throws IOException {
+		File[] children = directory.listFiles();
+		if(children == null) {
+			return;
+		}
+		for(File child : children) {
+			String childName = name + child.getName();
+			if(child.isDirectory()) {
+				ResourceIndex.indexDirectory(child, childName + "/", resources);
+			} else if(child.isFile()) {
+				ResourceIndex.add(resources, new IndexedResource(childName, child.toURI().toURL(), child.length(), ResourceIndex.crc(child)));
+			}
+		}
+	}
+	
+	private static void add(Map<String, List<IndexedResource>> resources, IndexedResource resource) {
+		List<IndexedResource> found = resources.get(resource.getName());
+		if(found == null) {
+			found = new ArrayList<IndexedResource>(1);
+			resources.put(resource.getName(), found);
+		}
+		found.add(resource);
+	}
+	
+	private static long crc(File file) throws IOException {
+		try (InputStream stream = new FileInputStream(file)) {
+			return ContentHash.of(stream);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.github.chrisruffalo.eeconfig.index;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.Extension;
+
+/**
+ * Portable extension that builds the {@link ResourceIndex} of the 
+ * configuration resources in the deployment.  Each class loader (like each 
+ * module of an EAR) has its own index, built the first time it is asked for, 
+ * and the class loaders are weakly held so that the index of a redeployed 
+ * application goes away with its class loader.  The extension can be injected 
+ * to get the index.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ResourceIndexExtension implements Extension {
+
+	// indexes by class loader
+	private final Map<ClassLoader, ResourceIndex> indexes = new WeakHashMap<ClassLoader, ResourceIndex>();
+	
+	/**
+	 * Build the index for the deployment's class loader
+	 * 
+	 * @param event
+	 */
+	public void afterDeploymentValidation(@Observes AfterDeploymentValidation event) {
+		this.getIndex();
+	}
+	
+	/**
+	 * The index of the configuration resources for the current
+	 * thread's context class loader
+	 * 
+	 * @return the index
+	 */
+	public ResourceIndex getIndex() {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if(loader == null) {
+			loader = ResourceIndexExtension.class.getClassLoader();
+		}
+		return this.getIndex(loader);
+	}
+	
+	/**
+	 * The index of the configuration resources for the class loader,
+	 * built the first time it is needed
+	 * 
+	 * @param loader the class loader
+	 * @return the index
+	 */
+	public ResourceIndex getIndex(ClassLoader loader) {
+		synchronized(this.indexes) {
+			ResourceIndex index = this.indexes.get(loader);
+			if(index == null) {
+				index = ResourceIndex.build(loader, ResourceIndex.prefixes());
+				this.indexes.put(loader, index);
+			}
+			return index;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.github.chrisruffalo.eeconfig.mime;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses the contents of a configuration source of one {@link SupportedType}
+ * into the type of object that a producer creates.  Parsers are registered
+ * with the {@link FormatRegistry}.
+ * 
+ * @author Chris Ruffalo
+ *
+ * @param <T> the type of object parsed
+ */
+public interface FormatParser<T> {
+
+	/**
+	 * Parse the stream.  The caller owns the stream and closes it.
+	 * 
+	 * @param stream the contents to parse
+	 * @return the parsed object, never null
+	 * @throws IOException if the contents can't be read or are not in the expected format
+	 */
+	T parse(InputStream stream) throws IOException;
+	
+}
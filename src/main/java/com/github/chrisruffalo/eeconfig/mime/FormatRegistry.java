@@ -0,0 +1,397 @@
+package com.github.chrisruffalo.eeconfig.mime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.configuration.AbstractConfiguration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.chrisruffalo.eeconfig.parser.PropertiesParser;
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.SourceAttributes;
+import com.github.chrisruffalo.eeconfig.source.impl.BufferedSource;
+
+/**
+ * Registry of the configuration formats that can be detected and parsed.
+ * <br/>
+ * Detection is extension first: a registered extension decides the type with a 
+ * single lookup.  When the extension isn't registered, only the first
+ * {@link #PEEK_SIZE} bytes (after any byte order mark and white space) are 
+ * matched against the registered magic prefixes, which are grouped by their first
+ * byte.  If nothing matches the type is {@link SupportedType#TEXT}.  Detected 
+ * types are kept per source path and modification time.
+ * <br/>
+ * Parsers are registered per type and per produced class.  When no parser is
+ * registered for a type the {@link SupportedType#TEXT} parser for the same 
+ * class is used.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class FormatRegistry {
+
+	/**
+	 * Most bytes read from a source to match magic prefixes
+	 */
+	public static final int PEEK_SIZE = 64;
+	
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(FormatRegistry.class);
+	
+	// extension (lower case) to type
+	private static final ConcurrentMap<String, SupportedType> EXTENSIONS = new ConcurrentHashMap<String, SupportedType>();
+	
+	// magic prefixes by their first byte
+	private static final ConcurrentMap<Byte, List<Magic>> MAGIC = new ConcurrentHashMap<Byte, List<Magic>>();
+	
+	// parsers by the class they produce
+	private static final ConcurrentMap<Class<?>, Map<SupportedType, FormatParser<?>>> PARSERS = new ConcurrentHashMap<Class<?>, Map<SupportedType, FormatParser<?>>>();
+	
+	// previously detected types by source
+	private static final ConcurrentMap<String, Detected> DETECTED = new ConcurrentHashMap<String, Detected>();
+	
+	static {
+		// extensions
+		FormatRegistry.registerExtension("xml", SupportedType.XML);
+		FormatRegistry.registerExtension("json", SupportedType.JSON);
+		FormatRegistry.registerExtension("yaml", SupportedType.YAML);
+		FormatRegistry.registerExtension("yml", SupportedType.YAML);
+		// plain text is also decided by the extension so that resources in a jar, which have
+		// no modification time to cache the detected type with, are not peeked on every load
+		FormatRegistry.registerExtension("properties", SupportedType.TEXT);
+		FormatRegistry.registerExtension("txt", SupportedType.TEXT);
+		FormatRegistry.registerExtension("conf", SupportedType.TEXT);
+		
+		// magic
+		FormatRegistry.registerMagic("<?xml", SupportedType.XML);
+		FormatRegistry.registerMagic("<!DOCTYPE", SupportedType.XML);
+		FormatRegistry.registerMagic("<properties", SupportedType.XML);
+		FormatRegistry.registerMagic("{", SupportedType.JSON);
+		FormatRegistry.registerMagic("%YAML", SupportedType.YAML);
+		FormatRegistry.registerMagic("---", SupportedType.YAML);
+		
+		// java.util.Properties
+		FormatRegistry.registerParser(SupportedType.TEXT, Properties.class, PropertiesParser.FORMAT_PARSER);
+		FormatRegistry.registerParser(SupportedType.XML, Properties.class, new FormatParser<Properties>() {
+			@Override
+			public Properties parse(InputStream stream) throws IOException {
+				Properties properties = new Properties();
+				properties.loadFromXML(stream);
+				return properties;
+			}
+		});
+		
+		// commons configuration
+		FormatRegistry.registerParser(SupportedType.TEXT, AbstractConfiguration.class, new FormatParser<AbstractConfiguration>() {
+			@Override
+			public AbstractConfiguration parse(InputStream stream) throws IOException {
+				PropertiesConfiguration configuration = new PropertiesConfiguration();
+				try {
+					configuration.load(stream);
+				} catch (ConfigurationException e) {
+					throw new IOException(e.getMessage(), e);
+				}
+				return configuration;
+			}
+		});
+		FormatRegistry.registerParser(SupportedType.XML, AbstractConfiguration.class, new FormatParser<AbstractConfiguration>() {
+			@Override
+			public AbstractConfiguration parse(InputStream stream) throws IOException {
+				XMLConfiguration configuration = new XMLConfiguration();
+				try {
+					configuration.load(stream);
+				} catch (ConfigurationException e) {
+					throw new IOException(e.getMessage(), e);
+				}
+				return configuration;
+			}
+		});
+	}
+	
+	private FormatRegistry() {
+		
+	}
+	
+	/**
+	 * Register the type for a file extension, replacing any previous registration
+	 * 
+	 * @param extension the extension, without the '.'
+	 * @param type the type of files with that extension
+	 */
+	public static void registerExtension(String extension, SupportedType type) {
+		if(extension == null || extension.isEmpty() || type == null) {
+			throw new IllegalArgumentException("A non-empty extension and a non-null type must be provided");
+		}
+		FormatRegistry.EXTENSIONS.put(extension.toLowerCase(Locale.ENGLISH), type);
+		FormatRegistry.DETECTED.clear();
+	}
+	
+	/**
+	 * Register a prefix that identifies the type when found at the start of 
+	 * the contents.  Longer prefixes are matched before shorter ones.
+	 * 
+	 * @param prefix the prefix, in ASCII, no longer than {@link #PEEK_SIZE}
+	 * @param type the type of contents that start with the prefix
+	 */
+	public static void registerMagic(String prefix, SupportedType type) {
+		if(prefix == null || prefix.isEmpty() || type == null) {
+			throw new IllegalArgumentException("A non-empty prefix and a non-null type must be provided");
+		}
+		byte[] bytes = prefix.getBytes(FormatRegistry.ASCII);
+		if(bytes.length > FormatRegistry.PEEK_SIZE) {
+			throw new IllegalArgumentException("A prefix can be at most " + FormatRegistry.PEEK_SIZE + " bytes");
+		}
+		synchronized(FormatRegistry.MAGIC) {
+			List<Magic> bucket = FormatRegistry.MAGIC.get(bytes[0]);
+			if(bucket == null) {
+				bucket = new CopyOnWriteArrayList<Magic>();
+				FormatRegistry.MAGIC.put(bytes[0], bucket);
+			}
+			// keep longest first so that the most specific prefix wins
+			int index = 0;
+			while(index < bucket.size() && bucket.get(index).prefix.length >= bytes.length) {
+				index++;
+			}
+			bucket.add(index, new Magic(bytes, type));
+		}
+		FormatRegistry.DETECTED.clear();
+	}
+	
+	/**
+	 * Register the parser that creates the given class from contents of the given
+	 * type, replacing any previous registration
+	 * 
+	 * @param type the type of contents parsed
+	 * @param target the class that is created
+	 * @param parser the parser
+	 */
+	public static <T> void registerParser(SupportedType type, Class<T> target, FormatParser<? extends T> parser) {
+		if(type == null || target == null || parser == null) {
+			throw new IllegalArgumentException("A non-null type, target, and parser must be provided");
+		}
+		synchronized(FormatRegistry.PARSERS) {
+			Map<SupportedType, FormatParser<?>> existing = FormatRegistry.PARSERS.get(target);
+			Map<SupportedType, FormatParser<?>> parsers = new EnumMap<SupportedType, FormatParser<?>>(SupportedType.class);
+			if(existing != null) {
+				parsers.putAll(existing);
+			}
+			parsers.put(type, parser);
+			FormatRegistry.PARSERS.put(target, Collections.unmodifiableMap(parsers));
+		}
+	}
+	
+	/**
+	 * Get the parser that creates the given class from contents of the given type
+	 * 
+	 * @param type the type of the contents
+	 * @param target the class to create
+	 * @return the parser, the text parser if there is none for the type, or null if 
+	 * 		   there is no parser for the class at all
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> FormatParser<? extends T> getParser(SupportedType type, Class<T> target) {
+		Map<SupportedType, FormatParser<?>> parsers = FormatRegistry.PARSERS.get(target);
+		if(parsers == null) {
+			return null;
+		}
+		FormatParser<?> parser = parsers.get(type);
+		if(parser == null) {
+			parser = parsers.get(SupportedType.TEXT);
+		}
+		return (FormatParser<? extends T>)parser;
+	}
+	
+	/**
+	 * Detect the type of the given source
+	 * 
+	 * @param source the source
+	 * @return the detected type, {@link SupportedType#TEXT} if it can't be detected
+	 */
+	public static SupportedType detect(ISource source) {
+		if(source == null || !source.available()) {
+			return SupportedType.TEXT;
+		}
+		
+		// extension first
+		String extension = source.getExtension();
+		if(extension != null && !extension.isEmpty()) {
+			SupportedType type = FormatRegistry.EXTENSIONS.get(extension.toLowerCase(Locale.ENGLISH));
+			if(type != null) {
+				return type;
+			}
+		}
+		
+		// use the type found last time if the source has not changed
+		long lastModified = SourceAttributes.lastModified(source);
+		long size = SourceAttributes.size(source);
+		String key = null;
+		if(lastModified > 0) {
+			key = FormatRegistry.key(source);
+			Detected detected = FormatRegistry.DETECTED.get(key);
+			if(detected != null && detected.lastModified == lastModified && detected.size == size) {
+				return detected.type;
+			}
+		}
+		
+		// then magic
+		SupportedType type = FormatRegistry.sniff(source);
+		LOGGER.trace("Detected type {} for {}", type, source.getPath());
+		
+		if(key != null) {
+			FormatRegistry.DETECTED.put(key, new Detected(lastModified, size, type));
+		}
+		
+		return type;
+	}
+	
+	/**
+	 * Forget every previously detected type
+	 * 
+	 */
+	public static void clearCache() {
+		FormatRegistry.DETECTED.clear();
+	}
+	
+	/**
+	 * Match the start of the contents of the source against the magic prefixes
+	 * 
+	 * @param source the source
+	 * @return the matched type or {@link SupportedType#TEXT} if none match
+	 */
+	private static SupportedType sniff(ISource source) {
+		byte[] peek;
+		int length;
+		if(source instanceof BufferedSource) {
+			// already in memory, no need to copy
+			peek = ((BufferedSource)source).bytes();
+			length = Math.min(peek.length, FormatRegistry.PEEK_SIZE);
+		} else {
+			peek = new byte[FormatRegistry.PEEK_SIZE];
+			length = FormatRegistry.read(source, peek);
+		}
+		
+		// skip utf-8 byte order mark and white space
+		int start = 0;
+		if(length >= 3 && (peek[0] & 0xFF) == 0xEF && (peek[1] & 0xFF) == 0xBB && (peek[2] & 0xFF) == 0xBF) {
+			start = 3;
+		}
+		while(start < length && Character.isWhitespace((char)(peek[start] & 0xFF))) {
+			start++;
+		}
+		if(start >= length) {
+			// blank sources are treated as plain text
+			return SupportedType.TEXT;
+		}
+		
+		List<Magic> bucket = FormatRegistry.MAGIC.get(peek[start]);
+		if(bucket != null) {
+			for(Magic magic : bucket) {
+				if(magic.matches(peek, start, length)) {
+					return magic.type;
+				}
+			}
+		}
+		return SupportedType.TEXT;
+	}
+	
+	/**
+	 * Read up to the length of the buffer from the start of the source
+	 * 
+	 * @param source to read from
+	 * @param buffer to read in to
+	 * @return the number of bytes read
+	 */
+	private static int read(ISource source, byte[] buffer) {
+		InputStream stream = source.stream();
+		if(stream == null) {
+			return 0;
+		}
+		int length = 0;
+		try {
+			int read;
+			while(length < buffer.length && (read = stream.read(buffer, length, buffer.length - length)) >= 0) {
+				length += read;
+			}
+		} catch (IOException e) {
+			LOGGER.debug("Could not read the start of {}: {}", source.getPath(), e.getMessage());
+		} finally {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				LOGGER.trace("Could not close stream: {}", e.getMessage());
+			}
+		}
+		return length;
+	}
+	
+	/**
+	 * Key for the cache of detected types
+	 * 
+	 * @param source the source
+	 * @return key made of the source type and path
+	 */
+	private static String key(ISource source) {
+		ISource keySource = source instanceof BufferedSource ? ((BufferedSource)source).getDelegate() : source;
+		return keySource.getClass().getName() + ":" + keySource.getPath();
+	}
+	
+	/**
+	 * A registered magic prefix
+	 */
+	private static final class Magic {
+		
+		private final byte[] prefix;
+		
+		private final SupportedType type;
+		
+		private Magic(byte[] prefix, SupportedType type) {
+			this.prefix = prefix;
+			this.type = type;
+		}
+		
+		private boolean matches(byte[] bytes, int start, int length) {
+			if(length - start < this.prefix.length) {
+				return false;
+			}
+			for(int i = 0; i < this.prefix.length; i++) {
+				if(bytes[start + i] != this.prefix[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * A previously detected type
+	 */
+	private static final class Detected {
+		
+		private final long lastModified;
+		
+		private final long size;
+		
+		private final SupportedType type;
+		
+		private Detected(long lastModified, long size, SupportedType type) {
+			this.lastModified = lastModified;
+			this.size = size;
+			this.type = type;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.github.chrisruffalo.eeconfig.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import com.github.chrisruffalo.eeconfig.immutable.CompactPropertyTable;
+import com.github.chrisruffalo.eeconfig.immutable.TableProperties;
+import com.github.chrisruffalo.eeconfig.mime.FormatParser;
+
+/**
+ * Parses properties files straight from their bytes in to a
+ * {@link CompactPropertyTable}, without a {@link java.util.Properties} 
+ * in between.
+ * <br/>
+ * The contents are read as ISO-8859-1, like {@link java.util.Properties#load(java.io.InputStream)},
+ * or as UTF-8.  Contents that start with a UTF-8 byte order mark are always read
+ * as UTF-8 and the mark is skipped.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class PropertiesParser {
+
+	/**
+	 * Reads streams as ISO-8859-1 properties in to read-only properties, this is
+	 * the parser registered for {@link com.github.chrisruffalo.eeconfig.mime.SupportedType#TEXT}
+	 */
+	public static final FormatParser<Properties> FORMAT_PARSER = new FormatParser<Properties>() {
+		@Override
+		public Properties parse(InputStream stream) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] chunk = new byte[8192];
+			int read;
+			while((read = stream.read(chunk)) >= 0) {
+				bytes.write(chunk, 0, read);
+			}
+			return new TableProperties(PropertiesParser.parse(ByteBuffer.wrap(bytes.toByteArray()), StandardCharsets.ISO_8859_1));
+		}
+	};
+	
+	private PropertiesParser() {
+		
+	}
+	
+	/**
+	 * Parse the contents in to a new table
+	 * 
+	 * @param buffer the contents, from position to limit
+	 * @param charset ISO-8859-1 or UTF-8
+	 * @return the table
+	 */
+	public static CompactPropertyTable parse(ByteBuffer buffer, Charset charset) {
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder();
+		PropertiesParser.parse(buffer, charset, builder, 0);
+		return builder.build();
+	}
+	
+	/**
+	 * Parse the contents in to a layer of the builder.  The values of keys
+	 * that are already set by a more important layer are not decoded at all.
+	 * 
+	 * @param buffer the contents, from position to limit
+	 * @param charset ISO-8859-1 or UTF-8
+	 * @param builder to add the entries to
+	 * @param layer the layer the entries are in, 0 is the most important
+	 */
+	public static void parse(ByteBuffer buffer, Charset charset, final CompactPropertyTable.Builder builder, final int layer) {
+		final Charset decodeAs = PropertiesParser.charset(buffer, charset);
+		PropertiesScanner.scan(PropertiesParser.content(buffer), new PropertiesScanner.Handler() {
+			@Override
+			public void entry(ByteBuffer buffer, int keyStart, int keyEnd, int valueStart, int valueEnd) {
+				String key = PropertiesScanner.decode(buffer, keyStart, keyEnd, decodeAs);
+				if(builder.isShadowed(key, layer)) {
+					return;
+				}
+				builder.put(key, PropertiesScanner.decode(buffer, valueStart, valueEnd, decodeAs), layer);
+			}
+		});
+	}
+	
+	/**
+	 * Pick the charset to read the contents with
+	 * 
+	 * @param buffer the contents, from position to limit
+	 * @param charset the configured charset
+	 * @return UTF-8 if the contents start with a byte order mark, otherwise the configured charset
+	 */
+	public static Charset charset(ByteBuffer buffer, Charset charset) {
+		return PropertiesParser.hasByteOrderMark(buffer) ? StandardCharsets.UTF_8 : charset;
+	}
+	
+	/**
+	 * The contents without any UTF-8 byte order mark
+	 * 
+	 * @param buffer the contents, from position to limit
+	 * @return the same buffer or, if it starts with a byte order mark, a view that starts after it
+	 */
+	public static ByteBuffer content(ByteBuffer buffer) {
+		if(!PropertiesParser.hasByteOrderMark(buffer)) {
+			return buffer;
+		}
+		ByteBuffer view = buffer.duplicate();
+		view.position(buffer.position() + 3);
+		return view;
+	}
+	
+	private static boolean hasByteOrderMark(ByteBuffer buffer) {
+		int pos = buffer.position();
+		return buffer.limit() - pos >= 3 
+			&& (buffer.get(pos) & 0xFF) == 0xEF 
+			&& (buffer.get(pos + 1) & 0xFF) == 0xBB 
+			&& (buffer.get(pos + 2) & 0xFF) == 0xBF;
+	}
+}
@@ -0,0 +1,287 @@
+package com.github.chrisruffalo.eeconfig.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Finds the keys and values of a properties file directly in its bytes.  The
+ * syntax is the same as {@link java.util.Properties#load(java.io.Reader)}: 
+ * comments start with '#' or '!', keys end at an unescaped '=', ':', or white
+ * space, a line that ends in an odd number of backslashes continues on the next 
+ * line, and escapes like \t and \\uXXXX are supported.
+ * <br/>
+ * Every structural character is ASCII so the same scan works for ISO-8859-1 and
+ * for UTF-8 contents.  The scan only reports where each key and value are, the
+ * (escaped, possibly continued) text is turned into a string with 
+ * {@link #decode(ByteBuffer, int, int, Charset)} when it is needed.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class PropertiesScanner {
+
+	/**
+	 * Receives the location of each entry, in the order they appear
+	 */
+	public interface Handler {
+		
+		/**
+		 * An entry was found, positions are absolute positions in the buffer
+		 * 
+		 * @param buffer the buffer being scanned
+		 * @param keyStart first byte of the key
+		 * @param keyEnd one past the last byte of the key
+		 * @param valueStart first byte of the value
+		 * @param valueEnd one past the last byte of the value
+		 */
+		void entry(ByteBuffer buffer, int keyStart, int keyEnd, int valueStart, int valueEnd);
+		
+	}
+	
+	private PropertiesScanner() {
+		
+	}
+	
+	/**
+	 * Scan the buffer from its position to its limit.  The position of the
+	 * buffer is not changed.
+	 * 
+	 * @param buffer to scan
+	 * @param handler to report entries to
+	 */
+	public static void scan(ByteBuffer buffer, Handler handler) {
+		int pos = buffer.position();
+		int limit = buffer.limit();
+		
+		while(pos < limit) {
+			byte c = buffer.get(pos);
+			
+			// blank space and empty lines between entries
+			if(PropertiesScanner.isWhitespace(c) || PropertiesScanner.isNewline(c)) {
+				pos++;
+				continue;
+			}
+			
+			// comments run to the end of the line and are never continued
+			if(c == '#' || c == '!') {
+				while(pos < limit && !PropertiesScanner.isNewline(buffer.get(pos))) {
+					pos++;
+				}
+				continue;
+			}
+			
+			// key runs until an unescaped separator, white space, or the end of the line
+			int keyStart = pos;
+			while(pos < limit) {
+				c = buffer.get(pos);
+				if(c == '\\') {
+					pos = PropertiesScanner.escape(buffer, pos, limit);
+					continue;
+				}
+				if(c == '=' || c == ':' || PropertiesScanner.isWhitespace(c) || PropertiesScanner.isNewline(c)) {
+					break;
+				}
+				pos++;
+			}
+			int keyEnd = pos;
+			
+			// white space around at most one separator
+			boolean separated = false;
+			while(pos < limit) {
+				c = buffer.get(pos);
+				if(PropertiesScanner.isWhitespace(c)) {
+					pos++;
+				} else if(c == '\\' && pos + 1 < limit && PropertiesScanner.isNewline(buffer.get(pos + 1))) {
+					pos = PropertiesScanner.continuation(buffer, pos + 1, limit);
+				} else if(!separated && (c == '=' || c == ':')) {
+					separated = true;
+					pos++;
+				} else {
+					break;
+				}
+			}
+			
+			// value runs to the end of the (logical) line
+			int valueStart = pos;
+			while(pos < limit) {
+				c = buffer.get(pos);
+				if(c == '\\') {
+					pos = PropertiesScanner.escape(buffer, pos, limit);
+					continue;
+				}
+				if(PropertiesScanner.isNewline(c)) {
+					break;
+				}
+				pos++;
+			}
+			
+			handler.entry(buffer, keyStart, keyEnd, valueStart, pos);
+		}
+	}
+	
+	/**
+	 * Turn the escaped text between the given positions into a string
+	 * 
+	 * @param buffer the buffer that was scanned
+	 * @param start first byte
+	 * @param end one past the last byte
+	 * @param charset encoding of the text, ISO-8859-1 or UTF-8
+	 * @return the text
+	 * @throws IllegalArgumentException when a \\uXXXX escape is malformed
+	 */
+	public static String decode(ByteBuffer buffer, int start, int end, Charset charset) {
+		// most text has no escapes at all
+		int slash = start;
+		while(slash < end && buffer.get(slash) != '\\') {
+			slash++;
+		}
+		if(slash == end) {
+			return PropertiesScanner.string(buffer, start, end, charset);
+		}
+		
+		boolean latin = StandardCharsets.ISO_8859_1.equals(charset);
+		StringBuilder output = new StringBuilder(end - start);
+		int run = start;
+		int pos = slash;
+		while(pos < end) {
+			byte c = buffer.get(pos);
+			if(c != '\\') {
+				pos++;
+				continue;
+			}
+			
+			// text before the escape
+			PropertiesScanner.append(output, buffer, run, pos, charset, latin);
+			pos++;
+			
+			// a trailing backslash is dropped
+			if(pos >= end) {
+				run = pos;
+				break;
+			}
+			
+			c = buffer.get(pos);
+			switch(c) {
+				case 'u':
+					if(pos + 4 >= end) {
+						throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					}
+					int value = 0;
+					for(int i = 1; i <= 4; i++) {
+						int digit = Character.digit((char)buffer.get(pos + i), 16);
+						if(digit < 0) {
+							throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+						}
+						value = (value << 4) | digit;
+					}
+					output.append((char)value);
+					pos += 5;
+					break;
+				case 't':
+					output.append('\t');
+					pos++;
+					break;
+				case 'n':
+					output.append('\n');
+					pos++;
+					break;
+				case 'r':
+					output.append('\r');
+					pos++;
+					break;
+				case 'f':
+					output.append('\f');
+					pos++;
+					break;
+				case '\r':
+				case '\n':
+					pos = PropertiesScanner.continuation(buffer, pos, end);
+					break;
+				default:
+					if(latin || (c & 0x80) == 0) {
+						output.append((char)(c & 0xFF));
+						pos++;
+					}
+					// otherwise this is the start of a multi-byte character 
+					// that is decoded with the text that follows
+					break;
+			}
+			run = pos;
+		}
+		PropertiesScanner.append(output, buffer, run, end, charset, latin);
+		
+		return output.toString();
+	}
+	
+	/**
+	 * Skip past an escape sequence
+	 * 
+	 * @param buffer being scanned
+	 * @param pos position of the backslash
+	 * @param limit end of the buffer
+	 * @return position after the escape
+	 */
+	private static int escape(ByteBuffer buffer, int pos, int limit) {
+		if(pos + 1 >= limit) {
+			return limit;
+		}
+		if(PropertiesScanner.isNewline(buffer.get(pos + 1))) {
+			return PropertiesScanner.continuation(buffer, pos + 1, limit);
+		}
+		return pos + 2;
+	}
+	
+	/**
+	 * Skip the line break of a continued line and the white space 
+	 * at the start of the next line
+	 * 
+	 * @param buffer being scanned
+	 * @param pos position of the line break
+	 * @param limit end of the buffer
+	 * @return position of the first byte on the next line that is not white space
+	 */
+	private static int continuation(ByteBuffer buffer, int pos, int limit) {
+		if(buffer.get(pos) == '\r' && pos + 1 < limit && buffer.get(pos + 1) == '\n') {
+			pos += 2;
+		} else {
+			pos++;
+		}
+		while(pos < limit && PropertiesScanner.isWhitespace(buffer.get(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+	
+	private static void append(StringBuilder output, ByteBuffer buffer, int start, int end, Charset charset, boolean latin) {
+		if(start >= end) {
+			return;
+		}
+		if(latin) {
+			for(int i = start; i < end; i++) {
+				output.append((char)(buffer.get(i) & 0xFF));
+			}
+		} else {
+			output.append(PropertiesScanner.string(buffer, start, end, charset));
+		}
+	}
+	
+	private static String string(ByteBuffer buffer, int start, int end, Charset charset) {
+		if(buffer.hasArray()) {
+			return new String(buffer.array(), buffer.arrayOffset() + start, end - start, charset);
+		}
+		byte[] bytes = new byte[end - start];
+		ByteBuffer view = buffer.duplicate();
+		view.position(start);
+		view.get(bytes);
+		return new String(bytes, charset);
+	}
+	
+	private static boolean isWhitespace(byte c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+	
+	private static boolean isNewline(byte c) {
+		return c == '\r' || c == '\n';
+	}
+}
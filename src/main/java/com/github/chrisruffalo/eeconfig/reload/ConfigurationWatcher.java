@@ -0,0 +1,332 @@
+package com.github.chrisruffalo.eeconfig.reload;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.chrisruffalo.eeconfig.annotations.Logging;
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.impl.BufferedSource;
+import com.github.chrisruffalo.eeconfig.source.impl.FileSource;
+import com.github.chrisruffalo.eeconfig.source.impl.PathSource;
+import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
+
+/**
+ * Watches the files that reloadable configurations were loaded from.  A 
+ * single {@link WatchService}, and a single thread, is shared by every 
+ * watched directory.  When a file is created, changed or deleted the listeners
+ * that watch it are handed to the {@link ReloadScheduler} so that a burst of 
+ * changes only calls each listener once.  Files that were not found are watched
+ * too, by their directory, so that a listener is called when they show up.  The
+ * files that changed are kept for each listener until it asks for them with
+ * {@link #changes(Runnable)}.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@ApplicationScoped
+public class ConfigurationWatcher {
+
+	@Inject
+	@Logging
+	private Logger logger;
+	
+	@Inject
+	private ReloadScheduler scheduler;
+	
+	private WatchService service;
+	
+	private Thread thread;
+	
+	// watched directories and, per directory, the listeners for each file
+	private final Map<WatchKey, Path> directories = new HashMap<WatchKey, Path>();
+	private final Map<Path, Map<Path, List<Runnable>>> listeners = new HashMap<Path, Map<Path, List<Runnable>>>();
+	
+	// the files watched for each listener
+	private final Map<Runnable, Set<Path>> watched = new HashMap<Runnable, Set<Path>>();
+	
+	// the files that changed for each listener since it last asked
+	private final Map<Runnable, Set<Path>> changes = new HashMap<Runnable, Set<Path>>();
+	
+	/**
+	 * Create a watcher, the scheduler is injected
+	 * 
+	 */
+	public ConfigurationWatcher() {
+		
+	}
+	
+	/**
+	 * Create a watcher that hands changes to the given scheduler
+	 * 
+	 * @param scheduler to run the listeners with
+	 */
+	ConfigurationWatcher(ReloadScheduler scheduler) {
+		this.scheduler = scheduler;
+		this.logger = LoggerFactory.getLogger(this.getClass());
+	}
+	
+	/**
+	 * Call the listener when any of the files behind the given sources change, or
+	 * are created if they were not found.  Sources that aren't files are ignored.  
+	 * The files replace the ones that were watched for the listener before, so
+	 * files that are no longer located stop calling the listener.
+	 * 
+	 * @param sources the located sources
+	 * @param listener called, by the scheduler, after a change
+	 * @return the number of files watched for the listener
+	 */
+	public int watch(List<ISource> sources, Runnable listener) {
+		Set<Path> files = new LinkedHashSet<Path>();
+		for(ISource source : sources) {
+			Path file = ConfigurationWatcher.fileOf(source);
+			if(file != null) {
+				files.add(file.toAbsolutePath());
+			}
+		}
+		return this.replace(files, listener);
+	}
+	
+	/**
+	 * The files watched for the listener that were created, changed or deleted
+	 * since the last time the listener asked.  If events were lost every
+	 * file in the directory is counted as changed.
+	 * 
+	 * @param listener the listener that was called
+	 * @return the (absolute) changed files, empty if there are none
+	 */
+	public synchronized Set<Path> changes(Runnable listener) {
+		Set<Path> changed = this.changes.remove(listener);
+		if(changed == null) {
+			return Collections.emptySet();
+		}
+		return changed;
+	}
+	
+	/**
+	 * Stop watching and stop the watcher thread
+	 * 
+	 */
+	@PreDestroy
+	public synchronized void close() {
+		if(this.service != null) {
+			try {
+				this.service.close();
+			} catch (IOException e) {
+				this.logger.trace("Could not close watch service: {}", e.getMessage());
+			}
+			this.service = null;
+			this.thread = null;
+		}
+		this.directories.clear();
+		this.listeners.clear();
+		this.watched.clear();
+		this.changes.clear();
+	}
+	
+	/**
+	 * The file behind a source.  Memory mapped sources are file sources, unfound 
+	 * sources have a file when they were looked for in one.
+	 * 
+	 * @param source
+	 * @return the file or null if the source isn't a file
+	 */
+	public static Path fileOf(ISource source) {
+		if(source instanceof BufferedSource) {
+			source = ((BufferedSource)source).getDelegate();
+		}
+		if(source instanceof PathSource) {
+			return ((PathSource)source).getFile();
+		}
+		if(source instanceof UnfoundSource) {
+			return ((UnfoundSource)source).getFile();
+		}
+		if(source instanceof FileSource) {
+			File file = ((FileSource)source).getFile();
+			return file == null ? null : file.toPath();
+		}
+		return null;
+	}
+	
+	private synchronized int replace(Set<Path> files, Runnable listener) {
+		Set<Path> current = new HashSet<Path>();
+		for(Path file : files) {
+			try {
+				this.watch(file, listener);
+				current.add(file);
+			} catch (NoSuchFileException e) {
+				this.logger.trace("Can not watch '{}', the directory does not exist", file);
+			} catch (IOException | UnsupportedOperationException e) {
+				this.logger.warn("Can not watch '{}' for changes: {}", file, e.getMessage());
+			}
+		}
+		
+		// stop watching the files that weren't located this time
+		Set<Path> previous = this.watched.remove(listener);
+		if(previous != null) {
+			for(Path file : previous) {
+				if(!current.contains(file)) {
+					this.unwatch(file, listener);
+				}
+			}
+		}
+		if(!current.isEmpty()) {
+			this.watched.put(listener, current);
+		}
+		return current.size();
+	}
+	
+	private void watch(Path file, Runnable listener) throws IOException {
+		Path directory = file.getParent();
+		if(directory == null) {
+			return;
+		}
+		
+		// only the default file system is watched
+		if(!directory.getFileSystem().equals(FileSystems.getDefault())) {
+			throw new UnsupportedOperationException("Only files on the default file system can be watched");
+		}
+		
+		Map<Path, List<Runnable>> files = this.listeners.get(directory);
+		if(files == null) {
+			WatchKey key = directory.register(this.service(), StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+			this.directories.put(key, directory);
+			files = new HashMap<Path, List<Runnable>>();
+			this.listeners.put(directory, files);
+		}
+		
+		List<Runnable> fileListeners = files.get(file);
+		if(fileListeners == null) {
+			fileListeners = new CopyOnWriteArrayList<Runnable>();
+			files.put(file, fileListeners);
+		}
+		if(!fileListeners.contains(listener)) {
+			fileListeners.add(listener);
+		}
+	}
+	
+	private void unwatch(Path file, Runnable listener) {
+		Path directory = file.getParent();
+		Map<Path, List<Runnable>> files = directory == null ? null : this.listeners.get(directory);
+		if(files == null) {
+			return;
+		}
+		List<Runnable> fileListeners = files.get(file);
+		if(fileListeners != null) {
+			fileListeners.remove(listener);
+			if(fileListeners.isEmpty()) {
+				files.remove(file);
+			}
+		}
+		
+		// nothing left to watch in the directory
+		if(files.isEmpty()) {
+			this.listeners.remove(directory);
+			Iterator<Map.Entry<WatchKey, Path>> keys = this.directories.entrySet().iterator();
+			while(keys.hasNext()) {
+				Map.Entry<WatchKey, Path> entry = keys.next();
+				if(directory.equals(entry.getValue())) {
+					entry.getKey().cancel();
+					keys.remove();
+				}
+			}
+		}
+	}
+	
+	private WatchService service() throws IOException {
+		if(this.service == null) {
+			final WatchService created = FileSystems.getDefault().newWatchService();
+			this.service = created;
+			this.thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					ConfigurationWatcher.this.poll(created);
+				}
+			}, "ee-config-watcher");
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+		return this.service;
+	}
+	
+	private void poll(WatchService watching) {
+		while(true) {
+			WatchKey key;
+			try {
+				key = watching.take();
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+			
+			// find who to tell
+			List<Runnable> notify = new ArrayList<Runnable>();
+			synchronized(this) {
+				Path directory = this.directories.get(key);
+				Map<Path, List<Runnable>> files = directory == null ? null : this.listeners.get(directory);
+				for(WatchEvent<?> event : key.pollEvents()) {
+					if(files == null) {
+						continue;
+					}
+					if(StandardWatchEventKinds.OVERFLOW.equals(event.kind())) {
+						// events were lost, anything in the directory may have changed
+						for(Map.Entry<Path, List<Runnable>> entry : files.entrySet()) {
+							this.changed(entry.getKey(), entry.getValue(), notify);
+						}
+					} else {
+						Path file = directory.resolve((Path)event.context());
+						List<Runnable> found = files.get(file);
+						if(found != null) {
+							this.changed(file, found, notify);
+						}
+					}
+				}
+				if(!key.reset()) {
+					this.directories.remove(key);
+					if(directory != null) {
+						this.listeners.remove(directory);
+					}
+				}
+			}
+			
+			this.scheduler.schedule(notify);
+		}
+	}
+	
+	private void changed(Path file, List<Runnable> fileListeners, List<Runnable> notify) {
+		for(Runnable listener : fileListeners) {
+			if(!notify.contains(listener)) {
+				notify.add(listener);
+			}
+			Set<Path> changed = this.changes.get(listener);
+			if(changed == null) {
+				changed = new HashSet<Path>();
+				this.changes.put(listener, changed);
+			}
+			changed.add(file);
+		}
+	}
+}
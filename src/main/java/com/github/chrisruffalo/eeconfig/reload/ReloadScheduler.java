@@ -0,0 +1,216 @@
+package com.github.chrisruffalo.eeconfig.reload;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs reloads for the configurations whose files changed.  Changes that arrive 
+ * close together (like a deployment that rewrites a set of files) are collected
+ * until no change has arrived for the length of the window and then each affected
+ * configuration is reloaded once.  A configuration that is changed again while it 
+ * is being reloaded is reloaded once more after it finishes.  Only a limited 
+ * number of reloads run at the same time.
+ * <br/>
+ * So that a steady stream of changes can't hold off reloading forever the reloads
+ * run, at the latest, ten windows after the first change.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@ApplicationScoped
+public class ReloadScheduler {
+
+	/**
+	 * System property that sets the window, in milliseconds, that changes are collected for
+	 */
+	public static final String WINDOW_PROPERTY = "ee-config.reload.window";
+	
+	/**
+	 * System property that sets the number of reloads that can run at the same time
+	 */
+	public static final String CONCURRENCY_PROPERTY = "ee-config.reload.concurrency";
+	
+	/**
+	 * Default window in milliseconds
+	 */
+	public static final long DEFAULT_WINDOW = 250;
+	
+	// the longest a burst is collected for, in windows
+	private static final int MAXIMUM_WINDOWS = 10;
+	
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+	
+	private final long window;
+	
+	private final int concurrency;
+	
+	private ScheduledThreadPoolExecutor executor;
+	
+	// reloads waiting for the end of the burst
+	private final Set<Runnable> pending = new LinkedHashSet<Runnable>();
+	
+	// reloads that are running and, of those, the ones to run again when they finish
+	private final Set<Runnable> running = new HashSet<Runnable>();
+	private final Set<Runnable> again = new HashSet<Runnable>();
+	
+	// when the current burst started, in nanoseconds, and the reload scheduled for its end
+	private long burst;
+	private ScheduledFuture<?> flush;
+	
+	/**
+	 * Create a scheduler with the window and concurrency from the system
+	 * properties, or their defaults
+	 * 
+	 */
+	public ReloadScheduler() {
+		this(ReloadScheduler.fromSystem(ReloadScheduler.WINDOW_PROPERTY, ReloadScheduler.DEFAULT_WINDOW), (int)ReloadScheduler.fromSystem(ReloadScheduler.CONCURRENCY_PROPERTY, ReloadScheduler.defaultConcurrency()));
+	}
+	
+	/**
+	 * Create a scheduler
+	 * 
+	 * @param window milliseconds, after the last change, to wait for more changes
+	 * @param concurrency the number of reloads that can run at the same time
+	 */
+	public ReloadScheduler(long window, int concurrency) {
+		this.window = Math.max(0, window);
+		this.concurrency = Math.max(1, concurrency);
+	}
+	
+	/**
+	 * Reload once the burst of changes is over
+	 * 
+	 * @param reloads to run
+	 */
+	public synchronized void schedule(Collection<Runnable> reloads) {
+		if(reloads.isEmpty()) {
+			return;
+		}
+		
+		long now = System.nanoTime();
+		if(this.pending.isEmpty()) {
+			this.burst = now;
+		}
+		this.pending.addAll(reloads);
+		
+		// wait for another window, unless the burst has gone on for too long
+		if(this.flush != null) {
+			this.flush.cancel(false);
+		}
+		long delay = TimeUnit.MILLISECONDS.toNanos(this.window);
+		long remaining = this.burst + delay * ReloadScheduler.MAXIMUM_WINDOWS - now;
+		this.flush = this.executor().schedule(new Runnable() {
+			@Override
+			public void run() {
+				ReloadScheduler.this.flush();
+			}
+		}, Math.max(0, Math.min(delay, remaining)), TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * Stop the threads when the application stops
+	 * 
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if(this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+		this.pending.clear();
+		this.running.clear();
+		this.again.clear();
+		this.flush = null;
+	}
+	
+	/**
+	 * Start each pending reload that isn't already running
+	 * 
+	 */
+	private synchronized void flush() {
+		List<Runnable> start = new ArrayList<Runnable>(this.pending.size());
+		for(Runnable reload : this.pending) {
+			if(this.running.add(reload)) {
+				start.add(reload);
+			} else {
+				this.again.add(reload);
+			}
+		}
+		this.logger.trace("Reloading {} configurations, {} more after they finish", start.size(), this.pending.size() - start.size());
+		this.pending.clear();
+		this.flush = null;
+		
+		for(final Runnable reload : start) {
+			this.executor().execute(new Runnable() {
+				@Override
+				public void run() {
+					ReloadScheduler.this.run(reload);
+				}
+			});
+		}
+	}
+	
+	private void run(Runnable reload) {
+		try {
+			reload.run();
+		} catch (RuntimeException e) {
+			this.logger.error("An error occurred while reloading configuration: {}", e.getMessage());
+		} finally {
+			synchronized(this) {
+				this.running.remove(reload);
+				if(this.again.remove(reload) && this.executor != null) {
+					this.schedule(Collections.singleton(reload));
+				}
+			}
+		}
+	}
+	
+	private ScheduledThreadPoolExecutor executor() {
+		if(this.executor == null) {
+			final AtomicInteger count = new AtomicInteger();
+			this.executor = new ScheduledThreadPoolExecutor(this.concurrency, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "ee-config-reload-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			this.executor.setRemoveOnCancelPolicy(true);
+		}
+		return this.executor;
+	}
+	
+	private static int defaultConcurrency() {
+		return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+	}
+	
+	private static long fromSystem(String property, long defaultValue) {
+		String value = System.getProperty(property);
+		if(value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+	
+}
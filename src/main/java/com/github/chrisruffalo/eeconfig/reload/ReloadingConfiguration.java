@@ -0,0 +1,102 @@
+package com.github.chrisruffalo.eeconfig.reload;
+
+import java.util.Iterator;
+
+import org.apache.commons.configuration.AbstractConfiguration;
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * A read-only configuration that reads from a snapshot configuration
+ * that can be replaced.  Each read goes to whichever snapshot is current,
+ * without locking.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ReloadingConfiguration extends AbstractConfiguration {
+
+	private volatile Configuration snapshot;
+	
+	/**
+	 * Create a configuration over the first snapshot
+	 * 
+	 * @param snapshot the current (read-only) configuration
+	 */
+	public ReloadingConfiguration(Configuration snapshot) {
+		this.set(snapshot);
+	}
+	
+	/**
+	 * Replace the snapshot
+	 * 
+	 * @param snapshot the new (read-only) configuration
+	 */
+	public void set(Configuration snapshot) {
+		if(snapshot == null) {
+			throw new IllegalArgumentException("A non-null configuration must be provided");
+		}
+		this.snapshot = snapshot;
+	}
+	
+	/**
+	 * The current snapshot
+	 * 
+	 * @return the snapshot
+	 */
+	public Configuration get() {
+		return this.snapshot;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return this.snapshot.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(String key) {
+		return this.snapshot.containsKey(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getProperty(String key) {
+		return this.snapshot.getProperty(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<String> getKeys() {
+		// the snapshot is read-only so its keys can't be removed
+		return this.snapshot.getKeys();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addPropertyDirect(String key, Object value) {
+		throw ReloadingConfiguration.readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void clearPropertyDirect(String key) {
+		throw ReloadingConfiguration.readOnly();
+	}
+	
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("Injected configuration is read-only");
+	}
+}
@@ -0,0 +1,131 @@
+package com.github.chrisruffalo.eeconfig.reload;
+
+import java.util.Iterator;
+import java.util.Properties;
+
+import com.github.chrisruffalo.eeconfig.immutable.PropertyTable;
+import com.github.chrisruffalo.eeconfig.immutable.TableProperties;
+
+/**
+ * A {@link PropertyTable} that reads from a snapshot table that can be
+ * replaced.  Each read goes to whichever snapshot is current, without locking.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ReloadingPropertyTable implements PropertyTable {
+
+	private volatile PropertyTable snapshot;
+	
+	/**
+	 * Create a table over the first snapshot
+	 * 
+	 * @param snapshot the current values
+	 */
+	public ReloadingPropertyTable(PropertyTable snapshot) {
+		this.set(snapshot);
+	}
+	
+	/**
+	 * The table that properties are read from, properties that are not already
+	 * backed by a table are read through their own getters so that any lazy
+	 * interpolation still happens when a value is read
+	 * 
+	 * @param properties the loaded (read-only) properties
+	 * @return a table over the properties
+	 */
+	public static PropertyTable of(Properties properties) {
+		if(properties instanceof TableProperties) {
+			return ((TableProperties)properties).getTable();
+		}
+		return new PropertiesTable(properties);
+	}
+	
+	/**
+	 * Replace the snapshot
+	 * 
+	 * @param snapshot the new values
+	 */
+	public void set(PropertyTable snapshot) {
+		if(snapshot == null) {
+			throw new IllegalArgumentException("A non-null snapshot must be provided");
+		}
+		this.snapshot = snapshot;
+	}
+	
+	/**
+	 * The current snapshot
+	 * 
+	 * @return the snapshot
+	 */
+	public PropertyTable get() {
+		return this.snapshot;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String get(String key) {
+		return this.snapshot.get(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(String key) {
+		return this.snapshot.containsKey(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return this.snapshot.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<String> keys() {
+		return this.snapshot.keys();
+	}
+
+	/**
+	 * Reads a table from read-only properties
+	 *
+	 */
+	private static class PropertiesTable implements PropertyTable {
+		
+		private final Properties properties;
+		
+		private PropertiesTable(Properties properties) {
+			this.properties = properties;
+		}
+		
+		@Override
+		public String get(String key) {
+			return this.properties.getProperty(key);
+		}
+
+		@Override
+		public boolean containsKey(String key) {
+			return this.properties.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return this.properties.size();
+		}
+
+		@Override
+		public Iterator<String> keys() {
+			return this.properties.stringPropertyNames().iterator();
+		}
+		
+	}
+
+}
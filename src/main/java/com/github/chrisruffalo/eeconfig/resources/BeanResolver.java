@@ -1,9 +1,12 @@
 package com.github.chrisruffalo.eeconfig.resources;
 
-import java.lang.reflect.Type;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
@@ -13,9 +16,23 @@ import org.slf4j.Logger;
 
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
 
+/**
+ * Resolves the beans used as strategies (locators, property resolvers)
+ * from the classes named in annotations.
+ * <br/>
+ * The bean found for a class is kept so the bean manager is only searched once 
+ * per class.  The reference to a normal scoped bean (like the built-in application 
+ * scoped strategies) is kept too and handed out to every later request for that 
+ * class.  A {@link Dependent} scoped bean still gets a new instance for every 
+ * request, as it did before, so custom strategies that keep state don't need to 
+ * be thread-safe.  
+ *
+ * @author Chris Ruffalo
+ *
+ */
 @ApplicationScoped
 public class BeanResolver {
-
+	
 	@Inject
 	@Logging
 	private Logger logger;
@@ -23,21 +40,36 @@ public class BeanResolver {
 	@Inject
 	private BeanManager manager;
 	
+	// beans, and normal scoped references, that have already been resolved by the requested class
+	private final ConcurrentMap<Class<?>, Resolved> resolved = new ConcurrentHashMap<Class<?>, Resolved>();
+	
 	/**
 	 * Resolve managed bean for given type
-	 * 
+	 *
 	 * @param typeToResolve
 	 * @param defaultType
 	 * @return
 	 */
 	@SuppressWarnings("unchecked")
 	public <B, T extends B, D extends B> B resolveBeanWithDefaultClass(Class<T> typeToResolve, Class<D> defaultType) {
-
+		
 		// if type to resolve is null, do nothing, not even the default
 		if(typeToResolve == null) {
 			return null;
 		}
 		
+		// already resolved
+		Resolved found = this.resolved.get(typeToResolve);
+		if(found != null) {
+			if(found.reference != null) {
+				return (B)found.reference;
+			}
+			if(found.bean != null) {
+				return (B)this.create(found.bean, typeToResolve);
+			}
+			return this.resolveBeanWithDefaultClass(defaultType, null);
+		}
+		
 		// get candidate resolve types
 		Set<Bean<?>> candidates = this.manager.getBeans(typeToResolve);
 		
@@ -46,20 +78,71 @@ public class BeanResolver {
 		if(!candidates.iterator().hasNext()) {
 			this.logger.trace("No candidates for: {}", typeToResolve.getName());
 			// try and resolve only the default type
-			return resolveBeanWithDefaultClass(defaultType, null);
-		} 
+			B result = resolveBeanWithDefaultClass(defaultType, null);
+			if(result != null) {
+				// the default is kept through its own entry
+				this.resolved.putIfAbsent(typeToResolve, new Resolved(null, null));
+			}
+			return result;
+		}
 		
 		this.logger.trace("Requesting resolution on: {}", typeToResolve.getName());
 		
 		// get candidate
 		Bean<?> bean = candidates.iterator().next();
-		CreationalContext<?> context = this.manager.createCreationalContext(bean);
-		Type type = (Type) bean.getTypes().iterator().next();
-	    B result = (B)this.manager.getReference(bean, type, context);
+		Object result = this.create(bean, typeToResolve);
+		
+		// dependent beans are created again for each request, normal scoped references 
+		// are client proxies so the first one can be shared.  if another thread got here
+		// first then use that one.
+		boolean dependent = Dependent.class.equals(bean.getScope());
+		Resolved previous = this.resolved.putIfAbsent(typeToResolve, new Resolved(bean, dependent ? null : result));
+		if(previous != null && previous.reference != null) {
+			result = previous.reference;
+		}
 		
 		this.logger.trace("Resolved to: {}", result.getClass().getName());
 		
-		return result;
+		return (B)result;
+	}
+	
+	/**
+	 * Forget the resolved beans
+	 *
+	 */
+	@PreDestroy
+	public void release() {
+		this.resolved.clear();
 	}
 	
+	/**
+	 * Get a reference to the given bean
+	 * 
+	 * @param bean
+	 * @param type the requested type
+	 * @return the reference
+	 */
+	private Object create(Bean<?> bean, Class<?> type) {
+		CreationalContext<?> context = this.manager.createCreationalContext(bean);
+		return this.manager.getReference(bean, type, context);
+	}
+	
+	/**
+	 * A resolved bean and, for normal scoped beans, the reference
+	 * to it.  Both are null when the default type was used instead.
+	 *
+	 */
+	private static class Resolved {
+		
+		private final Bean<?> bean;
+		
+		private final Object reference;
+		
+		private Resolved(Bean<?> bean, Object reference) {
+			this.bean = bean;
+			this.reference = reference;
+		}
+	
+	}
+
 }
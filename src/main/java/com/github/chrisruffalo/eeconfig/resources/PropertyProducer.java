@@ -1,7 +1,12 @@
 package com.github.chrisruffalo.eeconfig.resources;
 
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
@@ -13,7 +18,10 @@ import org.slf4j.Logger;
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
 import com.github.chrisruffalo.eeconfig.annotations.Property;
 import com.github.chrisruffalo.eeconfig.annotations.Resolver;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationKey;
 import com.github.chrisruffalo.eeconfig.strategy.property.PropertyResolver;
+import com.github.chrisruffalo.eeconfig.strategy.property.PropertyResolvers;
+import com.github.chrisruffalo.eeconfig.strategy.property.SystemPropertySnapshot;
 import com.github.chrisruffalo.eeconfig.wrapper.ResolverAnnotationWrapper;
 import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
 
@@ -21,6 +29,13 @@ import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
  * Injects a system property at the injection point after
  * looking up the desired property from the list
  * of System Properties available to the System.
+ * <br/>
+ * The value produced for each distinct {@link Property} (key, default value,
+ * and resolver settings) is kept and reused until the System Properties
+ * or the bootstrap properties change.  The bootstrap sources are only checked
+ * again once the value is older than the interval given by the System Property
+ * {@value #BOOTSTRAP_CHECK_INTERVAL_PROPERTY} (in milliseconds), so a repeated 
+ * injection is a single lookup.
  * 
  * @author Chris Ruffalo
  *
@@ -28,6 +43,20 @@ import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
 @ApplicationScoped
 public class PropertyProducer {
 
+	/**
+	 * System property with the interval, in milliseconds, after which the bootstrap
+	 * sources of a produced value are checked again.  Zero or less checks every time.
+	 */
+	public static final String BOOTSTRAP_CHECK_INTERVAL_PROPERTY = "ee-config.bootstrap.check.interval";
+	
+	/**
+	 * Default bootstrap check interval
+	 */
+	public static final long DEFAULT_BOOTSTRAP_CHECK_INTERVAL = 1000;
+	
+	// bootstrap check interval in nanoseconds
+	private static final long BOOTSTRAP_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(PropertyProducer.intervalFromSystem());
+	
 	@Inject
 	@Logging
 	private Logger logger;
@@ -35,6 +64,9 @@ public class PropertyProducer {
 	@Inject
 	private ResolverFactory resolverFactory;
 	
+	// values that have already been produced
+	private final ConcurrentMap<ConfigurationKey, ProducedValue> values = new ConcurrentHashMap<ConfigurationKey, ProducedValue>();
+	
 	/**
 	 * Produces the System Property Specified by the Injection Point.
 	 * 
@@ -57,22 +89,38 @@ public class PropertyProducer {
 			return defaultValue;
 		}
 		
-		// get resolver
+		// the generation changes when the system properties do
 		Resolver resolverAnnotation = annotation.resolver();
 		ResolverWrapper wrapper = new ResolverAnnotationWrapper(resolverAnnotation);
-		PropertyResolver resolver = this.resolverFactory.createPropertyResolver(wrapper);
+		long generation = SystemPropertySnapshot.current().getGeneration();
+		
+		// use the value produced last time if the bootstrap sources were checked recently
+		ConfigurationKey key = ConfigurationKey.of(String.class, wrapper, propertyKey, defaultValue);
+		ProducedValue produced = this.values.get(key);
+		long now = System.nanoTime();
+		if(produced != null && produced.generation == generation && now - produced.checked < PropertyProducer.BOOTSTRAP_CHECK_INTERVAL) {
+			return produced.value;
+		}
+		
+		// the bootstrap map is the same instance for as long as the bootstrap sources are unchanged
 		Map<Object,Object> bootstrapMap = this.resolverFactory.getBootstrapProperties(wrapper);
+		if(produced != null && produced.generation == generation && produced.bootstrap == bootstrapMap) {
+			this.values.put(key, new ProducedValue(generation, bootstrapMap, produced.value, now));
+			return produced.value;
+		}
+		
+		// get resolver
+		PropertyResolver resolver = this.resolverFactory.createPropertyResolver(wrapper);
 		Map<Object,Object> defaultMap = this.resolverFactory.getDefaultProperties(wrapper);		
 		
 		this.logger.trace("original default value for '{}' is '{}'", propertyKey, defaultValue);
 		
-		// to default values add resolved default value
-		String resolvedDefault = resolver.resolveProperties(defaultValue, bootstrapMap, defaultMap);
+		// resolve the default value and the value together so that they share lookups
+		List<String> resolved = PropertyResolvers.resolveAll(resolver, Arrays.asList(defaultValue, propertyKey), bootstrapMap, defaultMap);
+		String resolvedDefault = resolved.get(0);
+		String value = resolved.get(1);
 		
-		this.logger.trace("default value for '{}' resolved to '{}'", propertyKey, defaultValue);
-	
-		// resolve value
-		String value = resolver.resolveProperties(propertyKey, bootstrapMap, defaultMap);
+		this.logger.trace("default value for '{}' resolved to '{}'", propertyKey, resolvedDefault);
 
 		// if null, empty, or unchanged use default
 		if(value == null || value.isEmpty() || propertyKey.equals(value)) {
@@ -81,7 +129,49 @@ public class PropertyProducer {
 		
 		this.logger.trace("value for '{}' resolved to '{}'", propertyKey, value);
 		
+		// keep for next time
+		this.values.put(key, new ProducedValue(generation, bootstrapMap, value, now));
+		
 		// and return it
 		return value;
 	}
+	
+	/**
+	 * Read the bootstrap check interval from the System Properties
+	 * 
+	 * @return the interval in milliseconds
+	 */
+	private static long intervalFromSystem() {
+		String value = System.getProperty(PropertyProducer.BOOTSTRAP_CHECK_INTERVAL_PROPERTY);
+		if(value == null || value.trim().isEmpty()) {
+			return PropertyProducer.DEFAULT_BOOTSTRAP_CHECK_INTERVAL;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return PropertyProducer.DEFAULT_BOOTSTRAP_CHECK_INTERVAL;
+		}
+	}
+	
+	/**
+	 * A produced value, what it was resolved against and
+	 * when the bootstrap sources were last checked (in nanoseconds)
+	 */
+	private static final class ProducedValue {
+		
+		private final long generation;
+		
+		private final Map<Object, Object> bootstrap;
+		
+		private final String value;
+		
+		private final long checked;
+		
+		private ProducedValue(long generation, Map<Object, Object> bootstrap, String value, long checked) {
+			this.generation = generation;
+			this.bootstrap = bootstrap;
+			this.value = value;
+			this.checked = checked;
+		}
+	}
 }
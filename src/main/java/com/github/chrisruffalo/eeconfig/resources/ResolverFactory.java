@@ -2,18 +2,21 @@ package com.github.chrisruffalo.eeconfig.resources;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
-import org.apache.commons.configuration.ConfigurationMap;
 import org.slf4j.Logger;
 
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
 import com.github.chrisruffalo.eeconfig.annotations.DefaultProperty;
 import com.github.chrisruffalo.eeconfig.annotations.Resolver;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationKey;
 import com.github.chrisruffalo.eeconfig.resources.configuration.CommonsConfigurationProducer;
 import com.github.chrisruffalo.eeconfig.strategy.property.DefaultPropertyResolver;
 import com.github.chrisruffalo.eeconfig.strategy.property.PropertyResolver;
@@ -34,6 +37,9 @@ public class ResolverFactory {
 	@Inject
 	private BeanResolver beanResolver;
 	
+	// flattened bootstrap properties, shared by everything that resolves with the same bootstrap
+	private final ConcurrentMap<ConfigurationKey, BootstrapEntry> bootstrapCache = new ConcurrentHashMap<ConfigurationKey, BootstrapEntry>();
+	
 	/**
 	 * Resolve the property resolver instance to use from the {@link Resolver} 
 	 * annotation in the configuration element
@@ -58,7 +64,9 @@ public class ResolverFactory {
 	}
 	
 	/**
-	 * Get the properties used to bootstrap the resolver
+	 * Get the properties used to bootstrap the resolver.  The returned map is
+	 * read-only and is shared with every other caller that uses the same 
+	 * bootstrap sources until one of those sources changes.
 	 * 
 	 * @param resolver
 	 * @return
@@ -80,11 +88,31 @@ public class ResolverFactory {
 		// obtain instance of CommonsConfiguration provider
 		CommonsConfigurationProducer instance = this.producer.get();
 		
-		// get commons configuration object from bootstrap
+		// get commons configuration object from bootstrap, this is the same
+		// instance for as long as the bootstrap sources are unchanged
 		org.apache.commons.configuration.Configuration config = instance.getConfiguration(wrapper);
 		
-		// wrap as map and return
-		ConfigurationMap map = new ConfigurationMap(config);
+		// use the flattened map if it was made from the same configuration
+		ConfigurationKey key = ConfigurationKey.of(Map.class, wrapper);
+		BootstrapEntry entry = this.bootstrapCache.get(key);
+		if(entry != null && entry.configuration == config) {
+			return entry.properties;
+		}
+		
+		// flatten into a map and share
+		Map<Object, Object> map = new HashMap<Object, Object>();
+		Iterator<String> keys = config.getKeys();
+		while(keys.hasNext()) {
+			String property = keys.next();
+			Object value = config.getProperty(property);
+			if(value != null) {
+				map.put(property, value);
+			}
+		}
+		map = Collections.unmodifiableMap(map);
+		this.bootstrapCache.put(key, new BootstrapEntry(config, map));
+		this.logger.trace("Loaded {} bootstrap properties for {}", map.size(), key);
+		
 		return map;
 	}
 	
@@ -122,4 +150,19 @@ public class ResolverFactory {
 		return propertyMap;
 	}
 	
+	/**
+	 * Flattened bootstrap properties and the configuration they were taken from
+	 */
+	private static final class BootstrapEntry {
+		
+		private final org.apache.commons.configuration.Configuration configuration;
+		
+		private final Map<Object, Object> properties;
+		
+		private BootstrapEntry(org.apache.commons.configuration.Configuration configuration, Map<Object, Object> properties) {
+			this.configuration = configuration;
+			this.properties = properties;
+		}
+	}
+	
 }
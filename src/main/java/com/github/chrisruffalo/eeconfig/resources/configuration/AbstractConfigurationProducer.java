@@ -1,10 +1,17 @@
 package com.github.chrisruffalo.eeconfig.resources.configuration;
 
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.inject.Inject;
@@ -14,13 +21,17 @@ import org.slf4j.Logger;
 import com.github.chrisruffalo.eeconfig.annotations.Configuration;
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
 import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.reload.ConfigurationWatcher;
 import com.github.chrisruffalo.eeconfig.resources.BeanResolver;
 import com.github.chrisruffalo.eeconfig.resources.ResolverFactory;
 import com.github.chrisruffalo.eeconfig.source.ISource;
 import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
+import com.github.chrisruffalo.eeconfig.strategy.executor.DefaultSourceExecutor;
+import com.github.chrisruffalo.eeconfig.strategy.executor.SourceExecutor;
 import com.github.chrisruffalo.eeconfig.strategy.locator.Locator;
 import com.github.chrisruffalo.eeconfig.strategy.locator.NullLocator;
 import com.github.chrisruffalo.eeconfig.strategy.property.PropertyResolver;
+import com.github.chrisruffalo.eeconfig.strategy.property.ValueInterpolator;
 import com.github.chrisruffalo.eeconfig.wrapper.ConfigurationWrapper;
 import com.github.chrisruffalo.eeconfig.wrapper.WrapperFactory;
 import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
@@ -33,6 +44,9 @@ import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
  */
 public abstract class AbstractConfigurationProducer {
 	
+	// set while a background load is running on the thread
+	private static final ThreadLocal<Boolean> BACKGROUND = new ThreadLocal<Boolean>();
+	
 	@Inject
 	@Logging
 	private Logger logger;
@@ -43,6 +57,9 @@ public abstract class AbstractConfigurationProducer {
 	@Inject
 	private BeanResolver beanResolver;
 	
+	@Inject
+	private ConfigurationWatcher watcher;
+	
 	/**
 	 * Utility to get {@link Configuration} annotation from the
 	 * injection point with minimal effort
@@ -73,9 +90,9 @@ public abstract class AbstractConfigurationProducer {
 		
 		// create resolver from configuration annotation's resolver element
 		ResolverWrapper resolverWrapper = configuration.resolver();
-		PropertyResolver resolver = this.resolverFactory.createPropertyResolver(resolverWrapper);
-		Map<Object,Object> bootstrapMap = this.resolverFactory.getBootstrapProperties(resolverWrapper);
-		Map<Object,Object> defaultMap = this.resolverFactory.getDefaultProperties(resolverWrapper);
+		final PropertyResolver resolver = this.resolverFactory.createPropertyResolver(resolverWrapper);
+		final Map<Object,Object> bootstrapMap = this.resolverFactory.getBootstrapProperties(resolverWrapper);
+		final Map<Object,Object> defaultMap = this.resolverFactory.getDefaultProperties(resolverWrapper);
 		
 		// found sources
 		List<ISource> foundSources = new ArrayList<ISource>(0);
@@ -83,11 +100,28 @@ public abstract class AbstractConfigurationProducer {
 		// create sources
 		List<Source> sources = new ArrayList<Source>(Arrays.asList(configuration.sources()));
 		
-		// resolve sources as normal
-		for(Source source : sources) {
-			ISource found = this.resloveSource(source, resolver, bootstrapMap, defaultMap);
-			if(found != null) {
-				foundSources.add(found);
+		// resolve sources as normal, or all at once if loading in parallel
+		if(configuration.parallel() && sources.size() > 1) {
+			List<Callable<ISource>> tasks = new ArrayList<Callable<ISource>>(sources.size());
+			for(final Source source : sources) {
+				tasks.add(new Callable<ISource>() {
+					@Override
+					public ISource call() {
+						return AbstractConfigurationProducer.this.resloveSource(source, resolver, bootstrapMap, defaultMap);
+					}
+				});
+			}
+			for(ISource found : this.invokeAll(configuration, tasks, false)) {
+				if(found != null) {
+					foundSources.add(found);
+				}
+			}
+		} else {
+			for(Source source : sources) {
+				ISource found = this.resloveSource(source, resolver, bootstrapMap, defaultMap);
+				if(found != null) {
+					foundSources.add(found);
+				}
 			}
 		}
 		
@@ -99,6 +133,235 @@ public abstract class AbstractConfigurationProducer {
 		return foundSources;
 	}
 		
+	/**
+	 * Load the located sources with the given loader, in parallel if the configuration
+	 * asks for it.  The results are in priority order (most important first) either 
+	 * way and, if the configuration doesn't merge, only the first available source
+	 * is kept.
+	 * 
+	 * @param configuration annotation the sources were located with
+	 * @param found the located sources, most important first
+	 * @param loader loads a single source
+	 * 
+	 * @return the loaded values, most important first
+	 */
+	protected <T> List<T> loadSources(ConfigurationWrapper configuration, List<ISource> found, final SourceLoader<T> loader) {
+		List<T> loaded = new ArrayList<T>(found.size());
+		
+		// one after the other, stopping at the first available source without merge
+		if(!configuration.parallel() || found.size() < 2) {
+			for(ISource source : found) {
+				T value = loader.load(source);
+				if(value == null) {
+					continue;
+				}
+				loaded.add(value);
+				if(!configuration.merge()) {
+					break;
+				}
+			}
+			return loaded;
+		}
+		
+		// all at once
+		List<Callable<T>> tasks = new ArrayList<Callable<T>>(found.size());
+		for(final ISource source : found) {
+			tasks.add(new Callable<T>() {
+				@Override
+				public T call() {
+					return loader.load(source);
+				}
+			});
+		}
+		for(T value : this.invokeAll(configuration, tasks, !configuration.merge())) {
+			if(value != null) {
+				loaded.add(value);
+			}
+		}
+		return loaded;
+	}
+	
+	/**
+	 * Run the tasks with the configured executor and wait for them.  The
+	 * context class loader of the calling thread is used by the tasks.
+	 * <br/>
+	 * A background load is already holding a thread of the executor.  Waiting for
+	 * tasks that are queued behind it could leave every thread of a bounded executor 
+	 * waiting so, in a background load, the tasks are run one after the other on the 
+	 * calling thread instead.
+	 * 
+	 * @param configuration annotation that configures the executor
+	 * @param tasks to run
+	 * @param firstOnly if true then only the first non-null result is waited for, the 
+	 * 		  remaining tasks are cancelled
+	 * 
+	 * @return the results in the same order as the tasks
+	 */
+	private <T> List<T> invokeAll(ConfigurationWrapper configuration, List<Callable<T>> tasks, boolean firstOnly) {
+		SourceExecutor executor = this.beanResolver.resolveBeanWithDefaultClass(configuration.executor(), DefaultSourceExecutor.class);
+		
+		// start every task, unless they are run here
+		boolean inline = AbstractConfigurationProducer.BACKGROUND.get() != null;
+		List<FutureTask<T>> futures = new ArrayList<FutureTask<T>>(tasks.size());
+		for(Callable<T> task : tasks) {
+			futures.add(inline ? new FutureTask<T>(task) : this.submit(executor, task));
+		}
+		
+		// collect results in order
+		List<T> results = new ArrayList<T>(futures.size());
+		try {
+			for(FutureTask<T> future : futures) {
+				if(inline) {
+					future.run();
+				}
+				T result = future.get();
+				results.add(result);
+				if(firstOnly && result != null) {
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading configuration sources", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw new IllegalStateException("Could not load configuration sources", cause);
+		} finally {
+			for(FutureTask<T> future : futures) {
+				future.cancel(false);
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Run the task in the background with the executor named by the configuration
+	 * 
+	 * @param configuration annotation that configures the executor
+	 * @param task to run
+	 * 
+	 * @return the result of the task, when it is done
+	 */
+	protected <T> Future<T> submit(ConfigurationWrapper configuration, final Callable<T> task) {
+		SourceExecutor executor = this.beanResolver.resolveBeanWithDefaultClass(configuration.executor(), DefaultSourceExecutor.class);
+		return this.submit(executor, new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				// mark the thread so that the load doesn't wait on its own executor
+				Boolean previous = AbstractConfigurationProducer.BACKGROUND.get();
+				AbstractConfigurationProducer.BACKGROUND.set(Boolean.TRUE);
+				try {
+					return task.call();
+				} finally {
+					if(previous == null) {
+						AbstractConfigurationProducer.BACKGROUND.remove();
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Run the task with the executor, or on the calling thread if the executor
+	 * rejects it.  The task uses the context class loader of the calling thread.
+	 * 
+	 * @param executor to run the task with
+	 * @param task to run
+	 * 
+	 * @return the result of the task, when it is done
+	 */
+	private <T> FutureTask<T> submit(SourceExecutor executor, final Callable<T> task) {
+		final ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+		FutureTask<T> future = new FutureTask<T>(new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				Thread thread = Thread.currentThread();
+				ClassLoader previous = thread.getContextClassLoader();
+				thread.setContextClassLoader(contextLoader);
+				try {
+					return task.call();
+				} finally {
+					thread.setContextClassLoader(previous);
+				}
+			}
+		});
+		try {
+			executor.execute(future);
+		} catch (RejectedExecutionException e) {
+			this.logger.trace("Executor rejected task, running it on the calling thread");
+			future.run();
+		}
+		return future;
+	}
+	
+	/**
+	 * Call the listener, from the reload scheduler, when any of the files behind the 
+	 * located sources change, or when the files of sources that were not found are
+	 * created.  The listener is expected to locate the sources again and watch them 
+	 * again, which replaces the files it watched before.
+	 * 
+	 * @param found the located sources
+	 * @param listener to call after a change
+	 */
+	protected void watch(List<ISource> found, Runnable listener) {
+		int watched = this.watcher.watch(found, listener);
+		this.logger.trace("Watching {} files for changes", watched);
+	}
+	
+	/**
+	 * The files that changed since the listener last asked
+	 * 
+	 * @param listener that was called after a change
+	 * @return the (absolute) changed files
+	 */
+	protected Set<Path> changes(Runnable listener) {
+		return this.watcher.changes(listener);
+	}
+	
+	/**
+	 * Loads a single source, used with {@link AbstractConfigurationProducer#loadSources(ConfigurationWrapper, List, SourceLoader)}.  Loaders
+	 * can be called from several threads at once.
+	 *
+	 * @param <T> the type the source is loaded as
+	 */
+	protected interface SourceLoader<T> {
+		
+		/**
+		 * Load the source.  A source that can't be read should give an empty
+		 * value so that it still counts as found.
+		 * 
+		 * @param source to load
+		 * @return the loaded value or null if the source is not available
+		 */
+		T load(ISource source);
+		
+	}
+	
+	/**
+	 * Create an interpolator for values loaded from the given configuration.  Tokens
+	 * that are not keys in the values are resolved with the same resolver, bootstrap,
+	 * and defaults that were used to locate the sources.
+	 * 
+	 * @param configuration annotation the values were loaded from
+	 * @param values the loaded values
+	 * 
+	 * @return interpolator over the values
+	 */
+	protected ValueInterpolator createInterpolator(ConfigurationWrapper configuration, Map<?, ?> values) {
+		ResolverWrapper resolverWrapper = configuration.resolver();
+		PropertyResolver resolver = this.resolverFactory.createPropertyResolver(resolverWrapper);
+		Map<Object,Object> bootstrapMap = this.resolverFactory.getBootstrapProperties(resolverWrapper);
+		Map<Object,Object> defaultMap = this.resolverFactory.getDefaultProperties(resolverWrapper);
+		return new ValueInterpolator(values, resolver, bootstrapMap, defaultMap);
+	}
+		
 	/**
 	 * Resolve a given source from the provided {@link Source} annotation
 	 * 
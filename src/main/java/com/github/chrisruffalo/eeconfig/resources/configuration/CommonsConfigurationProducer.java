@@ -3,25 +3,38 @@ package com.github.chrisruffalo.eeconfig.resources.configuration;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.inject.Inject;
 
+import org.apache.commons.configuration.AbstractConfiguration;
 import org.apache.commons.configuration.CombinedConfiguration;
-import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
-import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.commons.configuration.tree.OverrideCombiner;
 import org.slf4j.Logger;
 
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
 import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationCache;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationKey;
+import com.github.chrisruffalo.eeconfig.cache.SourceFingerprint;
+import com.github.chrisruffalo.eeconfig.immutable.ImmutableConfiguration;
+import com.github.chrisruffalo.eeconfig.mime.FormatParser;
+import com.github.chrisruffalo.eeconfig.mime.FormatRegistry;
 import com.github.chrisruffalo.eeconfig.mime.MimeGuesser;
 import com.github.chrisruffalo.eeconfig.mime.SupportedType;
+import com.github.chrisruffalo.eeconfig.reload.ReloadingConfiguration;
 import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.impl.BufferedSource;
+import com.github.chrisruffalo.eeconfig.source.impl.ContentHash;
 import com.github.chrisruffalo.eeconfig.wrapper.ConfigurationWrapper;
 
 /**
@@ -38,6 +51,12 @@ public class CommonsConfigurationProducer extends AbstractConfigurationProducer
 	@Logging
 	private Logger logger;
 	
+	@Inject
+	private ConfigurationCache cache;
+	
+	// reloading configurations, one for each configuration
+	private final ConcurrentMap<ConfigurationKey, org.apache.commons.configuration.Configuration> reloading = new ConcurrentHashMap<ConfigurationKey, org.apache.commons.configuration.Configuration>();
+	
 	/**
 	 * Given the injection point, resolve an instance of Apache Commons Configuration
 	 * 
@@ -53,67 +72,221 @@ public class CommonsConfigurationProducer extends AbstractConfigurationProducer
 		return this.getConfiguration(annotation);
 	}
 	
+	/**
+	 * Given the injection point, resolve an instance of Apache Commons Configuration
+	 * that is loaded in the background
+	 * 
+	 * @param injectionPoint
+	 * @return the configuration, when it is loaded
+	 */
+	@Produces
+	@Configuration
+	public Future<org.apache.commons.configuration.Configuration> getFutureConfiguration(InjectionPoint injectionPoint) {
+		final ConfigurationWrapper annotation = this.getConfigurationWrapper(injectionPoint);
+		return this.submit(annotation, new Callable<org.apache.commons.configuration.Configuration>() {
+			@Override
+			public org.apache.commons.configuration.Configuration call() {
+				return CommonsConfigurationProducer.this.getConfiguration(annotation);
+			}
+		});
+	}
+	
 	/**
 	 * Shared implementation that is used to bootstrap other configurations if
-	 * requested.
+	 * requested.  The returned configuration is read-only and is shared with 
+	 * every other caller that asks for the same configuration until one of the 
+	 * sources changes.  Concurrent requests for the same configuration share a 
+	 * single load.  When the configuration is reloaded the same configuration is
+	 * returned to every caller and it always reads the latest values.
 	 * 
 	 * @param wrapper the annotation to use for configuring
 	 * @return the common configuration values
 	 */
-	public org.apache.commons.configuration.Configuration getConfiguration(ConfigurationWrapper wrapper) {
-		// get input streams
-		List<ISource> sources = this.locate(wrapper);
+	public org.apache.commons.configuration.Configuration getConfiguration(final ConfigurationWrapper wrapper) {
+		final ConfigurationKey key = ConfigurationKey.of(org.apache.commons.configuration.Configuration.class, wrapper);
+		if(wrapper.reload()) {
+			org.apache.commons.configuration.Configuration existing = this.reloading.get(key);
+			if(existing != null) {
+				return existing;
+			}
+		}
+		return this.cache.load(key, new Callable<org.apache.commons.configuration.Configuration>() {
+			@Override
+			public org.apache.commons.configuration.Configuration call() {
+				if(wrapper.reload()) {
+					return CommonsConfigurationProducer.this.getReloadingConfiguration(wrapper, key);
+				}
+				return CommonsConfigurationProducer.this.load(wrapper, key);
+			}
+		});
+	}
+	
+	/**
+	 * Create the configuration for a configuration that is reloaded when its files change.  The
+	 * configuration reads from a snapshot that is replaced, after the change, with a configuration 
+	 * that is loaded the same way as any other.  Nothing is loaded if the contents of the sources
+	 * are the same, even if they were touched.  The contents decide: after a change the sources 
+	 * are always loaded again, even if their modification time and size look the same, and the 
+	 * hashes are taken from the same buffered bytes that are parsed.
+	 * 
+	 * @param wrapper the annotation to use for configuring
+	 * @param key of the configuration
+	 * @return the (read-only) configuration that always reads the latest snapshot
+	 */
+	private org.apache.commons.configuration.Configuration getReloadingConfiguration(final ConfigurationWrapper wrapper, final ConfigurationKey key) {
+		// created by an earlier caller
+		org.apache.commons.configuration.Configuration existing = this.reloading.get(key);
+		if(existing != null) {
+			return existing;
+		}
 		
-		// create configuration combiner
-		OverrideCombiner combiner = new OverrideCombiner();
-		CombinedConfiguration combined = new CombinedConfiguration(combiner);
+		// first snapshot
+		List<ISource> sources = CommonsConfigurationProducer.buffer(this.locate(wrapper));
+		final ReloadingConfiguration configuration = new ReloadingConfiguration(this.load(wrapper, key, sources));
+		this.reloading.put(key, configuration);
 		
-		// combine configurations
-		for(ISource source : sources) {
-			// determine mime type in order to create proper commons object
-			SupportedType type = MimeGuesser.guess(source);
-			
-			// if the source isn't available, continue
-			if(!source.available()) {
-				continue;
-			}
+		// replace the snapshot when the contents of the files change
+		final List<Long> loaded = ContentHash.all(sources);
+		this.watch(sources, new Runnable() {
 			
-			InputStream stream = source.stream();
+			private List<Long> hashes = loaded;
 			
-			// load properties based on MIME type
-			// todo: update for more commons-configuration
-			// supported mime types
-			if(SupportedType.XML.equals(type)) {
-				XMLConfiguration xmlConfiguration = new XMLConfiguration();
-				try {
-					xmlConfiguration.load(stream);
-					combined.addConfiguration(xmlConfiguration);
-				} catch(ConfigurationException e) {
-					this.logger.error("An error occurred while reading XML properties: {}", e.getMessage());	
+			@Override
+			public void run() {
+				List<ISource> located = CommonsConfigurationProducer.buffer(CommonsConfigurationProducer.this.locate(wrapper));
+				List<Long> current = ContentHash.all(located);
+				if(current.equals(this.hashes)) {
+					CommonsConfigurationProducer.this.logger.trace("The contents of the sources for {} have not changed", key);
+				} else {
+					// the contents changed so the cached configuration, found by modification time and size, can't be used
+					configuration.set(CommonsConfigurationProducer.this.combine(wrapper, key, SourceFingerprint.of(located), located));
+					this.hashes = current;
 				}
-			} else {
-				PropertiesConfiguration propertiesConfiguration = new PropertiesConfiguration();
-				try {
-					propertiesConfiguration.load(stream);
-					combined.addConfiguration(propertiesConfiguration);
-				} catch (ConfigurationException e) {
-					this.logger.error("An error occurred while reading properties: {}", e.getMessage());
-				}				
+				CommonsConfigurationProducer.this.watch(located, this);
 			}
-			
-			// close stream
-			try {
-				stream.close();
-			} catch (IOException e) {
-				this.logger.trace("Could not close old stream: {}", stream);
-			}
-			
-			// leave on first loop if merge is on
-			if(!wrapper.merge()) {
-				break;
+		});
+		
+		return configuration;
+	}
+	
+	/**
+	 * Load, or get from the cache, the configuration
+	 * 
+	 * @param wrapper the annotation to use for configuring
+	 * @param key of the configuration
+	 * @return the common configuration values
+	 */
+	private org.apache.commons.configuration.Configuration load(ConfigurationWrapper wrapper, ConfigurationKey key) {
+		// get input streams
+		List<ISource> sources = this.locate(wrapper);
+		return this.load(wrapper, key, sources);
+	}
+	
+	/**
+	 * Load, or get from the cache, the configuration for the located sources
+	 * 
+	 * @param wrapper the annotation to use for configuring
+	 * @param key of the configuration
+	 * @param sources the located sources
+	 * @return the common configuration values
+	 */
+	private org.apache.commons.configuration.Configuration load(ConfigurationWrapper wrapper, ConfigurationKey key, List<ISource> sources) {
+		// use the previously loaded configuration if none of the sources have changed
+		SourceFingerprint fingerprint = SourceFingerprint.of(sources);
+		org.apache.commons.configuration.Configuration cached = this.cache.get(key, fingerprint, org.apache.commons.configuration.Configuration.class);
+		if(cached != null) {
+			this.logger.trace("Using cached configuration for {}", key);
+			return cached;
+		}
+		return this.combine(wrapper, key, fingerprint, sources);
+	}
+	
+	/**
+	 * Load the located sources, without looking in the cache, and combine them
+	 * into a configuration that is then cached
+	 * 
+	 * @param wrapper the annotation to use for configuring
+	 * @param key of the configuration
+	 * @param fingerprint of the located sources
+	 * @param sources the located sources
+	 * @return the common configuration values
+	 */
+	private org.apache.commons.configuration.Configuration combine(ConfigurationWrapper wrapper, ConfigurationKey key, SourceFingerprint fingerprint, List<ISource> sources) {
+		// create configuration combiner
+		OverrideCombiner combiner = new OverrideCombiner();
+		CombinedConfiguration combined = new CombinedConfiguration(combiner);
+		
+		// load each source, at the same time if parallel, and combine them in priority order
+		List<AbstractConfiguration> loaded = this.loadSources(wrapper, sources, new SourceLoader<AbstractConfiguration>() {
+			@Override
+			public AbstractConfiguration load(ISource found) {
+				return CommonsConfigurationProducer.this.load(found);
 			}
-		}		
+		});
+		for(AbstractConfiguration configuration : loaded) {
+			combined.addConfiguration(configuration);
+		}
+		
+		// share read-only configuration
+		org.apache.commons.configuration.Configuration shared = new ImmutableConfiguration(combined);
+		this.cache.put(key, fingerprint, shared);
+		
 		// return configuration
-		return combined;
+		return shared;
+	}
+	
+	/**
+	 * Buffer each of the located sources so that hashing and loading them
+	 * only reads them once
+	 * 
+	 * @param sources the located sources
+	 * @return the buffered sources
+	 */
+	private static List<ISource> buffer(List<ISource> sources) {
+		List<ISource> buffered = new ArrayList<ISource>(sources.size());
+		for(ISource source : sources) {
+			buffered.add(BufferedSource.of(source));
+		}
+		return buffered;
+	}
+	
+	/**
+	 * Load a single source with the parser registered for its type
+	 * 
+	 * @param found the source to load
+	 * @return the loaded configuration (empty if it could not be read) or null if the source is not available
+	 */
+	private AbstractConfiguration load(ISource found) {
+		// buffer so that guessing the type and loading only read the source once
+		ISource source = BufferedSource.of(found);
+		
+		// determine mime type in order to create proper commons object
+		SupportedType type = MimeGuesser.guess(source);
+		
+		// if the source isn't available, continue
+		if(!source.available()) {
+			return null;
+		}
+		
+		InputStream stream = source.stream();
+		
+		// load with the parser registered for the type
+		AbstractConfiguration configuration;
+		try {
+			FormatParser<? extends AbstractConfiguration> parser = FormatRegistry.getParser(type, AbstractConfiguration.class);
+			configuration = parser.parse(stream);
+		} catch (IOException e) {
+			this.logger.error("An error occurred while reading {} configuration: {}", type.name(), e.getMessage());
+			configuration = new PropertiesConfiguration();
+		}
+		
+		// close stream
+		try {
+			stream.close();
+		} catch (IOException e) {
+			this.logger.trace("Could not close old stream: {}", stream);
+		}
+		
+		return configuration;
 	}
 }
@@ -3,10 +3,22 @@ package com.github.chrisruffalo.eeconfig.resources.configuration;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
@@ -17,9 +29,31 @@ import org.slf4j.Logger;
 
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
 import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+import com.github.chrisruffalo.eeconfig.annotations.Interpolation;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationCache;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationKey;
+import com.github.chrisruffalo.eeconfig.cache.SourceFingerprint;
+import com.github.chrisruffalo.eeconfig.immutable.CompactPropertyTable;
+import com.github.chrisruffalo.eeconfig.immutable.ConfigMap;
+import com.github.chrisruffalo.eeconfig.immutable.ImmutableProperties;
+import com.github.chrisruffalo.eeconfig.immutable.LayeredPropertyTable;
+import com.github.chrisruffalo.eeconfig.immutable.LazyProperties;
+import com.github.chrisruffalo.eeconfig.immutable.MappedPropertyTable;
+import com.github.chrisruffalo.eeconfig.immutable.MergedPropertyTable;
+import com.github.chrisruffalo.eeconfig.immutable.PropertyTable;
+import com.github.chrisruffalo.eeconfig.immutable.TableProperties;
+import com.github.chrisruffalo.eeconfig.mime.FormatParser;
+import com.github.chrisruffalo.eeconfig.mime.FormatRegistry;
 import com.github.chrisruffalo.eeconfig.mime.MimeGuesser;
 import com.github.chrisruffalo.eeconfig.mime.SupportedType;
+import com.github.chrisruffalo.eeconfig.parser.PropertiesParser;
+import com.github.chrisruffalo.eeconfig.reload.ConfigurationWatcher;
+import com.github.chrisruffalo.eeconfig.reload.ReloadingPropertyTable;
 import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.SourceAttributes;
+import com.github.chrisruffalo.eeconfig.source.impl.BufferedSource;
+import com.github.chrisruffalo.eeconfig.source.impl.ContentHash;
+import com.github.chrisruffalo.eeconfig.source.impl.MappedFileSource;
 import com.github.chrisruffalo.eeconfig.wrapper.ConfigurationWrapper;
 
 /**
@@ -36,6 +70,12 @@ public class PropertiesConfigurationProducer extends AbstractConfigurationProduc
 	@Logging
 	private Logger logger;
 	
+	@Inject
+	private ConfigurationCache cache;
+	
+	// reloading properties, one for each configuration
+	private final ConcurrentMap<ConfigurationKey, Properties> reloading = new ConcurrentHashMap<ConfigurationKey, Properties>();
+	
 	/**
 	 * Satisfies injection for java.util.Properties
 	 * 
@@ -47,57 +87,343 @@ public class PropertiesConfigurationProducer extends AbstractConfigurationProduc
 	@Produces
 	@Configuration
 	public Properties getProperties(InjectionPoint injectionPoint) {
-		// properties should be stored here
-		Properties properties = new Properties();
+		// locate configurations
+		ConfigurationWrapper configuration = this.getConfigurationWrapper(injectionPoint);
+		// use shared implementation to get properties
+		return this.getProperties(configuration);
+	}
+	
+	/**
+	 * Satisfies injection for java.util.Properties that are loaded in
+	 * the background
+	 * 
+	 * @param injectionPoint EE6 injection point
+	 * 
+	 * @return the java.util.Properties loaded from the 
+	 * 		   configuration files (if found), when they are loaded
+	 */
+	@Produces
+	@Configuration
+	public Future<Properties> getFutureProperties(InjectionPoint injectionPoint) {
+		ConfigurationWrapper configuration = this.getConfigurationWrapper(injectionPoint);
+		return this.getFutureProperties(configuration);
+	}
+	
+	/**
+	 * Shared implementation for loading properties from a configuration
+	 * in the background
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @return the (read-only) properties loaded from the configuration files, when they are loaded
+	 */
+	public Future<Properties> getFutureProperties(final ConfigurationWrapper configuration) {
+		return this.submit(configuration, new Callable<Properties>() {
+			@Override
+			public Properties call() {
+				return PropertiesConfigurationProducer.this.getProperties(configuration);
+			}
+		});
+	}
+	
+	/**
+	 * Shared implementation for loading properties from a configuration.  The
+	 * returned properties are read-only and are shared with every other
+	 * caller that asks for the same configuration until one of the sources
+	 * changes.  Concurrent requests for the same configuration share a single load.
+	 * When the configuration is reloaded the same properties are returned to every
+	 * caller and they always read the latest values.
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @return the (read-only) properties loaded from the configuration files
+	 */
+	public Properties getProperties(final ConfigurationWrapper configuration) {
+		final ConfigurationKey key = ConfigurationKey.of(Properties.class, configuration);
+		if(configuration.reload()) {
+			Properties existing = this.reloading.get(key);
+			if(existing != null) {
+				return existing;
+			}
+		}
+		return this.cache.load(key, new Callable<Properties>() {
+			@Override
+			public Properties call() {
+				if(configuration.reload()) {
+					return PropertiesConfigurationProducer.this.getReloadingProperties(configuration, key);
+				}
+				// locate configurations
+				List<ISource> found = PropertiesConfigurationProducer.this.locate(configuration);
+				return PropertiesConfigurationProducer.this.getProperties(configuration, found, SourceFingerprint.of(found));
+			}
+		});
+	}
+	
+	/**
+	 * Create the properties for a configuration that is reloaded when its files change.  The
+	 * properties read from a snapshot that is replaced after the change.  Each source is kept
+	 * as its own layer so that, after a change, only the sources that changed are parsed 
+	 * again and only their keys are merged again.  Sources whose contents are the same, even
+	 * if they were touched, are not parsed again.
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @param key of the properties
+	 * @return the (read-only) properties that always read the latest snapshot
+	 */
+	private Properties getReloadingProperties(ConfigurationWrapper configuration, ConfigurationKey key) {
+		// created by an earlier caller
+		Properties existing = this.reloading.get(key);
+		if(existing != null) {
+			return existing;
+		}
+		
+		// first snapshot
+		List<ISource> found = this.locate(configuration);
+		ReloadingLayers layers = new ReloadingLayers(configuration);
+		ReloadingPropertyTable table = new ReloadingPropertyTable(layers.load(found, Collections.<Path>emptySet()));
+		layers.table = table;
+		Properties properties = new TableProperties(table);
+		this.reloading.put(key, properties);
+		
+		// replace the snapshot when the files change
+		this.watch(found, layers);
 		
+		return properties;
+	}
+	
+	/**
+	 * Satisfies injection for {@link ConfigMap}
+	 * 
+	 * @param injectionPoint EE6 injection point
+	 * 
+	 * @return the configuration map loaded from the 
+	 * 		   configuration files (if found)
+	 */
+	@Produces
+	@Configuration
+	public ConfigMap getConfigMap(InjectionPoint injectionPoint) {
 		// locate configurations
 		ConfigurationWrapper configuration = this.getConfigurationWrapper(injectionPoint);
+		// use shared implementation to get the map
+		return this.getConfigMap(configuration);
+	}
+	
+	/**
+	 * Shared implementation for loading a configuration map.  The map
+	 * is shared with every other caller that asks for the same configuration
+	 * until one of the sources changes.  Values are interpolated, if 
+	 * configured, when the map is created.  Concurrent requests for the same 
+	 * configuration share a single load.  A configuration map is immutable so
+	 * it is not reloaded, {@link Configuration#reload()} is ignored with a warning.
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @return the configuration map loaded from the configuration files
+	 */
+	public ConfigMap getConfigMap(final ConfigurationWrapper configuration) {
+		final ConfigurationKey key = ConfigurationKey.of(ConfigMap.class, configuration);
+		return this.cache.load(key, new Callable<ConfigMap>() {
+			@Override
+			public ConfigMap call() {
+				return PropertiesConfigurationProducer.this.loadConfigMap(configuration, key);
+			}
+		});
+	}
+	
+	/**
+	 * Load, or get from the cache, the configuration map
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @param key of the configuration map
+	 * @return the configuration map
+	 */
+	private ConfigMap loadConfigMap(ConfigurationWrapper configuration, ConfigurationKey key) {
+		if(configuration.reload()) {
+			this.logger.warn("Configuration maps are immutable and are not reloaded, inject Properties to reload {}", key);
+		}
+		
+		// locate configurations
 		List<ISource> found = this.locate(configuration);
 		
-		// input stream list is immutable, copy so we can reverse
-		// if it needs merge
-		List<ISource> copy = new ArrayList<ISource>(found);
+		// use the previously created map if none of the sources have changed
+		SourceFingerprint fingerprint = SourceFingerprint.of(found);
+		ConfigMap cached = this.cache.get(key, fingerprint, ConfigMap.class);
+		if(cached != null) {
+			this.logger.trace("Using cached configuration map for {}", key);
+			return cached;
+		}
 		
-		// when merged the lowest priority should go first
-		// since the list comes in the order where the
-		// most important properties are found first
-		// it needs to be reversed
-		if(configuration.merge()) {
-			Collections.reverse(copy);
+		// create from the (shared) properties
+		ConfigMap map = ConfigMap.of(this.getProperties(configuration, found, fingerprint));
+		this.cache.put(key, fingerprint, map);
+		return map;
+	}
+	
+	/**
+	 * Load, or get from the cache, the properties for the located sources
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @param found the located sources
+	 * @param fingerprint of the located sources
+	 * @return the (read-only) properties loaded from the sources
+	 */
+	private Properties getProperties(ConfigurationWrapper configuration, List<ISource> found, SourceFingerprint fingerprint) {
+		// use the previously loaded properties if none of the sources have changed
+		ConfigurationKey key = ConfigurationKey.of(Properties.class, configuration);
+		Properties cached = this.cache.get(key, fingerprint, Properties.class);
+		if(cached != null) {
+			this.logger.trace("Using cached properties for {}", key);
+			return cached;
+		}
+		
+		// memory mapped properties files are indexed in place, anything else is loaded
+		Charset charset = this.charset(configuration);
+		Properties properties = this.indexMapped(found, configuration.merge(), charset);
+		if(properties == null) {
+			properties = this.load(configuration, found, charset);
 		}
 		
+		// share read-only properties, resolving values if asked to
+		Properties shared = this.share(configuration, properties);
+		this.cache.put(key, fingerprint, shared);
+		
+		// return properties
+		return shared;
+	}
+	
+	/**
+	 * Read-only properties that can be shared, with values resolved if the configuration
+	 * asks for it
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @param properties the loaded properties
+	 * @return the (read-only) properties to share
+	 */
+	private Properties share(ConfigurationWrapper configuration, Properties properties) {
+		Properties shared;
+		Interpolation interpolation = configuration.interpolate();
+		if(Interpolation.EAGER.equals(interpolation)) {
+			shared = new ImmutableProperties(this.createInterpolator(configuration, properties).resolveAll());
+		} else if(Interpolation.LAZY.equals(interpolation)) {
+			shared = new LazyProperties(properties, this.createInterpolator(configuration, properties));
+		} else if(properties instanceof ImmutableProperties) {
+			shared = properties;
+		} else {
+			shared = new ImmutableProperties(properties);
+		}
+		return shared;
+	}	
+
+	/**
+	 * Load the properties from each source in to a single compact table.  The
+	 * sources are parsed most important first, each in its own layer, so that a 
+	 * value that is already set by a more important source is not even decoded.
+	 * When loading in parallel each source is parsed in to its own table and the
+	 * tables are merged in priority order.  The merged table is copied in to plain 
+	 * read-only properties so that every inherited method sees the entries.
+	 * 
+	 * @param configuration the annotation to use for configuring
+	 * @param found the located sources, most important first
+	 * @param charset the charset properties files are read with
+	 * @return the loaded properties
+	 */
+	private Properties load(ConfigurationWrapper configuration, List<ISource> found, final Charset charset) {
 		// show how many streams were located
-		this.logger.trace("Found {} streams to load properties from", copy.size());
+		this.logger.trace("Found {} streams to load properties from", found.size());
 		
-		// load each properties item individually
-		for(ISource source : copy) {
-			// get type for stream
-			SupportedType type = MimeGuesser.guess(source);
+		// properties should be collected here
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder();
+		
+		if(configuration.parallel()) {
+			List<CompactPropertyTable> tables = this.loadSources(configuration, found, new SourceLoader<CompactPropertyTable>() {
+				@Override
+				public CompactPropertyTable load(ISource located) {
+					ISource source = PropertiesConfigurationProducer.buffer(located);
+					SupportedType type = MimeGuesser.guess(source);
+					if(!source.available()) {
+						return null;
+					}
+					CompactPropertyTable.Builder local = new CompactPropertyTable.Builder();
+					PropertiesConfigurationProducer.this.loadLayer(source, type, charset, local, 0);
+					return local.build();
+				}
+			});
 			
-			// if stream is not available, continue
-			if(!source.available()) {
-				continue;
+			// a single table doesn't need merging
+			if(tables.size() == 1) {
+				return ImmutableProperties.of(tables.get(0));
 			}
 			
+			// merge, most important first
+			int layer = 0;
+			for(CompactPropertyTable table : tables) {
+				Iterator<String> keys = table.keys();
+				while(keys.hasNext()) {
+					String name = keys.next();
+					builder.put(name, table.get(name), layer);
+				}
+				layer++;
+			}
+		} else {
+			int layer = 0;
+			for(ISource located : found) {
+				ISource source = PropertiesConfigurationProducer.buffer(located);
+				
+				// get type for stream
+				SupportedType type = MimeGuesser.guess(source);
+				
+				// if stream is not available, continue
+				if(!source.available()) {
+					continue;
+				}
+				
+				this.loadLayer(source, type, charset, builder, layer);
+				layer++;
+				
+				// if not merge, then we're done
+				if(!configuration.merge()) {
+					break;
+				}
+			}
+		}
+		
+		return ImmutableProperties.of(builder.build());
+	}
+	
+	/**
+	 * Buffer a source so that guessing the type and loading the 
+	 * properties only read it once, mapped files are already in memory
+	 * 
+	 * @param source to buffer
+	 * @return the buffered source
+	 */
+	private static ISource buffer(ISource source) {
+		return source instanceof MappedFileSource ? source : BufferedSource.of(source);
+	}
+	
+	/**
+	 * Load a source in to a layer of the builder.  Properties files are parsed
+	 * straight from their bytes, anything else goes through the parser registered
+	 * for the type.
+	 * 
+	 * @param source to load, buffered or mapped
+	 * @param type of the source
+	 * @param charset the charset properties files are read with
+	 * @param builder to add the properties to
+	 * @param layer the layer the properties are in
+	 */
+	private void loadLayer(ISource source, SupportedType type, Charset charset, CompactPropertyTable.Builder builder, int layer) {
+		int before = builder.size();
+		FormatParser<? extends Properties> parser = FormatRegistry.getParser(type, Properties.class);
+		if(parser == PropertiesParser.FORMAT_PARSER && (source instanceof BufferedSource || source instanceof MappedFileSource)) {
+			ByteBuffer buffer = source instanceof MappedFileSource ? ((MappedFileSource)source).buffer() : ByteBuffer.wrap(((BufferedSource)source).bytes());
+			PropertiesParser.parse(buffer, charset, builder, layer);
+		} else {
 			// get stream
 			InputStream stream = source.stream();
 			
-			// load properties
-			Properties local = new Properties();
 			try {
-				
-				// support XML as a type
-				if(SupportedType.XML.equals(type)) {
-					local.loadFromXML(stream);
-				} else {
-					local.load(stream);
+				Properties local = parser.parse(stream);
+				for(String name : local.stringPropertyNames()) {
+					builder.put(name, local.getProperty(name), layer);
 				}
-				
-				// log
-				this.logger.trace("Loaded {} properties from stream type '{}'", local.size(), type.name());
-				
-				// and then merge into properties
-				properties.putAll(local);
 			} catch (IOException e) {
 				this.logger.error("An error occured while loading configuration properties: {}", e.getMessage());
 			}
@@ -107,16 +433,215 @@ public class PropertiesConfigurationProducer extends AbstractConfigurationProduc
 				stream.close();
 			} catch (IOException e) {
 				this.logger.trace("Could not close old stream: {}", stream);
-			}		
-			
-			// if not merge, then we're done
-			if(!configuration.merge()) {
+			}
+		}
+		this.logger.trace("Loaded {} new properties from stream type '{}'", builder.size() - before, type.name());
+	}
+	
+	/**
+	 * The charset named by the configuration, ISO-8859-1 if it isn't supported
+	 * 
+	 * @param configuration the configuration
+	 * @return the charset to read properties files with
+	 */
+	private Charset charset(ConfigurationWrapper configuration) {
+		String name = configuration.encoding();
+		if(name == null || name.isEmpty()) {
+			return StandardCharsets.ISO_8859_1;
+		}
+		try {
+			return Charset.forName(name);
+		} catch (IllegalArgumentException e) {
+			this.logger.error("The encoding '{}' is not supported, using ISO-8859-1", name);
+			return StandardCharsets.ISO_8859_1;
+		}
+	}
+	
+	/**
+	 * Index memory mapped properties files in place so that values are only
+	 * decoded when they are read
+	 * 
+	 * @param found the located sources, most important first
+	 * @param merge if every source should be used or just the first available
+	 * @param charset the charset properties files are read with
+	 * @return read-only properties over the mapped files or null if any of the
+	 * 		   sources to be used is not a mapped properties file
+	 */
+	private Properties indexMapped(List<ISource> found, boolean merge, Charset charset) {
+		// sources that would be loaded
+		List<MappedFileSource> mapped = new ArrayList<MappedFileSource>(found.size());
+		for(ISource source : found) {
+			if(!source.available()) {
+				continue;
+			}
+			if(!(source instanceof MappedFileSource) || !SupportedType.TEXT.equals(MimeGuesser.guess(source))) {
+				return null;
+			}
+			mapped.add((MappedFileSource)source);
+			if(!merge) {
 				break;
 			}
-		}			
+		}
+		if(mapped.isEmpty()) {
+			return null;
+		}
 		
-		// return properties
-		return properties;
-	}	
+		// most important layer first
+		List<PropertyTable> layers = new ArrayList<PropertyTable>(mapped.size());
+		for(MappedFileSource source : mapped) {
+			try {
+				ByteBuffer buffer = source.buffer();
+				MappedPropertyTable table = MappedPropertyTable.index(PropertiesParser.content(buffer), PropertiesParser.charset(buffer, charset));
+				this.logger.trace("Indexed {} properties from mapped file '{}'", table.size(), source.getPath());
+				layers.add(table);
+			} catch (IllegalArgumentException e) {
+				this.logger.error("An error occured while indexing configuration properties: {}", e.getMessage());
+			}
+		}
+		
+		PropertyTable table = layers.size() == 1 ? layers.get(0) : new LayeredPropertyTable(layers);
+		return new TableProperties(table);
+	}
+
+	/**
+	 * The layers of a reloading configuration, one for each source that is used.  Reloading 
+	 * reuses the layers of the sources that haven't changed and only merges the keys of the 
+	 * layers that have.  Reloads of the same configuration never run at the same time.
+	 *
+	 */
+	private final class ReloadingLayers implements Runnable {
+		
+		private final ConfigurationWrapper configuration;
+		
+		private final Charset charset;
+		
+		private ReloadingPropertyTable table;
+		
+		private List<Layer> layers = Collections.emptyList();
+		
+		private MergedPropertyTable merged;
+		
+		private ReloadingLayers(ConfigurationWrapper configuration) {
+			this.configuration = configuration;
+			this.charset = PropertiesConfigurationProducer.this.charset(configuration);
+		}
+		
+		@Override
+		public void run() {
+			Set<Path> touched = PropertiesConfigurationProducer.this.changes(this);
+			List<ISource> located = PropertiesConfigurationProducer.this.locate(this.configuration);
+			PropertyTable snapshot = this.load(located, touched);
+			if(snapshot != null) {
+				this.table.set(snapshot);
+			}
+			PropertiesConfigurationProducer.this.watch(located, this);
+		}
+		
+		/**
+		 * Load the sources that changed and merge them with the ones that didn't.  The
+		 * contents of the files the watcher saw change are always compared, any other 
+		 * source is reused if its modification time and size are the same.
+		 * 
+		 * @param found the located sources
+		 * @param touched the files that the watcher saw change
+		 * @return the table for the new snapshot or null if none of the sources changed
+		 */
+		private PropertyTable load(List<ISource> found, final Set<Path> touched) {
+			// the layers that can be reused, by the state of their source and by their path
+			final Map<SourceFingerprint, Layer> previous = new HashMap<SourceFingerprint, Layer>();
+			final Map<String, Layer> paths = new HashMap<String, Layer>();
+			for(Layer layer : this.layers) {
+				previous.put(layer.fingerprint, layer);
+				paths.put(layer.path, layer);
+			}
+			
+			List<Layer> loaded = PropertiesConfigurationProducer.this.loadSources(this.configuration, found, new SourceLoader<Layer>() {
+				@Override
+				public Layer load(ISource located) {
+					if(!located.available()) {
+						return null;
+					}
+					SourceFingerprint fingerprint = SourceFingerprint.of(Collections.singletonList(located));
+					
+					// a change within the granularity of the modification time keeps the same
+					// fingerprint, so the files that changed are only judged by their contents
+					Path file = ConfigurationWatcher.fileOf(located);
+					if(file == null || !touched.contains(file.toAbsolutePath())) {
+						Layer reused = previous.get(fingerprint);
+						if(reused != null) {
+							return reused;
+						}
+					}
+					ISource source = PropertiesConfigurationProducer.buffer(located);
+					
+					// a source that was touched, or copied again, with the same contents isn't parsed
+					long hash = SourceAttributes.contentHash(source);
+					Layer same = paths.get(located.getPath());
+					if(same != null && hash != ContentHash.UNKNOWN && same.hash == hash) {
+						return new Layer(fingerprint, located.getPath(), hash, same.table);
+					}
+					
+					SupportedType type = MimeGuesser.guess(source);
+					CompactPropertyTable.Builder local = new CompactPropertyTable.Builder();
+					PropertiesConfigurationProducer.this.loadLayer(source, type, ReloadingLayers.this.charset, local, 0);
+					return new Layer(fingerprint, located.getPath(), hash, local.build());
+				}
+			});
+			
+			// only merge the layers that changed when the sources are the same ones
+			MergedPropertyTable next = this.merged;
+			int changed = 0;
+			if(next != null && loaded.size() == this.layers.size()) {
+				for(int index = 0; index < loaded.size(); index++) {
+					if(loaded.get(index).table != this.layers.get(index).table) {
+						next = next.replace(index, loaded.get(index).table);
+						changed++;
+					}
+				}
+				if(changed == 0) {
+					// keep the new fingerprints of touched sources so they aren't hashed again on the next reload
+					this.layers = loaded;
+					PropertiesConfigurationProducer.this.logger.trace("None of the {} sources changed", loaded.size());
+					return null;
+				}
+			} else {
+				List<PropertyTable> tables = new ArrayList<PropertyTable>(loaded.size());
+				for(Layer layer : loaded) {
+					tables.add(layer.table);
+				}
+				next = MergedPropertyTable.of(tables);
+				changed = loaded.size();
+			}
+			PropertiesConfigurationProducer.this.logger.trace("Loaded {} of {} sources", changed, loaded.size());
+			
+			this.layers = loaded;
+			this.merged = next;
+			return ReloadingPropertyTable.of(PropertiesConfigurationProducer.this.share(this.configuration, new TableProperties(next)));
+		}
+	}
+	
+	/**
+	 * The properties loaded from a source and the state, and 
+	 * contents hash, of the source when it was loaded
+	 *
+	 */
+	private static final class Layer {
+		
+		private final SourceFingerprint fingerprint;
+		
+		private final String path;
+		
+		private final long hash;
+		
+		private final PropertyTable table;
+		
+		private Layer(SourceFingerprint fingerprint, String path, long hash, PropertyTable table) {
+			this.fingerprint = fingerprint;
+			this.path = path;
+			this.hash = hash;
+			this.table = table;
+		}
+	
+	}
 
 }
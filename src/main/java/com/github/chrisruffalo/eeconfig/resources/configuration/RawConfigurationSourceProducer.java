@@ -1,6 +1,8 @@
 package com.github.chrisruffalo.eeconfig.resources.configuration;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
@@ -38,6 +40,29 @@ public class RawConfigurationSourceProducer extends AbstractConfigurationProduce
 		List<ISource> sources = this.locate(wrapper);
 		
 		return sources;
-	}	
+	}
+	
+	/**
+	 * Satisfies raw injection for {@link ISource} elements that
+	 * are located in the background
+	 * 
+	 * @param injectionPoint EE6 injection point
+	 * 
+	 * @return the raw configuration sources found for the given paths, when they are found
+	 */
+	@Produces
+	@Configuration
+	public Future<List<ISource>> getFutureSources(InjectionPoint injectionPoint) {
+		// get configuration instance
+		final ConfigurationWrapper wrapper = this.getConfigurationWrapper(injectionPoint);
+		
+		// locate in the background
+		return this.submit(wrapper, new Callable<List<ISource>>() {
+			@Override
+			public List<ISource> call() {
+				return RawConfigurationSourceProducer.this.locate(wrapper);
+			}
+		});
+	}
 	
 }
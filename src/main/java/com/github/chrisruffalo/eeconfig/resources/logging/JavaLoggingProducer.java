@@ -1,19 +1,15 @@
 package com.github.chrisruffalo.eeconfig.resources.logging;
 
-import java.util.Map;
 import java.util.logging.Logger;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.inject.Inject;
 
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
-import com.github.chrisruffalo.eeconfig.annotations.Resolver;
 import com.github.chrisruffalo.eeconfig.resources.ResolverFactory;
-import com.github.chrisruffalo.eeconfig.strategy.property.PropertyResolver;
-import com.github.chrisruffalo.eeconfig.wrapper.ResolverAnnotationWrapper;
-import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
 
 /**
  * Simple producer that creates loggers to satisfy
@@ -28,6 +24,28 @@ public class JavaLoggingProducer {
 	@Inject
 	private ResolverFactory resolverFactory;	
 	
+	// loggers that have already been created
+	private LoggerCache<Logger> loggers;
+	
+	/**
+	 * Set up the logger cache
+	 * 
+	 */
+	@PostConstruct
+	public void init() {
+		this.loggers = new LoggerCache<Logger>(Logger.class, this.resolverFactory) {
+			@Override
+			protected Logger create(String name) {
+				return Logger.getLogger(name);
+			}
+			
+			@Override
+			protected Logger create(Class<?> declaringClass) {
+				return Logger.getLogger(declaringClass.getName());
+			}
+		};
+	}
+	
 	/**
 	 * Creates a Logger with using the class name of the injection point.
 	 * 
@@ -37,40 +55,7 @@ public class JavaLoggingProducer {
 	@Produces
 	@Logging
 	public Logger createLogger(InjectionPoint injectionPoint) {
-		// the annotation should not be null as it is a qualifier for this producer
-		Logging annotation = injectionPoint.getAnnotated().getAnnotation(Logging.class);
-		
-		// get the logger name
-		String name = annotation.name();
-		
-		// if the name is empty resolve to the class name 
-		// that contains the injection point
-		if(name == null || name.isEmpty()) {
-			return this.createClassLogger(injectionPoint);
-		}
-		
-		// get resolver
-		Resolver resolverAnnotation = annotation.resolver();
-		ResolverWrapper wrapper = new ResolverAnnotationWrapper(resolverAnnotation);
-		PropertyResolver resolver = this.resolverFactory.createPropertyResolver(wrapper);
-		Map<Object,Object> bootstrapMap = this.resolverFactory.getBootstrapProperties(wrapper);
-		Map<Object,Object> defaultMap = this.resolverFactory.getDefaultProperties(wrapper);
-		
-		// resolve name
-		String resolvedName = resolver.resolveProperties(name, bootstrapMap, defaultMap);
-				
-		// otherwise use the name to create the logger
-		return Logger.getLogger(resolvedName);
-	}
-	
-	/**
-	 * Utility for creating class logger from injection point
-	 * 
-	 * @param injectionPoint
-	 * @return
-	 */
-	private Logger createClassLogger(InjectionPoint injectionPoint) {
-		return Logger.getLogger(injectionPoint.getMember().getDeclaringClass().getName());
+		return this.loggers.getLogger(injectionPoint);
 	}
 	
 }
@@ -0,0 +1,142 @@
+package com.github.chrisruffalo.eeconfig.resources.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import com.github.chrisruffalo.eeconfig.annotations.Logging;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationKey;
+import com.github.chrisruffalo.eeconfig.resources.ResolverFactory;
+import com.github.chrisruffalo.eeconfig.strategy.property.PropertyResolver;
+import com.github.chrisruffalo.eeconfig.wrapper.ResolverAnnotationWrapper;
+import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
+
+/**
+ * Shared logic for the logging producers.  Loggers are kept so that
+ * the name is only resolved (and the logger only created) once.
+ * <br/>
+ * Loggers without a name are kept by the class that declares the injection
+ * point.  Named loggers are kept by the unresolved name and the resolver settings
+ * and are created again only when the bootstrap properties used to resolve
+ * the name have changed.
+ * 
+ * @author Chris Ruffalo
+ *
+ * @param <L> the type of logger
+ */
+abstract class LoggerCache<L> {
+
+	private final Class<L> type;
+	
+	private final ResolverFactory resolverFactory;
+	
+	private final ConcurrentMap<Class<?>, L> classLoggers;
+	
+	private final ConcurrentMap<ConfigurationKey, NamedLogger<L>> namedLoggers;
+	
+	/**
+	 * Create a cache for the given logger type
+	 * 
+	 * @param type of logger created
+	 * @param resolverFactory used to resolve logger names
+	 */
+	LoggerCache(Class<L> type, ResolverFactory resolverFactory) {
+		this.type = type;
+		this.resolverFactory = resolverFactory;
+		this.classLoggers = new ConcurrentHashMap<Class<?>, L>();
+		this.namedLoggers = new ConcurrentHashMap<ConfigurationKey, NamedLogger<L>>();
+	}
+	
+	/**
+	 * Get the logger for the given injection point
+	 * 
+	 * @param injectionPoint the injection point, qualified with {@link Logging}
+	 * @return the logger
+	 */
+	L getLogger(InjectionPoint injectionPoint) {
+		// the annotation should not be null as it is a qualifier for the producer
+		Logging annotation = injectionPoint.getAnnotated().getAnnotation(Logging.class);
+		
+		// get the logger name
+		String name = annotation.name();
+		
+		// if the name is empty resolve to the class name 
+		// that contains the injection point
+		if(name == null || name.isEmpty()) {
+			return this.getClassLogger(injectionPoint.getMember().getDeclaringClass());
+		}
+		
+		// the bootstrap properties are the same instance for as long as 
+		// the bootstrap sources are unchanged
+		ResolverWrapper wrapper = new ResolverAnnotationWrapper(annotation.resolver());
+		Map<Object,Object> bootstrapMap = this.resolverFactory.getBootstrapProperties(wrapper);
+		
+		// use the logger if it was resolved with the same bootstrap
+		ConfigurationKey key = ConfigurationKey.of(this.type, wrapper, name);
+		NamedLogger<L> named = this.namedLoggers.get(key);
+		if(named != null && named.bootstrap == bootstrapMap) {
+			return named.logger;
+		}
+		
+		// resolve name
+		PropertyResolver resolver = this.resolverFactory.createPropertyResolver(wrapper);
+		Map<Object,Object> defaultMap = this.resolverFactory.getDefaultProperties(wrapper);
+		String resolvedName = resolver.resolveProperties(name, bootstrapMap, defaultMap);
+		
+		// otherwise use the name to create the logger
+		L logger = this.create(resolvedName);
+		this.namedLoggers.put(key, new NamedLogger<L>(bootstrapMap, logger));
+		return logger;
+	}
+	
+	/**
+	 * Get the logger for the given class
+	 * 
+	 * @param declaringClass class that declares the injection point
+	 * @return the logger
+	 */
+	private L getClassLogger(Class<?> declaringClass) {
+		L logger = this.classLoggers.get(declaringClass);
+		if(logger == null) {
+			logger = this.create(declaringClass);
+			L previous = this.classLoggers.putIfAbsent(declaringClass, logger);
+			if(previous != null) {
+				logger = previous;
+			}
+		}
+		return logger;
+	}
+	
+	/**
+	 * Create a logger with the given (resolved) name
+	 * 
+	 * @param name of the logger
+	 * @return the logger
+	 */
+	protected abstract L create(String name);
+	
+	/**
+	 * Create a logger for the given class
+	 * 
+	 * @param declaringClass class that declares the injection point
+	 * @return the logger
+	 */
+	protected abstract L create(Class<?> declaringClass);
+	
+	/**
+	 * A named logger and the bootstrap properties used to resolve the name
+	 */
+	private static final class NamedLogger<L> {
+		
+		private final Map<Object, Object> bootstrap;
+		
+		private final L logger;
+		
+		private NamedLogger(Map<Object, Object> bootstrap, L logger) {
+			this.bootstrap = bootstrap;
+			this.logger = logger;
+		}
+	}
+}
@@ -1,7 +1,6 @@
 package com.github.chrisruffalo.eeconfig.resources.logging;
 
-import java.util.Map;
-
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
@@ -11,11 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.chrisruffalo.eeconfig.annotations.Logging;
-import com.github.chrisruffalo.eeconfig.annotations.Resolver;
 import com.github.chrisruffalo.eeconfig.resources.ResolverFactory;
-import com.github.chrisruffalo.eeconfig.strategy.property.PropertyResolver;
-import com.github.chrisruffalo.eeconfig.wrapper.ResolverAnnotationWrapper;
-import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
 
 /**
  * Simple producer that creates loggers to satisfy
@@ -30,6 +25,28 @@ public class SLF4JProducer {
 	@Inject
 	private ResolverFactory resolverFactory;	
 	
+	// loggers that have already been created
+	private LoggerCache<Logger> loggers;
+	
+	/**
+	 * Set up the logger cache
+	 * 
+	 */
+	@PostConstruct
+	public void init() {
+		this.loggers = new LoggerCache<Logger>(Logger.class, this.resolverFactory) {
+			@Override
+			protected Logger create(String name) {
+				return LoggerFactory.getLogger(name);
+			}
+			
+			@Override
+			protected Logger create(Class<?> declaringClass) {
+				return LoggerFactory.getLogger(declaringClass);
+			}
+		};
+	}
+	
 	/**
 	 * Creates a Logger with using the class name of the injection point.
 	 * 
@@ -39,40 +56,7 @@ public class SLF4JProducer {
 	@Produces
 	@Logging
 	public Logger createLogger(InjectionPoint injectionPoint) {
-		// the annotation should not be null as it is a qualifier for this producer
-		Logging annotation = injectionPoint.getAnnotated().getAnnotation(Logging.class);
-		
-		// get the logger name
-		String name = annotation.name();
-		
-		// if the name is empty resolve to the class name 
-		// that contains the injection point
-		if(name == null || name.isEmpty()) {
-			return this.createClassLogger(injectionPoint);
-		}
-		
-		// get resolver
-		Resolver resolverAnnotation = annotation.resolver();
-		ResolverWrapper wrapper = new ResolverAnnotationWrapper(resolverAnnotation);
-		PropertyResolver resolver = this.resolverFactory.createPropertyResolver(wrapper);
-		Map<Object,Object> bootstrapMap = this.resolverFactory.getBootstrapProperties(wrapper);
-		Map<Object,Object> defaultMap = this.resolverFactory.getDefaultProperties(wrapper);
-		
-		// resolve name
-		String resolvedName = resolver.resolveProperties(name, bootstrapMap, defaultMap);
-				
-		// otherwise use the name to create the logger
-		return LoggerFactory.getLogger(resolvedName);
-	}
-	
-	/**
-	 * Utility for creating class logger from injection point
-	 * 
-	 * @param injectionPoint
-	 * @return
-	 */
-	private Logger createClassLogger(InjectionPoint injectionPoint) {
-		return LoggerFactory.getLogger(injectionPoint.getMember().getDeclaringClass());
+		return this.loggers.getLogger(injectionPoint);
 	}
 	
 }
@@ -0,0 +1,40 @@
+package com.github.chrisruffalo.eeconfig.source;
+
+/**
+ * Optional interface for a configuration source that can describe the state
+ * of its contents.  Sources that don't implement it (like sources written
+ * against {@link ISource} alone) are treated as if nothing is known about
+ * them, see {@link SourceAttributes}.  Sources that extend 
+ * {@link com.github.chrisruffalo.eeconfig.source.impl.BaseSource} already 
+ * implement it.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public interface ISourceAttributes {
+
+	/**
+	 * The time, in milliseconds since the epoch, that the source
+	 * was last modified
+	 * 
+	 * @return the modification time or 0 if it cannot be determined
+	 */
+	long lastModified();
+	
+	/**
+	 * The size, in bytes, of the contents of the source
+	 * 
+	 * @return the size of the source or -1 if it cannot be determined
+	 */
+	long size();
+	
+	/**
+	 * A hash of the contents of the source.  Sources with the same contents
+	 * have the same hash, wherever they are, so it can be used to tell if the 
+	 * contents really changed when the modification time or size did.
+	 * 
+	 * @return the CRC-32 of the contents or -1 if the source can't be read
+	 */
+	long contentHash();
+	
+}
@@ -0,0 +1,61 @@
+package com.github.chrisruffalo.eeconfig.source;
+
+import com.github.chrisruffalo.eeconfig.source.impl.ContentHash;
+
+/**
+ * Reads the {@link ISourceAttributes} of any {@link ISource}, with the 
+ * "unknown" values for sources that don't have them.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class SourceAttributes {
+
+	/**
+	 * Private constructor for utility class
+	 */
+	private SourceAttributes() {
+		
+	}
+	
+	/**
+	 * The time, in milliseconds since the epoch, that the source
+	 * was last modified
+	 * 
+	 * @param source to read
+	 * @return the modification time or 0 if it cannot be determined
+	 */
+	public static long lastModified(ISource source) {
+		if(source instanceof ISourceAttributes) {
+			return ((ISourceAttributes)source).lastModified();
+		}
+		return 0;
+	}
+	
+	/**
+	 * The size, in bytes, of the contents of the source
+	 * 
+	 * @param source to read
+	 * @return the size of the source or -1 if it cannot be determined
+	 */
+	public static long size(ISource source) {
+		if(source instanceof ISourceAttributes) {
+			return ((ISourceAttributes)source).size();
+		}
+		return -1;
+	}
+	
+	/**
+	 * A hash of the contents of the source
+	 * 
+	 * @param source to read
+	 * @return the CRC-32 of the contents or {@link ContentHash#UNKNOWN} if it cannot be determined
+	 */
+	public static long contentHash(ISource source) {
+		if(source instanceof ISourceAttributes) {
+			return ((ISourceAttributes)source).contentHash();
+		}
+		return ContentHash.UNKNOWN;
+	}
+	
+}
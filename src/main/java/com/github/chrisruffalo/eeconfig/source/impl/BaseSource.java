@@ -1,8 +1,10 @@
 package com.github.chrisruffalo.eeconfig.source.impl;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.ISourceAttributes;
 
 /**
  * Common implementation for sources
@@ -10,7 +12,7 @@ import com.github.chrisruffalo.eeconfig.source.ISource;
  * @author Chris Ruffalo
  *
  */
-public abstract class BaseSource implements ISource {
+public abstract class BaseSource implements ISource, ISourceAttributes {
 
 	// the path to the source
 	private String path;
@@ -64,6 +66,49 @@ public abstract class BaseSource implements ISource {
 		return ext;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long lastModified() {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long size() {
+		return -1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br/>
+	 * The contents are read again each time.
+	 */
+	@Override
+	public long contentHash() {
+		if(!this.available()) {
+			return ContentHash.UNKNOWN;
+		}
+		InputStream stream = this.stream();
+		if(stream == null) {
+			return ContentHash.UNKNOWN;
+		}
+		try {
+			return ContentHash.of(stream);
+		} catch (IOException e) {
+			return ContentHash.UNKNOWN;
+		} finally {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// nothing to do
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
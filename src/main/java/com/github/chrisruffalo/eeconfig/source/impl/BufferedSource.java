@@ -0,0 +1,214 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.ISourceAttributes;
+import com.github.chrisruffalo.eeconfig.source.SourceAttributes;
+
+/**
+ * Wraps another source and reads its contents once.  Every call to {@link #stream()}
+ * after that reads from the same in-memory buffer so that guessing the type
+ * and parsing the contents don't each open the underlying source.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class BufferedSource implements ISource, ISourceAttributes {
+
+	// shared empty buffer
+	private static final byte[] EMPTY = new byte[0];
+	
+	// size of the chunks read from the source
+	private static final int CHUNK = 8192;
+	
+	// marks a hash that hasn't been computed
+	private static final long UNHASHED = Long.MIN_VALUE;
+	
+	private final ISource delegate;
+	
+	// contents, null until first read
+	private volatile byte[] bytes;
+	
+	// if the contents could be read
+	private volatile boolean readable;
+	
+	// hash of the contents, computed on first use
+	private volatile long hash = BufferedSource.UNHASHED;
+	
+	/**
+	 * Wrap the given source
+	 * 
+	 * @param delegate the source to read from
+	 */
+	public BufferedSource(ISource delegate) {
+		if(delegate == null) {
+			throw new IllegalArgumentException("A non-null source must be provided");
+		}
+		this.delegate = delegate;
+	}
+	
+	/**
+	 * Buffer the given source unless it is already buffered
+	 * 
+	 * @param source to buffer
+	 * @return a buffered version of the source
+	 */
+	public static BufferedSource of(ISource source) {
+		if(source instanceof BufferedSource) {
+			return (BufferedSource)source;
+		}
+		return new BufferedSource(source);
+	}
+	
+	/**
+	 * The source that is being buffered
+	 * 
+	 * @return the wrapped source
+	 */
+	public ISource getDelegate() {
+		return this.delegate;
+	}
+	
+	/**
+	 * The contents of the source, read the first time this is called.  The
+	 * array is shared and is not copied so it must not be changed.
+	 * 
+	 * @return the contents of the source, empty if it is not available
+	 */
+	public byte[] bytes() {
+		byte[] local = this.bytes;
+		if(local == null) {
+			synchronized(this) {
+				local = this.bytes;
+				if(local == null) {
+					local = this.read();
+					this.bytes = local;
+				}
+			}
+		}
+		return local;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean available() {
+		if(this.bytes == null) {
+			return this.delegate.available();
+		}
+		return this.readable;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InputStream stream() {
+		return new ByteArrayInputStream(this.bytes());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getPath() {
+		return this.delegate.getPath();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getExtension() {
+		return this.delegate.getExtension();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long lastModified() {
+		return SourceAttributes.lastModified(this.delegate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long size() {
+		if(this.bytes != null) {
+			return this.bytes.length;
+		}
+		return SourceAttributes.size(this.delegate);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <br/>
+	 * The hash is of the buffered contents and is only computed once.
+	 */
+	@Override
+	public long contentHash() {
+		long local = this.hash;
+		if(local == BufferedSource.UNHASHED) {
+			byte[] contents = this.bytes();
+			local = this.readable ? ContentHash.of(contents) : ContentHash.UNKNOWN;
+			this.hash = local;
+		}
+		return local;
+	}
+	
+	/**
+	 * Read the whole delegate source
+	 * 
+	 * @return the contents
+	 */
+	private byte[] read() {
+		if(!this.delegate.available()) {
+			this.readable = false;
+			return BufferedSource.EMPTY;
+		}
+		
+		// size the buffer from the source when it is known
+		long size = SourceAttributes.size(this.delegate);
+		int initial = size > 0 && size < Integer.MAX_VALUE ? (int)size : BufferedSource.CHUNK;
+		ByteArrayOutputStream output = new ByteArrayOutputStream(initial);
+		
+		InputStream stream = this.delegate.stream();
+		if(stream == null) {
+			this.readable = false;
+			return BufferedSource.EMPTY;
+		}
+		try {
+			byte[] chunk = new byte[BufferedSource.CHUNK];
+			int read;
+			while((read = stream.read(chunk)) >= 0) {
+				output.write(chunk, 0, read);
+			}
+			this.readable = true;
+		} catch (IOException e) {
+			this.readable = false;
+			return BufferedSource.EMPTY;
+		} finally {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// nothing to do
+			}
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + " [" + this.delegate + "]";
+	}
+}
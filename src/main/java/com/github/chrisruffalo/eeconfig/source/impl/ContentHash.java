@@ -0,0 +1,105 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.SourceAttributes;
+
+/**
+ * Computes the CRC-32 of the contents of a source.  The same contents always
+ * have the same hash, whatever the source is, so the hash can be used to tell
+ * if a source that was touched or copied again really changed.  It is the same
+ * checksum that archives keep for each entry.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class ContentHash {
+
+	/**
+	 * The hash of a source that can't be read
+	 */
+	public static final long UNKNOWN = -1;
+	
+	// size of the chunks read from streams and buffers
+	private static final int CHUNK = 8192;
+	
+	/**
+	 * Private constructor for utility class
+	 */
+	private ContentHash() {
+		
+	}
+	
+	/**
+	 * The hash of each source
+	 * 
+	 * @param sources to hash
+	 * @return the hash of each source, in the same order
+	 */
+	public static List<Long> all(List<ISource> sources) {
+		List<Long> hashes = new ArrayList<Long>(sources.size());
+		for(ISource source : sources) {
+			hashes.add(SourceAttributes.contentHash(source));
+		}
+		return hashes;
+	}
+	
+	/**
+	 * Hash an array of bytes
+	 * 
+	 * @param bytes to hash
+	 * @return the hash
+	 */
+	public static long of(byte[] bytes) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+		return crc.getValue();
+	}
+	
+	/**
+	 * Hash the remaining bytes of a buffer, the position of the
+	 * given buffer is not changed
+	 * 
+	 * @param buffer to hash
+	 * @return the hash
+	 */
+	public static long of(ByteBuffer buffer) {
+		ByteBuffer local = buffer.duplicate();
+		CRC32 crc = new CRC32();
+		if(local.hasArray()) {
+			crc.update(local.array(), local.arrayOffset() + local.position(), local.remaining());
+			return crc.getValue();
+		}
+		byte[] chunk = new byte[Math.min(ContentHash.CHUNK, local.remaining())];
+		while(local.hasRemaining()) {
+			int read = Math.min(chunk.length, local.remaining());
+			local.get(chunk, 0, read);
+			crc.update(chunk, 0, read);
+		}
+		return crc.getValue();
+	}
+	
+	/**
+	 * Hash the rest of a stream, the stream is not closed
+	 * 
+	 * @param stream to hash
+	 * @return the hash
+	 * @throws IOException if the stream can't be read
+	 */
+	public static long of(InputStream stream) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] chunk = new byte[ContentHash.CHUNK];
+		int read;
+		while((read = stream.read(chunk)) >= 0) {
+			crc.update(chunk, 0, read);
+		}
+		return crc.getValue();
+	}
+	
+}
@@ -24,6 +24,18 @@ public class FileSource extends BaseSource {
 	 */
 	public FileSource(File file) {
 		this.file = file;
+		if(file != null) {
+			this.setPath(file.getPath());
+		}
+	}
+	
+	/**
+	 * The file this source reads from
+	 * 
+	 * @return the file, may be null
+	 */
+	public File getFile() {
+		return this.file;
 	}
 	
 	/**
@@ -51,4 +63,26 @@ public class FileSource extends BaseSource {
 	public boolean available() {
 		return file != null && file.exists() && file.isFile();
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long lastModified() {
+		if(this.file == null) {
+			return 0;
+		}
+		return this.file.lastModified();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long size() {
+		if(!this.available()) {
+			return -1;
+		}
+		return this.file.length();
+	}
 }
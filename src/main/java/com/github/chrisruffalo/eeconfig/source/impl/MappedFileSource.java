@@ -0,0 +1,161 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A {@link FileSource} that maps the file in to memory instead of reading it.  The
+ * contents are only paged in as they are used, which keeps large files off of the
+ * heap.  Properties files from this source are indexed in place and each value
+ * is only decoded when it is read.
+ * <br/>
+ * The mapping shares the file with the operating system.  A file that is
+ * rewritten in place while mapped changes under anything that is still reading
+ * it so mapped files should be replaced (written to a new file and renamed) 
+ * instead.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class MappedFileSource extends FileSource {
+
+	// shared empty buffer for unavailable or unmappable files
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0).asReadOnlyBuffer();
+	
+	// the mapped contents, mapped on first use
+	private ByteBuffer mapped;
+	
+	/**
+	 * Create a mapped source from a File
+	 * 
+	 * @param file
+	 */
+	public MappedFileSource(File file) {
+		super(file);
+	}
+	
+	/**
+	 * The contents of the file, mapped the first time this is called.  Each
+	 * call returns a new read-only view of the same mapping positioned at 
+	 * the start of the file.
+	 * 
+	 * @return the contents of the file, empty if it is not available
+	 */
+	public ByteBuffer buffer() {
+		ByteBuffer local;
+		synchronized(this) {
+			if(this.mapped == null) {
+				this.mapped = this.map();
+			}
+			local = this.mapped;
+		}
+		return local.duplicate();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InputStream stream() {
+		return new BufferInputStream(this.buffer());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <br/>
+	 * The hash is computed from the mapping, the file is not read again.
+	 */
+	@Override
+	public long contentHash() {
+		if(!this.available()) {
+			return ContentHash.UNKNOWN;
+		}
+		return ContentHash.of(this.buffer());
+	}
+	
+	/**
+	 * Map the file
+	 * 
+	 * @return the mapped (read-only) contents
+	 */
+	private ByteBuffer map() {
+		File file = this.getFile();
+		if(!this.available()) {
+			return MappedFileSource.EMPTY;
+		}
+		// the mapping stays valid after the channel is closed
+		try (RandomAccessFile access = new RandomAccessFile(file, "r"); FileChannel channel = access.getChannel()) {
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE) {
+				throw new IOException("Files larger than " + Integer.MAX_VALUE + " bytes can not be mapped");
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+		} catch (IOException e) {
+			return MappedFileSource.EMPTY;
+		}
+	}
+	
+	/**
+	 * Reads from a buffer
+	 */
+	private static class BufferInputStream extends InputStream {
+		
+		private final ByteBuffer buffer;
+		
+		private BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			if(!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			return this.buffer.get() & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if(length == 0) {
+				return 0;
+			}
+			if(!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int read = Math.min(length, this.buffer.remaining());
+			this.buffer.get(bytes, offset, read);
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+		
+		@Override
+		public long skip(long n) {
+			int skipped = (int)Math.max(0, Math.min(n, this.buffer.remaining()));
+			this.buffer.position(this.buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return true;
+		}
+
+		@Override
+		public synchronized void mark(int readlimit) {
+			this.buffer.mark();
+		}
+
+		@Override
+		public synchronized void reset() {
+			this.buffer.reset();
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Configuration source based on a {@link Path}.  The attributes of the file
+ * are read once, when the source is created, and that snapshot answers
+ * {@link #available()}, {@link #lastModified()}, {@link #size()} and 
+ * {@link #getFileKey()} until {@link #refresh()} is called.  Locating, guessing 
+ * the type, fingerprinting, and loading a source therefore only stat the file once.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class PathSource extends BaseSource {
+
+	private final Path file;
+	
+	// attributes read at creation or the last refresh, null if they could not be read
+	private volatile BasicFileAttributes attributes;
+	
+	// hash of the contents, computed on first use after creation or the last refresh
+	private volatile Long hash;
+	
+	/**
+	 * Create a new PathSource from a Path, reading its attributes
+	 * 
+	 * @param file
+	 */
+	public PathSource(Path file) {
+		this.file = file;
+		if(file != null) {
+			this.setPath(file.toString());
+		}
+		this.refresh();
+	}
+	
+	/**
+	 * The file this source reads from
+	 * 
+	 * @return the file, may be null
+	 */
+	public Path getFile() {
+		return this.file;
+	}
+	
+	/**
+	 * Read the attributes of the file again
+	 * 
+	 * @return this source
+	 */
+	public PathSource refresh() {
+		BasicFileAttributes read = null;
+		if(this.file != null) {
+			try {
+				read = Files.readAttributes(this.file, BasicFileAttributes.class);
+			} catch (IOException e) {
+				read = null;
+			}
+		}
+		this.attributes = read;
+		this.hash = null;
+		return this;
+	}
+	
+	/**
+	 * The attributes of the file as of creation or the last {@link #refresh()}
+	 * 
+	 * @return the attributes or null if the file could not be read
+	 */
+	public BasicFileAttributes getAttributes() {
+		return this.attributes;
+	}
+	
+	/**
+	 * The key that identifies the file on its file system, if the file system
+	 * has one.  A file that has been replaced has a different key even if its
+	 * size and modification time are the same.
+	 * 
+	 * @return the file key or null
+	 */
+	public Object getFileKey() {
+		BasicFileAttributes local = this.attributes;
+		return local == null ? null : local.fileKey();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <br/>
+	 * The hash is kept, like the attributes, until {@link #refresh()} is called.
+	 */
+	@Override
+	public long contentHash() {
+		Long local = this.hash;
+		if(local == null) {
+			local = super.contentHash();
+			this.hash = local;
+		}
+		return local;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InputStream stream() {
+		InputStream stream;
+		if(!this.available()) {
+			stream = new ByteArrayInputStream(new byte[0]);
+		} else {
+			try {
+				stream = Files.newInputStream(this.file);
+			} catch (IOException e) {
+				stream = new ByteArrayInputStream(new byte[0]);
+			}
+		}
+		
+		// create buffered stream
+		stream = new BufferedInputStream(stream);
+		
+		return stream;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean available() {
+		BasicFileAttributes local = this.attributes;
+		return local != null && local.isRegularFile();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long lastModified() {
+		BasicFileAttributes local = this.attributes;
+		if(local == null) {
+			return 0;
+		}
+		return local.lastModifiedTime().toMillis();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long size() {
+		BasicFileAttributes local = this.attributes;
+		if(local == null || !local.isRegularFile()) {
+			return -1;
+		}
+		return local.size();
+	}
+}
@@ -0,0 +1,170 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers where classpath resources were found, per class loader, so that
+ * each class loader is only searched once for a given resource path (including 
+ * paths that were not found).  Class loaders are weakly held so that the entries
+ * for a redeployed application go away with its class loader.
+ * <br/>
+ * The contents of resources inside of archives can also be kept, they can't change
+ * for the life of the class loader.  Keeping contents is off unless it is turned on
+ * with {@link #setCacheBytes(boolean)} or with the System Property 
+ * {@value #CACHE_BYTES_PROPERTY}.  Resources from directories are always read again.
+ * <br/>
+ * Resources added to a directory on the classpath after they were looked for are
+ * not found until {@link #clear()} is called.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class ResourceCache {
+
+	/**
+	 * System property that turns on keeping the contents of archived resources
+	 */
+	public static final String CACHE_BYTES_PROPERTY = "ee-config.resource.cache.bytes";
+	
+	// marks a path that was not found
+	private static final Entry MISSING = new Entry(null);
+	
+	// entries by class loader and then resource path
+	private static final Map<ClassLoader, ConcurrentMap<String, Entry>> ENTRIES = new WeakHashMap<ClassLoader, ConcurrentMap<String, Entry>>();
+	
+	private static volatile boolean cacheBytes = Boolean.getBoolean(ResourceCache.CACHE_BYTES_PROPERTY);
+	
+	private ResourceCache() {
+		
+	}
+	
+	/**
+	 * Find a resource
+	 * 
+	 * @param loader the class loader to search
+	 * @param path the resource path
+	 * @return the url of the resource or null if it is not found
+	 */
+	public static URL getResource(ClassLoader loader, String path) {
+		ConcurrentMap<String, Entry> entries = ResourceCache.entries(loader);
+		Entry entry = entries.get(path);
+		if(entry == null) {
+			URL url = loader.getResource(path);
+			entry = url == null ? ResourceCache.MISSING : new Entry(url);
+			Entry previous = entries.putIfAbsent(path, entry);
+			if(previous != null) {
+				entry = previous;
+			}
+		}
+		return entry.url;
+	}
+	
+	/**
+	 * Open a resource, from the kept contents if there are any
+	 * 
+	 * @param loader the class loader the resource was found with
+	 * @param path the resource path
+	 * @return a stream of the resource contents or null if it is not found
+	 * @throws IOException if the resource can't be read
+	 */
+	public static InputStream open(ClassLoader loader, String path) throws IOException {
+		URL url = ResourceCache.getResource(loader, path);
+		if(url == null) {
+			return null;
+		}
+		
+		// only archived contents are kept
+		if(!ResourceCache.cacheBytes || "file".equalsIgnoreCase(url.getProtocol())) {
+			return url.openStream();
+		}
+		
+		Entry entry = ResourceCache.entries(loader).get(path);
+		if(entry == null || entry.url == null) {
+			return url.openStream();
+		}
+		byte[] bytes = entry.bytes;
+		if(bytes == null) {
+			bytes = ResourceCache.read(url);
+			entry.bytes = bytes;
+		}
+		return new ByteArrayInputStream(bytes);
+	}
+	
+	/**
+	 * Turn keeping the contents of archived resources on or off
+	 * 
+	 * @param cacheBytes true to keep contents
+	 */
+	public static void setCacheBytes(boolean cacheBytes) {
+		ResourceCache.cacheBytes = cacheBytes;
+	}
+	
+	/**
+	 * Forget everything for every class loader
+	 * 
+	 */
+	public static void clear() {
+		synchronized(ResourceCache.ENTRIES) {
+			ResourceCache.ENTRIES.clear();
+		}
+	}
+	
+	/**
+	 * Forget everything for the class loader
+	 * 
+	 * @param loader the class loader
+	 */
+	public static void clear(ClassLoader loader) {
+		synchronized(ResourceCache.ENTRIES) {
+			ResourceCache.ENTRIES.remove(loader);
+		}
+	}
+	
+	private static ConcurrentMap<String, Entry> entries(ClassLoader loader) {
+		synchronized(ResourceCache.ENTRIES) {
+			ConcurrentMap<String, Entry> entries = ResourceCache.ENTRIES.get(loader);
+			if(entries == null) {
+				entries = new ConcurrentHashMap<String, Entry>();
+				ResourceCache.ENTRIES.put(loader, entries);
+			}
+			return entries;
+		}
+	}
+	
+	private static byte[] read(URL url) throws IOException {
+		InputStream stream = url.openStream();
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] chunk = new byte[8192];
+			int read;
+			while((read = stream.read(chunk)) >= 0) {
+				bytes.write(chunk, 0, read);
+			}
+			return bytes.toByteArray();
+		} finally {
+			stream.close();
+		}
+	}
+	
+	/**
+	 * Where a resource was found and, if kept, its contents
+	 */
+	private static final class Entry {
+		
+		private final URL url;
+		
+		private volatile byte[] bytes;
+		
+		private Entry(URL url) {
+			this.url = url;
+		}
+	}
+}
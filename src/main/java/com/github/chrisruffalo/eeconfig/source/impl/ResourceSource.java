@@ -1,7 +1,11 @@
 package com.github.chrisruffalo.eeconfig.source.impl;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
 
 /**
@@ -12,6 +16,15 @@ import java.net.URL;
  */
 public class ResourceSource extends BaseSource {
 
+	// the url of the resource, looked up once
+	private URL url;
+	
+	// the class loader the url was looked up with
+	private ClassLoader loader;
+	
+	// if the url has been looked up
+	private boolean lookedUp;
+	
 	/**
 	 * Create a resource from a resource path string
 	 * 
@@ -20,6 +33,32 @@ public class ResourceSource extends BaseSource {
 	public ResourceSource(String path) {
 		this.setPath(path);
 	}
+	
+	/**
+	 * Create a resource that is already known to be at the given url
+	 * 
+	 * @param path
+	 * @param url
+	 */
+	public ResourceSource(String path, URL url) {
+		this.setPath(path);
+		synchronized(this) {
+			this.url = url;
+			this.lookedUp = true;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void setPath(String path) {
+		super.setPath(path);
+		// look the url up again for the new path
+		this.url = null;
+		this.loader = null;
+		this.lookedUp = false;
+	}
 
 	/**
 	 * {@inheritDoc}
@@ -34,21 +73,97 @@ public class ResourceSource extends BaseSource {
 	 */
 	@Override
 	public InputStream stream() {
-		ClassLoader loader = Thread.currentThread().getContextClassLoader();
-		InputStream stream = loader.getResourceAsStream(this.getPath());
+		URL url = this.getUrl();
+		InputStream stream;
+		try {
+			ClassLoader loader = this.getLoader();
+			if(url == null) {
+				stream = null;
+			} else if(loader == null) {
+				stream = url.openStream();
+			} else {
+				stream = ResourceCache.open(loader, this.getPath());
+			}
+		} catch (IOException e) {
+			stream = null;
+		}
+		if(stream == null) {
+			stream = new ByteArrayInputStream(new byte[0]);
+		}
 		stream = new BufferedInputStream(stream);
 		return stream;
 	}
 	
 	/**
-	 * Get the url to find out if the resource is available
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long lastModified() {
+		File file = this.getFile();
+		if(file == null) {
+			return 0;
+		}
+		return file.lastModified();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long size() {
+		File file = this.getFile();
+		if(file == null) {
+			return -1;
+		}
+		return file.length();
+	}
+	
+	/**
+	 * Get the file that backs the resource when the resource comes from
+	 * an exploded (directory) classpath entry.  Resources inside of 
+	 * archives do not change for the life of the class loader so they
+	 * have no backing file to check.
+	 * 
+	 * @return the backing file or null if no file backs the resource
+	 */
+	private File getFile() {
+		URL url = this.getUrl();
+		if(url == null || !"file".equalsIgnoreCase(url.getProtocol())) {
+			return null;
+		}
+		try {
+			return new File(url.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Get the url to find out if the resource is available, the
+	 * class loader is only asked the first time (by any source)
 	 * 
 	 * @return URL of the resource
 	 */
-	private URL getUrl() {
-		ClassLoader loader = Thread.currentThread().getContextClassLoader();
-		URL url = loader.getResource(this.getPath());
-		return url;
+	private synchronized URL getUrl() {
+		if(!this.lookedUp) {
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			if(loader == null) {
+				loader = ResourceSource.class.getClassLoader();
+			}
+			this.loader = loader;
+			this.url = ResourceCache.getResource(loader, this.getPath());
+			this.lookedUp = true;
+		}
+		return this.url;
+	}
+	
+	/**
+	 * The class loader the url was looked up with
+	 * 
+	 * @return the class loader
+	 */
+	private synchronized ClassLoader getLoader() {
+		return this.loader;
 	}
 
 }
@@ -2,6 +2,7 @@ package com.github.chrisruffalo.eeconfig.source.impl;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Represents a source that could not be found
@@ -11,6 +12,8 @@ import java.io.InputStream;
  */
 public class UnfoundSource extends BaseSource {
 
+	private final Path file;
+	
 	/**
 	 * Create an unfound source
 	 * 
@@ -27,7 +30,28 @@ public class UnfoundSource extends BaseSource {
 	 * @param path
 	 */
 	public UnfoundSource(String path) {
+		this(path, null);
+	}
+	
+	/**
+	 * Create an unfound source for a file that does not exist (yet)
+	 * so that it can be watched for
+	 * 
+	 * @param path
+	 * @param file the file the source would have been read from
+	 */
+	public UnfoundSource(String path, Path file) {
 		this.setPath(path);
+		this.file = file;
+	}
+	
+	/**
+	 * The file that the source would have been read from
+	 * 
+	 * @return the file or null if the source was not looked for in a file
+	 */
+	public Path getFile() {
+		return this.file;
 	}
 
 	/**
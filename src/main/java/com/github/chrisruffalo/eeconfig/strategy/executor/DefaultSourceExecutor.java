@@ -0,0 +1,68 @@
+package com.github.chrisruffalo.eeconfig.strategy.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Runs each task on its own virtual thread when the runtime has them and 
+ * otherwise on a shared {@link ForkJoinPool}.  Loading sources mostly waits on
+ * I/O so the pool has at least four threads, even on small machines.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@ApplicationScoped
+public class DefaultSourceExecutor implements SourceExecutor {
+
+	private ExecutorService executor;
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void execute(Runnable task) {
+		this.executor().execute(task);
+	}
+	
+	/**
+	 * Stop the threads when the application stops
+	 * 
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if(this.executor != null) {
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+	
+	private synchronized ExecutorService executor() {
+		if(this.executor == null) {
+			this.executor = DefaultSourceExecutor.virtualThreads();
+			if(this.executor == null) {
+				this.executor = new ForkJoinPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+			}
+		}
+		return this.executor;
+	}
+	
+	/**
+	 * A virtual thread per task executor, if the runtime has one
+	 * 
+	 * @return the executor or null if there are no virtual threads
+	 */
+	private static ExecutorService virtualThreads() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService)factory.invoke(null);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.github.chrisruffalo.eeconfig.strategy.executor;
+
+/**
+ * Describes how the sources of a configuration are located and
+ * loaded when parallel loading is turned on
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public interface SourceExecutor {
+
+	/**
+	 * Run the task, at some point, on some thread.  Tasks that are 
+	 * rejected (with a {@link java.util.concurrent.RejectedExecutionException})
+	 * are run by the caller.
+	 * 
+	 * @param task to run
+	 */
+	void execute(Runnable task);
+	
+}
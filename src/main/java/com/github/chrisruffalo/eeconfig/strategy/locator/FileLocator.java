@@ -1,11 +1,12 @@
 package com.github.chrisruffalo.eeconfig.strategy.locator;
 
 import java.io.File;
+import java.nio.file.InvalidPathException;
 
 import javax.enterprise.context.ApplicationScoped;
 
 import com.github.chrisruffalo.eeconfig.source.ISource;
-import com.github.chrisruffalo.eeconfig.source.impl.FileSource;
+import com.github.chrisruffalo.eeconfig.source.impl.PathSource;
 import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
 
 /**
@@ -25,12 +26,18 @@ public class FileLocator extends BaseLocator {
 		if(path == null || path.isEmpty()) {
 			return new UnfoundSource();
 		}
-		// create file pointer from given path
-		File file = new File(path);
-		FileSource fileSource = new FileSource(file);
-		if(!fileSource.available()) {
+		// create file pointer from given path, the attributes
+		// are read once here and kept by the source
+		PathSource fileSource;
+		try {
+			fileSource = new PathSource(new File(path).toPath());
+		} catch (InvalidPathException e) {
 			return new UnfoundSource(path);
 		}
+		if(!fileSource.available()) {
+			// keep the file so it can be watched for
+			return new UnfoundSource(path, fileSource.getFile());
+		}
 		return fileSource; 
 	}
 
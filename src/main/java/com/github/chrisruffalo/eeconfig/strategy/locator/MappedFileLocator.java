@@ -0,0 +1,43 @@
+package com.github.chrisruffalo.eeconfig.strategy.locator;
+
+import java.io.File;
+import java.nio.file.InvalidPathException;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.impl.MappedFileSource;
+import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
+
+/**
+ * Locate a memory mapped file source from the path given
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@ApplicationScoped
+public class MappedFileLocator extends BaseLocator {
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ISource locate(String path) {
+		if(path == null || path.isEmpty()) {
+			return new UnfoundSource();
+		}
+		// create file pointer from given path
+		File file = new File(path);
+		MappedFileSource fileSource = new MappedFileSource(file);
+		if(!fileSource.available()) {
+			// keep the file so it can be watched for
+			try {
+				return new UnfoundSource(path, file.toPath());
+			} catch (InvalidPathException e) {
+				return new UnfoundSource(path);
+			}
+		}
+		return fileSource; 
+	}
+
+}
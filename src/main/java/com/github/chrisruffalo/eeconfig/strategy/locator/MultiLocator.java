@@ -24,12 +24,20 @@ public class MultiLocator extends BaseLocator {
 	 */
 	private static final String RESOURCE = "resource:";
 	
+	/**
+	 * Memory mapped file marker
+	 */
+	private static final String MAPPED = "mapped:";
+	
 	@Inject
 	private FileLocator fLocator;
 	
 	@Inject
 	private ResourceLocator rLocator;
 	
+	@Inject
+	private MappedFileLocator mLocator;
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -46,6 +54,11 @@ public class MultiLocator extends BaseLocator {
 			path = StringUtils.removeStart(path, MultiLocator.RESOURCE);
 			return this.rLocator.locate(path);
 		}
+		// has mapped file marker
+		if(localPath.startsWith(MultiLocator.MAPPED)) {
+			path = StringUtils.removeStart(path, MultiLocator.MAPPED);
+			return this.mLocator.locate(path);
+		}
 		// otherwise use file system lookup
 		return this.fLocator.locate(path);
 	}
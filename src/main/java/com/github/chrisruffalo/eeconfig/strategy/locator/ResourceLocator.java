@@ -1,13 +1,27 @@
 package com.github.chrisruffalo.eeconfig.strategy.locator;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
 
+import com.github.chrisruffalo.eeconfig.index.IndexedResource;
+import com.github.chrisruffalo.eeconfig.index.ResourceIndex;
+import com.github.chrisruffalo.eeconfig.index.ResourceIndexExtension;
 import com.github.chrisruffalo.eeconfig.source.ISource;
 import com.github.chrisruffalo.eeconfig.source.impl.ResourceSource;
 import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
 
 /**
- * Locate a classpath resource from the path given
+ * Locate a classpath resource from the path given.  Resources that are in
+ * the {@link ResourceIndex} of the current class loader are found without 
+ * searching the class loader, as long as every root could be indexed.
  * 
  * @author Chris Ruffalo
  *
@@ -15,6 +29,9 @@ import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
 @ApplicationScoped
 public class ResourceLocator extends BaseLocator {
 
+	@Inject
+	private Instance<ResourceIndexExtension> indexExtension;
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -24,6 +41,13 @@ public class ResourceLocator extends BaseLocator {
 			return new UnfoundSource();
 		}
 		
+		// indexed resources are already known
+		ResourceIndex index = this.getIndex(ResourceLocator.loader());
+		IndexedResource indexed = index.isComplete() ? index.get(path) : null;
+		if(indexed != null) {
+			return new ResourceSource(path, indexed.getUrl());
+		}
+		
 		// get resource
 		ResourceSource reSource = new ResourceSource(path);
 		
@@ -33,5 +57,65 @@ public class ResourceLocator extends BaseLocator {
 		
 		return reSource;
 	}
+	
+	/**
+	 * Locate every classpath resource with the path given, in class loader order
+	 * 
+	 * @param path to the resources
+	 * @return the resources, empty if none are found
+	 */
+	public List<ISource> locateAll(String path) {
+		List<ISource> found = new ArrayList<ISource>();
+		if(path == null || path.isEmpty()) {
+			return found;
+		}
+		
+		// indexed resources are already known
+		ClassLoader loader = ResourceLocator.loader();
+		ResourceIndex index = this.getIndex(loader);
+		List<IndexedResource> indexed = index.isComplete() ? index.getAll(path) : Collections.<IndexedResource>emptyList();
+		if(!indexed.isEmpty()) {
+			for(IndexedResource resource : indexed) {
+				found.add(new ResourceSource(path, resource.getUrl()));
+			}
+			return found;
+		}
+		
+		try {
+			Enumeration<URL> urls = loader.getResources(path);
+			while(urls.hasMoreElements()) {
+				found.add(new ResourceSource(path, urls.nextElement()));
+			}
+		} catch (IOException e) {
+			// nothing more can be found
+		}
+		return found;
+	}
+	
+	/**
+	 * The resource index of the class loader
+	 * 
+	 * @param loader the class loader resources are looked up with
+	 * @return the index, empty if the extension isn't installed
+	 */
+	private ResourceIndex getIndex(ClassLoader loader) {
+		if(this.indexExtension == null || this.indexExtension.isUnsatisfied()) {
+			return ResourceIndex.empty();
+		}
+		return this.indexExtension.get().getIndex(loader);
+	}
+	
+	/**
+	 * The class loader resources are looked up with
+	 * 
+	 * @return the context class loader or, if there isn't one, the class loader of this class
+	 */
+	private static ClassLoader loader() {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if(loader == null) {
+			loader = ResourceLocator.class.getClassLoader();
+		}
+		return loader;
+	}
 
 }
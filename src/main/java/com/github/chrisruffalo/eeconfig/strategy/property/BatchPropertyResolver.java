@@ -0,0 +1,43 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link PropertyResolver} that can resolve many strings against the same
+ * properties at once.  Tokens that are shared between the strings only 
+ * need to be looked up once.
+ * <br/>
+ * Callers that only have a {@link PropertyResolver} should use
+ * {@link PropertyResolvers} which falls back to resolving each string 
+ * on its own when the resolver does not implement this interface.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public interface BatchPropertyResolver extends PropertyResolver {
+
+	/**
+	 * Resolve system properties and given properties within each of the provided strings
+	 * 
+	 * @param templates strings including ${} enclosed tokens
+	 * @param bootstrapProperties map of base properties to use
+	 * @param defaultProperties map of default properties to use if no value is found given other properties
+	 * 
+	 * @return the resolved strings in the same order as the given strings
+	 */
+	List<String> resolveAll(Collection<String> templates, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties);
+	
+	/**
+	 * Resolve system properties and given properties within each value of the provided map
+	 * 
+	 * @param templates map of strings including ${} enclosed tokens
+	 * @param bootstrapProperties map of base properties to use
+	 * @param defaultProperties map of default properties to use if no value is found given other properties
+	 * 
+	 * @return a map with the same keys, in the same order, and the resolved values
+	 */
+	<K> Map<K, String> resolveAll(Map<K, String> templates, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties);
+	
+}
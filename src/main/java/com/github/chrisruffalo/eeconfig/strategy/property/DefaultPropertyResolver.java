@@ -1,28 +1,36 @@
 package com.github.chrisruffalo.eeconfig.strategy.property;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Default;
 
-import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Default implementation of the property resolver that can
  * resolve properties by using a given property map combined
- * with given System Properties
+ * with given System Properties.  System Properties are read 
+ * from the current {@link SystemPropertySnapshot}.
  * 
  * @author Chris Ruffalo
  *
  */
 @Default
 @ApplicationScoped
-public class DefaultPropertyResolver implements PropertyResolver {
+public class DefaultPropertyResolver implements BatchPropertyResolver {
+	
+	// compiled templates, shared by all instances since compiling only depends on the string
+	static final PropertyTemplateCache TEMPLATES = new PropertyTemplateCache();
 	
 	// not injected so we can write some "normal" unit tests based around it
 	private Logger logger;
@@ -56,82 +64,237 @@ public class DefaultPropertyResolver implements PropertyResolver {
 	 */
 	@Override
 	public String resolveProperties(String fullString, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+		// nothing to resolve
+		if(fullString == null) {
+			return null;
+		}
 		
-		// prevent loops
-		Set<String> previousValues = new HashSet<String>();
+		// get the compiled form of the string, if there are no tokens 
+		// there is nothing to do
+		PropertyTemplate template = DefaultPropertyResolver.TEMPLATES.get(fullString);
+		if(!template.hasTokens()) {
+			return fullString;
+		}
 		
-		// string for manipulation
-		String output = fullString;
+		// resolve into a new string
+		StringBuilder output = new StringBuilder(fullString.length());
+		this.resolveTemplate(template, output, new Resolution(bootstrapProperties, defaultProperties));
 		
-		// initial value is a 'previous value'
-		previousValues.add(output);
+		// log
+		this.logger.trace("Resolved '{}' to '{}'", fullString, output);
 		
-		// loop until the resolved string is 'stable'.  in previous
-		// versions this was a recursive step but recursion was
-		// dropped for two reasons.  the first is that it complicates
-		// the 'previous value' resolution that stops cyclic
-		// and recursive resolution.  the second is becuase Java
-		// doesn't really gain anything from a recursive loop.
-		while(true) {
-			// find tokens
-			String[] foundTokens = StringUtils.substringsBetween(output, "${", "}");
-	
-			// if no tokens are found, leave
-			if(foundTokens == null || foundTokens.length == 0) {
-				break;
-			}
-	
-			// for each token, resolve
-			for(String token : foundTokens) {
-				// if the token is null, leave
-				if(token == null) {
-					continue;
-				}
-	
-				// get the property (first from bootstrap, then from system properties, then from default)
-				String property = null;
-				if(bootstrapProperties != null && bootstrapProperties.containsKey(token)) {
-					property = String.valueOf(bootstrapProperties.get(token));
-				} else if(System.getProperties().containsKey(token)) {
-					property = System.getProperty(token);
-				} else if(defaultProperties != null && defaultProperties.containsKey(token)) {
-					property = String.valueOf(defaultProperties.get(token));
-				}
+		// return resolved output
+		return output.toString();
+	}
 	
-				// if the property is null, leave
-				if(property == null) {
-					continue;
-				}
+	/**
+	 * Resolve system properties and given properties within the provided string
+	 * and append the result to the given output instead of creating a new string
+	 * 
+	 * @param fullString including ${} enclosed tokens
+	 * @param bootstrapProperties map of base properties to use
+	 * @param defaultProperties map of default properties to use if no value is found given other properties
+	 * @param output the builder that the resolved string is appended to
+	 */
+	public void resolveProperties(String fullString, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties, StringBuilder output) {
+		if(output == null) {
+			throw new IllegalArgumentException("A non-null output must be provided");
+		}
+		if(fullString == null) {
+			return;
+		}
+		PropertyTemplate template = DefaultPropertyResolver.TEMPLATES.get(fullString);
+		if(!template.hasTokens()) {
+			output.append(fullString);
+			return;
+		}
+		this.resolveTemplate(template, output, new Resolution(bootstrapProperties, defaultProperties));
+	}
 	
-				// if the property is the same as the token
-				// then leave
-				if(token.equals(property)) {
-					continue;
-				}
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> resolveAll(Collection<String> templates, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+		List<String> resolved = new ArrayList<String>(templates.size());
+		// one resolution for all of the strings so that shared tokens are only resolved once
+		Resolution resolution = new Resolution(bootstrapProperties, defaultProperties);
+		for(String template : templates) {
+			resolved.add(this.resolveWith(template, resolution));
+		}
+		return resolved;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <K> Map<K, String> resolveAll(Map<K, String> templates, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+		Map<K, String> resolved = new LinkedHashMap<K, String>(templates.size());
+		// one resolution for all of the strings so that shared tokens are only resolved once
+		Resolution resolution = new Resolution(bootstrapProperties, defaultProperties);
+		for(Map.Entry<K, String> entry : templates.entrySet()) {
+			resolved.put(entry.getKey(), this.resolveWith(entry.getValue(), resolution));
+		}
+		return resolved;
+	}
 	
-				// now we have a non-null property that
-				// is different than the initial token
-				// so now we have something to replace with
-				output = StringUtils.replace(output, "${" + token + "}", property);
-			}
+	/**
+	 * Resolve a single string as part of a larger resolution
+	 * 
+	 * @param fullString
+	 * @param resolution
+	 * @return
+	 */
+	private String resolveWith(String fullString, Resolution resolution) {
+		if(fullString == null) {
+			return null;
+		}
+		PropertyTemplate template = DefaultPropertyResolver.TEMPLATES.get(fullString);
+		if(!template.hasTokens()) {
+			return fullString;
+		}
+		StringBuilder output = new StringBuilder(fullString.length());
+		this.resolveTemplate(template, output, resolution);
+		return output.toString();
+	}
 	
-			// log
-			this.logger.trace("Resolved '{}' to '{}'", fullString, output);
+	/**
+	 * Walk the segments of a compiled template and write the resolved
+	 * value to the output.  Nested tokens are resolved before the token
+	 * that contains them.
+	 * 
+	 * @param template the template to resolve
+	 * @param output the resolved value
+	 * @param resolution the state of the current resolution
+	 */
+	private void resolveTemplate(PropertyTemplate template, StringBuilder output, Resolution resolution) {
+		for(int i = 0; i < template.getTokenCount(); i++) {
+			output.append(template.getLiteral(i));
 			
-			// if the previous values list contains an earlier version of the string
-			// we can consider it safe to return because it's either recursive or
-			// cyclic
-			if(previousValues.contains(output)) {
-				this.logger.trace("Cyclic or recursive property resolution found for '{}', done resolving properties", output);
-				break;
+			// resolve the name of the token if it has tokens of its own
+			PropertyTemplate name = template.getTokenTemplate(i);
+			String token = name.getTemplate();
+			if(name.hasTokens()) {
+				StringBuilder resolvedName = new StringBuilder(token.length());
+				this.resolveTemplate(name, resolvedName, resolution);
+				token = resolvedName.toString();
 			}
 			
-			// store this step's value as a 'previous value'
-			previousValues.add(output);
+			// resolve the token, if there is no value leave the token in place
+			String value = this.resolveToken(token, resolution);
+			if(value == null) {
+				output.append(PropertyTemplate.TOKEN_START).append(token).append(PropertyTemplate.TOKEN_END);
+			} else {
+				output.append(value);
+			}
+		}
+		output.append(template.getLiteral(template.getTokenCount()));
+	}
+	
+	/**
+	 * Resolve the value of a single token, including any tokens in that
+	 * value.  Each token is only resolved once for each call.
+	 * 
+	 * @param token the name of the token
+	 * @param resolution the state of the current resolution
+	 * @return the resolved value or null if the token has no value
+	 */
+	private String resolveToken(String token, Resolution resolution) {
+		// already resolved
+		if(resolution.resolved.containsKey(token)) {
+			return resolution.resolved.get(token);
+		}
+		
+		// the token is already being resolved, this is cyclic or recursive
+		if(resolution.resolving.contains(token)) {
+			this.logger.trace("Cyclic or recursive property resolution found for '{}'", token);
+			resolution.cycles++;
+			return null;
 		}
+		
+		// get the property (first from bootstrap, then from system properties, then from default)
+		String property = this.lookup(token, resolution.bootstrapProperties, resolution.system, resolution.defaultProperties);
+		
+		// if the property is null or the same as the token there is no value
+		if(property == null || token.equals(property)) {
+			resolution.resolved.put(token, null);
+			return null;
+		}
+		
+		// the value may have tokens of its own, values without any (like urls and paths) are 
+		// used as they are so they don't push the templates that are reused out of the cache
+		if(!property.contains(PropertyTemplate.TOKEN_START)) {
+			resolution.resolved.put(token, property);
+			return property;
+		}
+		PropertyTemplate template = DefaultPropertyResolver.TEMPLATES.get(property);
+		if(!template.hasTokens()) {
+			resolution.resolved.put(token, property);
+			return property;
+		}
+		int cycles = resolution.cycles;
+		resolution.resolving.add(token);
+		StringBuilder value = new StringBuilder(property.length());
+		this.resolveTemplate(template, value, resolution);
+		resolution.resolving.remove(token);
+		String resolved = value.toString();
+		
+		// a value that ran into a cycle depends on where the cycle was
+		// entered so it can't be reused for the rest of the call
+		if(cycles == resolution.cycles) {
+			resolution.resolved.put(token, resolved);
+		}
+		
+		return resolved;
+	}
+	
+	/**
+	 * Find the value of a single token, first from bootstrap, then from 
+	 * system properties, then from default
+	 * 
+	 * @param token
+	 * @param bootstrapProperties
+	 * @param system snapshot of the system properties
+	 * @param defaultProperties
+	 * @return the value of the token or null if no value was found
+	 */
+	private String lookup(String token, Map<Object, Object> bootstrapProperties, SystemPropertySnapshot system, Map<Object, Object> defaultProperties) {
+		if(bootstrapProperties != null && bootstrapProperties.containsKey(token)) {
+			return String.valueOf(bootstrapProperties.get(token));
+		} else if(system.containsKey(token)) {
+			return system.getProperty(token);
+		} else if(defaultProperties != null && defaultProperties.containsKey(token)) {
+			return String.valueOf(defaultProperties.get(token));
+		}
+		return null;
+	}
 
-		// return resolved output
-		return output;
+	/**
+	 * State for a single call to resolve properties
+	 */
+	private static final class Resolution {
+		
+		private final Map<Object, Object> bootstrapProperties;
+		
+		private final Map<Object, Object> defaultProperties;
+		
+		// the same system properties are used for the whole call
+		private final SystemPropertySnapshot system = SystemPropertySnapshot.current();
+		
+		// values of tokens that have been resolved, null when the token has no value
+		private final Map<String, String> resolved = new HashMap<String, String>();
+		
+		// tokens that are currently being resolved
+		private final Set<String> resolving = new HashSet<String>();
+		
+		// the number of cycles found so far
+		private int cycles = 0;
+		
+		private Resolution(Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+			this.bootstrapProperties = bootstrapProperties;
+			this.defaultProperties = defaultProperties;
+		}
 	}
 
 }
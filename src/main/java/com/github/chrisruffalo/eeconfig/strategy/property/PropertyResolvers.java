@@ -0,0 +1,68 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for using any {@link PropertyResolver} as a {@link BatchPropertyResolver}
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class PropertyResolvers {
+
+	// private constructor for factory/static class
+	private PropertyResolvers() {
+		
+	}
+	
+	/**
+	 * Resolve each of the given strings with the given resolver.  Uses the
+	 * resolver's batch implementation if it has one and otherwise resolves
+	 * each string on its own.
+	 * 
+	 * @param resolver the resolver to use
+	 * @param templates strings including ${} enclosed tokens
+	 * @param bootstrapProperties map of base properties to use
+	 * @param defaultProperties map of default properties to use if no value is found given other properties
+	 * 
+	 * @return the resolved strings in the same order as the given strings
+	 */
+	public static List<String> resolveAll(PropertyResolver resolver, Collection<String> templates, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+		if(resolver instanceof BatchPropertyResolver) {
+			return ((BatchPropertyResolver)resolver).resolveAll(templates, bootstrapProperties, defaultProperties);
+		}
+		List<String> resolved = new ArrayList<String>(templates.size());
+		for(String template : templates) {
+			resolved.add(resolver.resolveProperties(template, bootstrapProperties, defaultProperties));
+		}
+		return resolved;
+	}
+	
+	/**
+	 * Resolve each value in the given map with the given resolver.  Uses the
+	 * resolver's batch implementation if it has one and otherwise resolves
+	 * each value on its own.
+	 * 
+	 * @param resolver the resolver to use
+	 * @param templates map of strings including ${} enclosed tokens
+	 * @param bootstrapProperties map of base properties to use
+	 * @param defaultProperties map of default properties to use if no value is found given other properties
+	 * 
+	 * @return a map with the same keys, in the same order, and the resolved values
+	 */
+	public static <K> Map<K, String> resolveAll(PropertyResolver resolver, Map<K, String> templates, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+		if(resolver instanceof BatchPropertyResolver) {
+			return ((BatchPropertyResolver)resolver).resolveAll(templates, bootstrapProperties, defaultProperties);
+		}
+		Map<K, String> resolved = new LinkedHashMap<K, String>(templates.size());
+		for(Map.Entry<K, String> entry : templates.entrySet()) {
+			resolved.put(entry.getKey(), resolver.resolveProperties(entry.getValue(), bootstrapProperties, defaultProperties));
+		}
+		return resolved;
+	}
+	
+}
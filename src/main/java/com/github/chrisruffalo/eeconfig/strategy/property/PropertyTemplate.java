@@ -0,0 +1,186 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A string that has been broken down into literal text and ${} enclosed 
+ * property tokens so that it can be resolved without being scanned again.
+ * <br/>
+ * A template always has one more literal than it has tokens.  The
+ * literals and tokens alternate starting and ending with a (possibly
+ * empty) literal.
+ * <br/>
+ * Token names are templates themselves so that nested tokens, like
+ * <code>${db.${env}.url}</code>, can be resolved from the inside out.
+ * A token start without a matching end is treated as literal text.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class PropertyTemplate {
+
+	/**
+	 * Start of a token
+	 */
+	public static final String TOKEN_START = "${";
+	
+	/**
+	 * End of a token
+	 */
+	public static final String TOKEN_END = "}";
+	
+	// shared empty token list
+	private static final PropertyTemplate[] NO_TOKENS = new PropertyTemplate[0];
+	
+	// original template string
+	private final String template;
+	
+	// literal text between tokens
+	private final String[] literals;
+	
+	// token names
+	private final PropertyTemplate[] tokens;
+	
+	private PropertyTemplate(String template, String[] literals, PropertyTemplate[] tokens) {
+		this.template = template;
+		this.literals = literals;
+		this.tokens = tokens;
+	}
+	
+	/**
+	 * Break the given string down into a template
+	 * 
+	 * @param template the string to compile
+	 * @return the compiled template
+	 */
+	public static PropertyTemplate compile(String template) {
+		if(template == null) {
+			throw new IllegalArgumentException("A null template cannot be compiled");
+		}
+		
+		// no tokens means that the whole template is one literal
+		int start = template.indexOf(PropertyTemplate.TOKEN_START);
+		if(start < 0) {
+			return new PropertyTemplate(template, new String[]{template}, PropertyTemplate.NO_TOKENS);
+		}
+		
+		// match each token start with the token end that closes it in a single
+		// pass, nested tokens are closed before the tokens that contain them
+		int length = template.length();
+		int[] ends = new int[length];
+		int[] open = new int[length / 2 + 1];
+		int depth = 0;
+		for(int i = start; i < length; i++) {
+			if(template.startsWith(PropertyTemplate.TOKEN_START, i)) {
+				open[depth++] = i;
+				i += PropertyTemplate.TOKEN_START.length() - 1;
+			} else if(depth > 0 && template.startsWith(PropertyTemplate.TOKEN_END, i)) {
+				ends[open[--depth]] = i;
+			}
+		}
+		
+		return PropertyTemplate.build(template, 0, length, ends);
+	}
+	
+	/**
+	 * Build the template for the given range of the string using the
+	 * matched token positions
+	 * 
+	 * @param template the full string being compiled
+	 * @param from the start of the range
+	 * @param to the end of the range (exclusive)
+	 * @param ends the position of the matching token end for each token start, 0 if unmatched 
+	 * @return the template for the range
+	 */
+	private static PropertyTemplate build(String template, int from, int to, int[] ends) {
+		List<String> literals = new ArrayList<String>();
+		List<PropertyTemplate> tokens = new ArrayList<PropertyTemplate>();
+		
+		int literalStart = from;
+		int position = from;
+		while(position < to) {
+			int end = ends[position];
+			if(end > position && end < to && template.startsWith(PropertyTemplate.TOKEN_START, position)) {
+				literals.add(template.substring(literalStart, position));
+				tokens.add(PropertyTemplate.build(template, position + PropertyTemplate.TOKEN_START.length(), end, ends));
+				position = end + PropertyTemplate.TOKEN_END.length();
+				literalStart = position;
+			} else {
+				position++;
+			}
+		}
+		literals.add(template.substring(literalStart, to));
+		
+		return new PropertyTemplate(template.substring(from, to), literals.toArray(new String[literals.size()]), tokens.toArray(new PropertyTemplate[tokens.size()]));
+	}
+	
+	/**
+	 * The string that was compiled
+	 * 
+	 * @return
+	 */
+	public String getTemplate() {
+		return this.template;
+	}
+	
+	/**
+	 * True if the template contains at least one token
+	 * 
+	 * @return
+	 */
+	public boolean hasTokens() {
+		return this.tokens.length > 0;
+	}
+	
+	/**
+	 * The number of tokens in the template
+	 * 
+	 * @return
+	 */
+	public int getTokenCount() {
+		return this.tokens.length;
+	}
+	
+	/**
+	 * The name of the token at the given index, without the
+	 * surrounding ${}.  Nested tokens in the name are not resolved.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public String getToken(int index) {
+		return this.tokens[index].getTemplate();
+	}
+	
+	/**
+	 * The compiled name of the token at the given index.  The 
+	 * name has tokens of its own when tokens are nested.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public PropertyTemplate getTokenTemplate(int index) {
+		return this.tokens[index];
+	}
+	
+	/**
+	 * The literal text before the token at the given index.  The literal
+	 * at {@link #getTokenCount()} is the text after the last token.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public String getLiteral(int index) {
+		return this.literals[index];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "PropertyTemplate [" + this.template + "]";
+	}
+	
+}
@@ -0,0 +1,104 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded cache of compiled {@link PropertyTemplate}s.  When the
+ * cache is full the oldest templates are dropped first.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class PropertyTemplateCache {
+
+	/**
+	 * Default number of templates to keep
+	 */
+	public static final int DEFAULT_SIZE = 1024;
+	
+	// maximum number of templates
+	private final int maximumSize;
+	
+	// compiled templates
+	private final ConcurrentMap<String, PropertyTemplate> templates;
+	
+	// insertion order, for eviction
+	private final Queue<String> order;
+	
+	/**
+	 * Create a cache with the default size
+	 * 
+	 */
+	public PropertyTemplateCache() {
+		this(PropertyTemplateCache.DEFAULT_SIZE);
+	}
+	
+	/**
+	 * Create a cache that keeps, at most, the given number of templates
+	 * 
+	 * @param maximumSize
+	 */
+	public PropertyTemplateCache(int maximumSize) {
+		if(maximumSize < 1) {
+			throw new IllegalArgumentException("The template cache must be able to hold at least one template");
+		}
+		this.maximumSize = maximumSize;
+		this.templates = new ConcurrentHashMap<String, PropertyTemplate>();
+		this.order = new ConcurrentLinkedQueue<String>();
+	}
+	
+	/**
+	 * Get the compiled form of the given string, compiling 
+	 * and caching it if needed
+	 * 
+	 * @param template the string to compile
+	 * @return the compiled template
+	 */
+	public PropertyTemplate get(String template) {
+		PropertyTemplate compiled = this.templates.get(template);
+		if(compiled != null) {
+			return compiled;
+		}
+		
+		// compile and store
+		compiled = PropertyTemplate.compile(template);
+		PropertyTemplate existing = this.templates.putIfAbsent(template, compiled);
+		if(existing != null) {
+			return existing;
+		}
+		this.order.offer(template);
+		
+		// evict the oldest entries until the cache is within bounds
+		while(this.templates.size() > this.maximumSize) {
+			String eldest = this.order.poll();
+			if(eldest == null) {
+				break;
+			}
+			this.templates.remove(eldest);
+		}
+		
+		return compiled;
+	}
+	
+	/**
+	 * The number of templates currently in the cache
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return this.templates.size();
+	}
+	
+	/**
+	 * Remove all compiled templates
+	 * 
+	 */
+	public void clear() {
+		this.templates.clear();
+		this.order.clear();
+	}
+	
+}
@@ -0,0 +1,188 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An immutable copy of the System Properties that can be read without
+ * going through the synchronized {@link Properties} table.  
+ * <br/>
+ * The current snapshot is replaced when {@link #refresh()} is called or,
+ * automatically, once it is older than the refresh interval.  The interval 
+ * can be set with {@link #setRefreshInterval(long)} or with the System 
+ * Property {@value #REFRESH_INTERVAL_PROPERTY} (in milliseconds).  An interval 
+ * of zero or less turns off automatic refresh.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class SystemPropertySnapshot {
+
+	/**
+	 * System property that sets the automatic refresh interval in milliseconds
+	 */
+	public static final String REFRESH_INTERVAL_PROPERTY = "ee-config.system.refresh.interval";
+	
+	/**
+	 * Default automatic refresh interval in milliseconds
+	 */
+	public static final long DEFAULT_REFRESH_INTERVAL = 1000;
+	
+	// the current snapshot
+	private static final AtomicReference<SystemPropertySnapshot> CURRENT = new AtomicReference<SystemPropertySnapshot>();
+	
+	// only one thread copies the system properties at a time
+	private static final AtomicBoolean REFRESHING = new AtomicBoolean(false);
+	
+	// refresh interval in nanoseconds
+	private static volatile long refreshInterval = TimeUnit.MILLISECONDS.toNanos(SystemPropertySnapshot.intervalFromSystem());
+	
+	// copied values
+	private final Map<String, String> values;
+	
+	// changes only when the values change
+	private final long generation;
+	
+	// when the snapshot was taken, in nanoseconds
+	private final long created;
+	
+	private SystemPropertySnapshot(Map<String, String> values, long generation) {
+		this.values = values;
+		this.generation = generation;
+		this.created = System.nanoTime();
+	}
+	
+	/**
+	 * Get the current snapshot, refreshing it first if it is
+	 * older than the refresh interval
+	 * 
+	 * @return the current snapshot
+	 */
+	public static SystemPropertySnapshot current() {
+		SystemPropertySnapshot snapshot = SystemPropertySnapshot.CURRENT.get();
+		if(snapshot == null) {
+			return SystemPropertySnapshot.refresh();
+		}
+		long interval = SystemPropertySnapshot.refreshInterval;
+		if(interval > 0 && System.nanoTime() - snapshot.created > interval && SystemPropertySnapshot.REFRESHING.compareAndSet(false, true)) {
+			// other threads keep using the old snapshot while this one refreshes
+			try {
+				snapshot = SystemPropertySnapshot.refresh();
+			} finally {
+				SystemPropertySnapshot.REFRESHING.set(false);
+			}
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * Copy the System Properties into a new snapshot and make it current
+	 * 
+	 * @return the new snapshot
+	 */
+	public static SystemPropertySnapshot refresh() {
+		// copy values
+		Properties system = System.getProperties();
+		Map<String, String> values = new HashMap<String, String>();
+		for(String key : system.stringPropertyNames()) {
+			String value = system.getProperty(key);
+			if(value != null) {
+				values.put(key, value);
+			}
+		}
+		
+		// the generation only changes when the values do so that
+		// anything keyed on it stays valid across no-op refreshes
+		SystemPropertySnapshot previous = SystemPropertySnapshot.CURRENT.get();
+		long generation = 0;
+		if(previous != null) {
+			generation = previous.values.equals(values) ? previous.generation : previous.generation + 1;
+		}
+		
+		// swap
+		SystemPropertySnapshot snapshot = new SystemPropertySnapshot(Collections.unmodifiableMap(values), generation);
+		SystemPropertySnapshot.CURRENT.set(snapshot);
+		return snapshot;
+	}
+	
+	/**
+	 * Set the automatic refresh interval
+	 * 
+	 * @param milliseconds the interval, zero or less to turn off automatic refresh
+	 */
+	public static void setRefreshInterval(long milliseconds) {
+		SystemPropertySnapshot.refreshInterval = TimeUnit.MILLISECONDS.toNanos(milliseconds);
+	}
+	
+	/**
+	 * Get the automatic refresh interval
+	 * 
+	 * @return the interval in milliseconds
+	 */
+	public static long getRefreshInterval() {
+		return TimeUnit.NANOSECONDS.toMillis(SystemPropertySnapshot.refreshInterval);
+	}
+	
+	/**
+	 * Does the snapshot have a value for the given key
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public boolean containsKey(String key) {
+		return this.values.containsKey(key);
+	}
+	
+	/**
+	 * Get the value of the given key in the snapshot
+	 * 
+	 * @param key
+	 * @return the value or null if the key has no value
+	 */
+	public String getProperty(String key) {
+		return this.values.get(key);
+	}
+	
+	/**
+	 * The (read-only) values in the snapshot
+	 * 
+	 * @return
+	 */
+	public Map<String, String> getValues() {
+		return this.values;
+	}
+	
+	/**
+	 * A number that is different for each snapshot with different
+	 * values.  Refreshing without any changes in the System Properties
+	 * keeps the same generation.
+	 * 
+	 * @return
+	 */
+	public long getGeneration() {
+		return this.generation;
+	}
+	
+	/**
+	 * Read the refresh interval from the System Properties
+	 * 
+	 * @return the interval in milliseconds
+	 */
+	private static long intervalFromSystem() {
+		String value = System.getProperty(SystemPropertySnapshot.REFRESH_INTERVAL_PROPERTY);
+		if(value == null || value.trim().isEmpty()) {
+			return SystemPropertySnapshot.DEFAULT_REFRESH_INTERVAL;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return SystemPropertySnapshot.DEFAULT_REFRESH_INTERVAL;
+		}
+	}
+	
+}
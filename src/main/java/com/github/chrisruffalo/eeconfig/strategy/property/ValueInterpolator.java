@@ -0,0 +1,258 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves ${} enclosed tokens inside of the values of a loaded configuration.
+ * <br/>
+ * A token that names another key in the same configuration is replaced with the
+ * (resolved) value of that key.  Any other token is handed to the configured
+ * {@link PropertyResolver} along with the bootstrap and default properties.
+ * <br/>
+ * The keys form a dependency graph.  Each key is resolved depth-first, after every
+ * key it depends on, so the graph is walked in topological order and every key is
+ * resolved exactly once no matter how many other values reference it.  Keys that
+ * take part in a cycle keep the value they were loaded with, the cycle is logged 
+ * and available from {@link #getCycles()}.
+ * <br/>
+ * Values can be resolved all at once with {@link #resolveAll()} or one at a time,
+ * as they are needed, with {@link #get(String)}.  Once resolved a value is read 
+ * without locking.
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public final class ValueInterpolator {
+
+	// marks a token that could not be resolved outside of the configuration
+	private static final String UNRESOLVED = new String("unresolved");
+	
+	private final Logger logger;
+	
+	private final Map<String, String> values;
+	
+	private final ConcurrentMap<String, String> resolved;
+	
+	private final PropertyResolver resolver;
+	
+	private final Map<Object, Object> bootstrapProperties;
+	
+	private final Map<Object, Object> defaultProperties;
+	
+	// the following are only used while holding the lock on this instance
+	
+	private final Map<String, String> external;
+	
+	private final List<String> stack;
+	
+	private final Set<String> cycles;
+	
+	/**
+	 * Create an interpolator over the given loaded values
+	 * 
+	 * @param values the values as they were loaded
+	 * @param resolver resolver used for tokens that are not keys in the values, may be null
+	 * @param bootstrapProperties bootstrap properties for the resolver
+	 * @param defaultProperties default properties for the resolver
+	 */
+	public ValueInterpolator(Map<?, ?> values, PropertyResolver resolver, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+		this.logger = LoggerFactory.getLogger(this.getClass());
+		
+		this.values = new LinkedHashMap<String, String>();
+		if(values != null) {
+			for(Map.Entry<?, ?> entry : values.entrySet()) {
+				if(entry.getKey() == null || entry.getValue() == null) {
+					continue;
+				}
+				this.values.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+			}
+		}
+		
+		this.resolved = new ConcurrentHashMap<String, String>(this.values.size());
+		this.resolver = resolver;
+		this.bootstrapProperties = bootstrapProperties != null ? bootstrapProperties : Collections.emptyMap();
+		this.defaultProperties = defaultProperties != null ? defaultProperties : Collections.emptyMap();
+		
+		this.external = new HashMap<String, String>();
+		this.stack = new ArrayList<String>();
+		this.cycles = new LinkedHashSet<String>();
+	}
+	
+	/**
+	 * If the key is one of the loaded values
+	 * 
+	 * @param key to look for
+	 * @return true if the key was loaded, false otherwise
+	 */
+	public boolean containsKey(String key) {
+		return this.values.containsKey(key);
+	}
+	
+	/**
+	 * The resolved value for the given key, resolving it (and anything it depends on) 
+	 * if this is the first time the key has been asked for.
+	 * 
+	 * @param key to look up
+	 * @return the resolved value or null if the key was not loaded
+	 */
+	public String get(String key) {
+		if(key == null) {
+			return null;
+		}
+		String value = this.resolved.get(key);
+		if(value != null || !this.values.containsKey(key)) {
+			return value;
+		}
+		synchronized(this) {
+			return this.resolveKey(key);
+		}
+	}
+	
+	/**
+	 * Resolve every value
+	 * 
+	 * @return read-only map of the resolved values, in the order they were loaded
+	 */
+	public Map<String, String> resolveAll() {
+		Map<String, String> output = new LinkedHashMap<String, String>(this.values.size());
+		synchronized(this) {
+			for(String key : this.values.keySet()) {
+				output.put(key, this.resolveKey(key));
+			}
+		}
+		return Collections.unmodifiableMap(output);
+	}
+	
+	/**
+	 * The keys that have been found to be part of a cycle so far
+	 * 
+	 * @return read-only copy of the keys
+	 */
+	public Set<String> getCycles() {
+		synchronized(this) {
+			return Collections.unmodifiableSet(new LinkedHashSet<String>(this.cycles));
+		}
+	}
+	
+	/**
+	 * Resolve a single key, must be called while holding the lock
+	 * 
+	 * @param key to resolve
+	 * @return the resolved value or null if the key is already being resolved (a cycle)
+	 */
+	private String resolveKey(String key) {
+		String value = this.resolved.get(key);
+		if(value != null) {
+			return value;
+		}
+		
+		// if the key is already being resolved then every key from that
+		// point on the stack is part of a cycle
+		int start = this.stack.indexOf(key);
+		if(start >= 0) {
+			List<String> cycle = new ArrayList<String>(this.stack.subList(start, this.stack.size()));
+			this.cycles.addAll(cycle);
+			cycle.add(key);
+			this.logger.warn("Cyclic reference found while interpolating configuration values: {}", cycle);
+			return null;
+		}
+		
+		String raw = this.values.get(key);
+		this.stack.add(key);
+		try {
+			PropertyTemplate template = PropertyTemplate.compile(raw);
+			if(template.hasTokens()) {
+				StringBuilder output = new StringBuilder(raw.length());
+				this.interpolate(template, output);
+				value = output.toString();
+			} else {
+				value = raw;
+			}
+		} finally {
+			this.stack.remove(this.stack.size() - 1);
+		}
+		
+		// keys in a cycle keep their loaded value so that the result
+		// does not depend on which key was asked for first
+		if(this.cycles.contains(key)) {
+			value = raw;
+		}
+		
+		this.resolved.put(key, value);
+		return value;
+	}
+	
+	/**
+	 * Write the resolved form of the template to the output
+	 * 
+	 * @param template to resolve
+	 * @param output to write to
+	 */
+	private void interpolate(PropertyTemplate template, StringBuilder output) {
+		int tokens = template.getTokenCount();
+		for(int index = 0; index < tokens; index++) {
+			output.append(template.getLiteral(index));
+			
+			// resolve nested tokens in the name first
+			PropertyTemplate nameTemplate = template.getTokenTemplate(index);
+			String name;
+			if(nameTemplate.hasTokens()) {
+				StringBuilder nameOutput = new StringBuilder();
+				this.interpolate(nameTemplate, nameOutput);
+				name = nameOutput.toString();
+			} else {
+				name = template.getToken(index);
+			}
+			
+			// other keys in this configuration come first
+			String value;
+			if(this.values.containsKey(name)) {
+				value = this.resolveKey(name);
+			} else {
+				value = this.resolveExternal(name);
+			}
+			
+			if(value != null) {
+				output.append(value);
+			} else {
+				output.append(PropertyTemplate.TOKEN_START).append(name).append(PropertyTemplate.TOKEN_END);
+			}
+		}
+		output.append(template.getLiteral(tokens));
+	}
+	
+	/**
+	 * Resolve a token that is not a key in this configuration with
+	 * the configured resolver, must be called while holding the lock
+	 * 
+	 * @param name of the token
+	 * @return the value or null if the resolver does not know the token
+	 */
+	private String resolveExternal(String name) {
+		String value = this.external.get(name);
+		if(value == null) {
+			value = ValueInterpolator.UNRESOLVED;
+			if(this.resolver != null) {
+				String token = PropertyTemplate.TOKEN_START + name + PropertyTemplate.TOKEN_END;
+				String result = this.resolver.resolveProperties(token, this.bootstrapProperties, this.defaultProperties);
+				if(result != null && !token.equals(result)) {
+					value = result;
+				}
+			}
+			this.external.put(name, value);
+		}
+		return value == ValueInterpolator.UNRESOLVED ? null : value;
+	}
+}
@@ -1,7 +1,10 @@
 package com.github.chrisruffalo.eeconfig.wrapper;
 
 import com.github.chrisruffalo.eeconfig.annotations.Bootstrap;
+import com.github.chrisruffalo.eeconfig.annotations.Interpolation;
 import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.strategy.executor.DefaultSourceExecutor;
+import com.github.chrisruffalo.eeconfig.strategy.executor.SourceExecutor;
 
 /**
  * Compatibility wrapper for a {@link Bootstrap} annotation
@@ -46,5 +49,53 @@ public class BootstrapAnnotationWrapper implements ConfigurationWrapper {
 	public ResolverWrapper resolver() {
 		return new BootstrapResolverAnnotationWrapper(this.delegate.resolver());
 	}
+	
+	/**
+	 * Bootstrap values are not interpolated
+	 * 
+	 * @return {@link Interpolation#NONE}
+	 */
+	@Override
+	public Interpolation interpolate() {
+		return Interpolation.NONE;
+	}
+	
+	/**
+	 * Bootstrap files are read like {@link java.util.Properties#load(java.io.InputStream)}
+	 * 
+	 * @return ISO-8859-1
+	 */
+	@Override
+	public String encoding() {
+		return "ISO-8859-1";
+	}
+	
+	/**
+	 * Bootstrap sources are loaded one after the other
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean parallel() {
+		return false;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<? extends SourceExecutor> executor() {
+		return DefaultSourceExecutor.class;
+	}
+	
+	/**
+	 * Bootstrap configuration is only loaded once
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean reload() {
+		return false;
+	}
 
 }
@@ -1,7 +1,9 @@
 package com.github.chrisruffalo.eeconfig.wrapper;
 
 import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+import com.github.chrisruffalo.eeconfig.annotations.Interpolation;
 import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.strategy.executor.SourceExecutor;
 
 /**
  * Compatibility wrapper for a {@link Configuration} annotation
@@ -46,5 +48,45 @@ public class ConfigurationAnnotationWrapper implements ConfigurationWrapper {
 	public ResolverWrapper resolver() {
 		return new ResolverAnnotationWrapper(this.delegate.resolver());
 	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Interpolation interpolate() {
+		return this.delegate.interpolate();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String encoding() {
+		return this.delegate.encoding();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean parallel() {
+		return this.delegate.parallel();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<? extends SourceExecutor> executor() {
+		return this.delegate.executor();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean reload() {
+		return this.delegate.reload();
+	}
 
 }
@@ -2,7 +2,9 @@ package com.github.chrisruffalo.eeconfig.wrapper;
 
 import com.github.chrisruffalo.eeconfig.annotations.Bootstrap;
 import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+import com.github.chrisruffalo.eeconfig.annotations.Interpolation;
 import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.strategy.executor.SourceExecutor;
 
 /**
  * Wraps {@link Bootstrap} and {@link Configuration} elements
@@ -31,4 +33,34 @@ public interface ConfigurationWrapper {
 	 */
 	ResolverWrapper resolver();
 	
+	/**
+	 * Return the interpolate() from the configuration-style element
+	 * 
+	 */
+	Interpolation interpolate();
+	
+	/**
+	 * Return the encoding() from the configuration-style element
+	 * 
+	 */
+	String encoding();
+	
+	/**
+	 * Return the parallel() from the configuration-style element
+	 * 
+	 */
+	boolean parallel();
+	
+	/**
+	 * Return the executor() from the configuration-style element
+	 * 
+	 */
+	Class<? extends SourceExecutor> executor();
+	
+	/**
+	 * Return the reload() from the configuration-style element
+	 * 
+	 */
+	boolean reload();
+	
 }
@@ -0,0 +1,245 @@
+package com.github.chrisruffalo.eeconfig.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.annotations.Bootstrap;
+import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+import com.github.chrisruffalo.eeconfig.annotations.DefaultProperty;
+import com.github.chrisruffalo.eeconfig.annotations.Resolver;
+import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.impl.FileSource;
+import com.github.chrisruffalo.eeconfig.wrapper.ResolverAnnotationWrapper;
+import com.github.chrisruffalo.eeconfig.wrapper.WrapperFactory;
+
+/**
+ * Test the keys, fingerprints, and storage used to share
+ * produced configurations
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ConfigurationCacheTest {
+
+	@Configuration(sources={@Source("resource:properties/priority1.properties"), @Source("resource:properties/priority2.properties")}, merge=true)
+	private Object first;
+	
+	@Configuration(sources={@Source("resource:properties/priority1.properties"), @Source("resource:properties/priority2.properties")}, merge=true)
+	private Object same;
+	
+	@Configuration(sources={@Source("resource:properties/priority1.properties"), @Source("resource:properties/priority2.properties")})
+	private Object noMerge;
+	
+	@Configuration(sources={@Source("resource:properties/priority1.properties")})
+	private Object configuration;
+	
+	@Bootstrap(sources={@Source("resource:properties/priority1.properties")})
+	private Object bootstrap;
+	
+	@Resolver(properties=@DefaultProperty(key="env", value="test"))
+	private Object resolver;
+	
+	@Resolver(properties=@DefaultProperty(key="env", value="test"))
+	private Object sameResolver;
+	
+	@Resolver
+	private Object defaultResolver;
+	
+	@Test
+	public void testKeyNormalization() throws Exception {
+		ConfigurationKey first = this.key(Properties.class, "first");
+		
+		// equivalent annotations on different elements are equal
+		Assert.assertEquals(first, this.key(Properties.class, "same"));
+		Assert.assertEquals(first.hashCode(), this.key(Properties.class, "same").hashCode());
+		
+		// different merge flag, different key
+		Assert.assertFalse(first.equals(this.key(Properties.class, "noMerge")));
+		
+		// different produced type, different key
+		Assert.assertFalse(first.equals(this.key(String.class, "first")));
+		
+		// a bootstrap and a configuration with the same content load the same thing
+		Assert.assertEquals(this.key(Properties.class, "configuration"), this.key(Properties.class, "bootstrap"));
+	}
+	
+	@Test
+	public void testFingerprintChangesWithFile() throws IOException {
+		File file = File.createTempFile("ee-config-cache", ".properties");
+		file.deleteOnExit();
+		this.write(file, "key=value");
+		
+		List<ISource> sources = Collections.<ISource>singletonList(new FileSource(file));
+		SourceFingerprint before = SourceFingerprint.of(sources);
+		Assert.assertEquals(before, SourceFingerprint.of(sources));
+		
+		// change the size of the file
+		this.write(file, "key=a different value");
+		Assert.assertFalse(before.equals(SourceFingerprint.of(sources)));
+	}
+	
+	@Test
+	public void testHitsAndMisses() throws Exception {
+		ConfigurationCache cache = new ConfigurationCache();
+		ConfigurationKey key = this.key(Properties.class, "first");
+		SourceFingerprint fingerprint = SourceFingerprint.of(Collections.<ISource>emptyList());
+		
+		Assert.assertNull(cache.get(key, fingerprint, Properties.class));
+		Assert.assertEquals(1, cache.getMisses());
+		
+		Properties value = new Properties();
+		cache.put(key, fingerprint, value);
+		Assert.assertSame(value, cache.get(key, fingerprint, Properties.class));
+		Assert.assertSame(value, cache.get(this.key(Properties.class, "same"), fingerprint, Properties.class));
+		Assert.assertEquals(2, cache.getHits());
+		
+		// stale fingerprint is a miss
+		File file = File.createTempFile("ee-config-cache", ".properties");
+		file.deleteOnExit();
+		SourceFingerprint changed = SourceFingerprint.of(Collections.<ISource>singletonList(new FileSource(file)));
+		Assert.assertNull(cache.get(key, changed, Properties.class));
+		Assert.assertEquals(2, cache.getMisses());
+		
+		// cleared cache is a miss
+		cache.clear();
+		Assert.assertNull(cache.get(key, fingerprint, Properties.class));
+		Assert.assertEquals(3, cache.getMisses());
+	}
+	
+	@Test
+	public void testResolvedValueKeys() throws Exception {
+		ConfigurationKey first = this.key(String.class, "resolver", "${env}.name");
+		
+		// same values with equivalent resolvers are equal
+		Assert.assertEquals(first, this.key(String.class, "sameResolver", "${env}.name"));
+		
+		// different values or resolver settings are not
+		Assert.assertFalse(first.equals(this.key(String.class, "resolver", "${env}.other")));
+		Assert.assertFalse(first.equals(this.key(String.class, "defaultResolver", "${env}.name")));
+		Assert.assertFalse(first.equals(this.key(String.class, "resolver", "${env}.name", null)));
+	}
+	
+	@Test
+	public void testSingleFlight() throws Exception {
+		final ConfigurationCache cache = new ConfigurationCache();
+		final ConfigurationKey key = this.key(Properties.class, "first");
+		final AtomicInteger loads = new AtomicInteger(0);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Callable<Properties> loader = new Callable<Properties>() {
+			@Override
+			public Properties call() throws Exception {
+				loads.incrementAndGet();
+				started.countDown();
+				release.await();
+				return new Properties();
+			}
+		};
+		
+		// one thread loads, the others join it
+		int threads = 8;
+		final Properties[] results = new Properties[threads];
+		List<Thread> running = new ArrayList<Thread>();
+		for(int i = 0; i < threads; i++) {
+			final int index = i;
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					results[index] = cache.load(key, loader);
+				}
+			};
+			thread.start();
+			running.add(thread);
+			if(i == 0) {
+				started.await();
+			}
+		}
+		long deadline = System.currentTimeMillis() + 10000;
+		while(cache.getJoins() < threads - 1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		release.countDown();
+		for(Thread thread : running) {
+			thread.join();
+		}
+		
+		Assert.assertEquals(1, loads.get());
+		Assert.assertEquals(threads - 1, cache.getJoins());
+		for(Properties result : results) {
+			Assert.assertSame(results[0], result);
+		}
+		
+		// the next load runs again
+		Assert.assertNotSame(results[0], cache.load(key, loader));
+		Assert.assertEquals(2, loads.get());
+	}
+	
+	@Test
+	public void testSingleFlightFailureAndReentry() throws Exception {
+		final ConfigurationCache cache = new ConfigurationCache();
+		final ConfigurationKey key = this.key(Properties.class, "first");
+		
+		// failures are thrown to the caller
+		try {
+			cache.load(key, new Callable<Properties>() {
+				@Override
+				public Properties call() {
+					throw new IllegalArgumentException("bad");
+				}
+			});
+			Assert.fail("the load should fail");
+		} catch (IllegalArgumentException e) {
+			Assert.assertEquals("bad", e.getMessage());
+		}
+		
+		// the same key loaded from inside its own load does not wait on itself
+		String value = cache.load(key, new Callable<String>() {
+			@Override
+			public String call() {
+				return cache.load(key, new Callable<String>() {
+					@Override
+					public String call() {
+						return "inner";
+					}
+				});
+			}
+		});
+		Assert.assertEquals("inner", value);
+		Assert.assertEquals(0, cache.getJoins());
+	}
+	
+	private ConfigurationKey key(Class<?> type, String field, String... values) throws NoSuchFieldException {
+		Resolver annotation = this.getClass().getDeclaredField(field).getAnnotation(Resolver.class);
+		return ConfigurationKey.of(type, new ResolverAnnotationWrapper(annotation), values);
+	}
+	
+	private ConfigurationKey key(Class<?> type, String field) throws NoSuchFieldException {
+		Object annotation = this.getClass().getDeclaredField(field).getAnnotation(Configuration.class);
+		if(annotation == null) {
+			annotation = this.getClass().getDeclaredField(field).getAnnotation(Bootstrap.class);
+		}
+		return ConfigurationKey.of(type, WrapperFactory.wrap(annotation));
+	}
+	
+	private void write(File file, String content) throws IOException {
+		OutputStream output = new FileOutputStream(file);
+		try {
+			output.write(content.getBytes("ISO-8859-1"));
+		} finally {
+			output.close();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the typed accessors of {@link ConfigMap}
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ConfigMapTest {
+
+	private ConfigMap create() {
+		Properties properties = new Properties();
+		properties.setProperty("int", " 42 ");
+		properties.setProperty("big", "9000000000");
+		properties.setProperty("negative", "-7");
+		properties.setProperty("text", "hello");
+		properties.setProperty("yes", "Yes");
+		properties.setProperty("off", "off");
+		properties.setProperty("seconds", "30s");
+		properties.setProperty("minutes", "2 m");
+		properties.setProperty("plain", "1500");
+		properties.setProperty("bad", "10 parsecs");
+		return ConfigMap.of(properties);
+	}
+	
+	@Test
+	public void testNumbers() {
+		ConfigMap map = this.create();
+		Assert.assertEquals(42, map.getInt("int", 0));
+		Assert.assertEquals(-7, map.getInt("negative", 0));
+		Assert.assertEquals(-1, map.getInt("big", -1));
+		Assert.assertEquals(9000000000L, map.getLong("big", -1));
+		Assert.assertEquals(-1, map.getInt("text", -1));
+		Assert.assertEquals(-1, map.getLong("missing", -1));
+		// cached value is the same the second time
+		Assert.assertEquals(42, map.getInt("int", 0));
+	}
+	
+	@Test
+	public void testBooleans() {
+		ConfigMap map = this.create();
+		Assert.assertTrue(map.getBoolean("yes", false));
+		Assert.assertFalse(map.getBoolean("off", true));
+		Assert.assertTrue(map.getBoolean("text", true));
+		Assert.assertFalse(map.getBoolean("missing", false));
+	}
+	
+	@Test
+	public void testDurations() {
+		ConfigMap map = this.create();
+		Assert.assertEquals(30000, map.getDuration("seconds", TimeUnit.MILLISECONDS, -1));
+		Assert.assertEquals(120, map.getDuration("minutes", TimeUnit.SECONDS, -1));
+		Assert.assertEquals(1, map.getDuration("plain", TimeUnit.SECONDS, -1));
+		Assert.assertEquals(-1, map.getDuration("bad", TimeUnit.SECONDS, -1));
+		Assert.assertEquals(-1, map.getDuration("text", TimeUnit.SECONDS, -1));
+	}
+	
+	@Test
+	public void testView() {
+		ConfigMap map = this.create();
+		Assert.assertEquals(10, map.size());
+		Assert.assertTrue(map.containsKey("text"));
+		Assert.assertEquals("hello", map.get("text"));
+		Assert.assertEquals("default", map.get("missing", "default"));
+		Assert.assertEquals("hello", map.asProperties().getProperty("text"));
+		Assert.assertSame(map.asProperties(), map.asProperties());
+	}
+	
+	@Test
+	public void testSharesCompactTable() {
+		CompactPropertyTable table = new CompactPropertyTable.Builder().put("key", "value", 0).build();
+		ConfigMap map = ConfigMap.of(new TableProperties(table));
+		Assert.assertSame(table, ((TableProperties)map.asProperties()).getTable());
+	}
+}
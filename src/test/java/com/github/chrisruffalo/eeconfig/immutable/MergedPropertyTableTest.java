@@ -0,0 +1,92 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that replacing a layer of a merged table gives the same
+ * result as merging every layer again
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class MergedPropertyTableTest {
+
+	@Test
+	public void testMerge() {
+		MergedPropertyTable merged = MergedPropertyTable.of(Arrays.asList(this.table("a=override", "c=three"), this.table("a=base", "b=two")));
+		Assert.assertEquals("override", merged.get("a"));
+		Assert.assertEquals("two", merged.get("b"));
+		Assert.assertEquals("three", merged.get("c"));
+		Assert.assertNull(merged.get("d"));
+		Assert.assertEquals(3, merged.size());
+	}
+	
+	@Test
+	public void testReplace() {
+		// a big base and a small override
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder();
+		for(int i = 0; i < 1000; i++) {
+			builder.put("key." + i, "base " + i, 0);
+		}
+		CompactPropertyTable base = builder.build();
+		CompactPropertyTable override = this.table("key.1=override", "key.2=override", "only=override");
+		MergedPropertyTable merged = MergedPropertyTable.of(Arrays.asList(override, base));
+		
+		// the override changes, one key is removed and one is added
+		CompactPropertyTable changed = this.table("key.1=changed", "added=changed");
+		MergedPropertyTable replaced = merged.replace(0, changed);
+		this.assertSame(MergedPropertyTable.of(Arrays.asList(changed, base)), replaced);
+		Assert.assertEquals("changed", replaced.get("key.1"));
+		Assert.assertEquals("base 2", replaced.get("key.2"));
+		Assert.assertNull(replaced.get("only"));
+		Assert.assertFalse(replaced.containsKey("only"));
+		Assert.assertEquals(1001, replaced.size());
+		
+		// the base is shared and the original is unchanged
+		Assert.assertSame(base, replaced.getLayers().get(1));
+		Assert.assertEquals("override", merged.get("only"));
+		Assert.assertEquals(1001, merged.size());
+		
+		// replacing again keeps the earlier changes
+		CompactPropertyTable again = this.table("key.3=again");
+		MergedPropertyTable twice = replaced.replace(0, again);
+		this.assertSame(MergedPropertyTable.of(Arrays.asList(again, base)), twice);
+		
+		// replacing the base folds the patch
+		CompactPropertyTable newBase = this.table("key.3=base", "key.4=base");
+		this.assertSame(MergedPropertyTable.of(Arrays.asList(again, newBase)), twice.replace(1, newBase));
+	}
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testReplaceMissingLayer() {
+		MergedPropertyTable.of(Arrays.asList(this.table("a=b"))).replace(1, this.table("a=c"));
+	}
+	
+	private void assertSame(PropertyTable expected, PropertyTable actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		Set<String> keys = new HashSet<String>();
+		Iterator<String> iterator = actual.keys();
+		while(iterator.hasNext()) {
+			String key = iterator.next();
+			Assert.assertTrue(keys.add(key));
+			Assert.assertEquals(expected.get(key), actual.get(key));
+		}
+		Assert.assertEquals(expected.size(), keys.size());
+	}
+	
+	private CompactPropertyTable table(String... entries) {
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder();
+		for(String entry : entries) {
+			int split = entry.indexOf('=');
+			builder.put(entry.substring(0, split), entry.substring(split + 1), 0);
+		}
+		return builder.build();
+	}
+	
+}
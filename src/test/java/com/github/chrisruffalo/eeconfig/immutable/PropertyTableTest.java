@@ -0,0 +1,137 @@
+package com.github.chrisruffalo.eeconfig.immutable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.source.impl.MappedFileSource;
+
+/**
+ * Test the read-only tables that back injected properties
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class PropertyTableTest {
+
+	@Test
+	public void testMappedTable() throws IOException {
+		StringBuilder content = new StringBuilder();
+		for(int i = 0; i < 1000; i++) {
+			content.append("key.").append(i).append('=').append("value ").append(i).append('\n');
+		}
+		content.append("key.7=replaced\n");
+		
+		MappedFileSource source = new MappedFileSource(this.file(content.toString()));
+		MappedPropertyTable table = MappedPropertyTable.index(source.buffer(), StandardCharsets.ISO_8859_1);
+		
+		Assert.assertEquals(1000, table.size());
+		Assert.assertEquals("value 999", table.get("key.999"));
+		Assert.assertEquals("replaced", table.get("key.7"));
+		Assert.assertTrue(table.containsKey("key.0"));
+		Assert.assertFalse(table.containsKey("key.1000"));
+		Assert.assertNull(table.get("missing"));
+		Assert.assertNull(table.get(null));
+		
+		Set<String> keys = new HashSet<String>();
+		Iterator<String> iterator = table.keys();
+		while(iterator.hasNext()) {
+			keys.add(iterator.next());
+		}
+		Assert.assertEquals(1000, keys.size());
+	}
+	
+	@Test
+	public void testLayeredTable() {
+		PropertyTable high = this.table("shared=high\none=1\n");
+		PropertyTable low = this.table("shared=low\ntwo=2\n");
+		LayeredPropertyTable layered = new LayeredPropertyTable(Arrays.asList(high, low));
+		
+		Assert.assertEquals("high", layered.get("shared"));
+		Assert.assertEquals("1", layered.get("one"));
+		Assert.assertEquals("2", layered.get("two"));
+		Assert.assertEquals(3, layered.size());
+		Assert.assertTrue(layered.containsKey("two"));
+	}
+	
+	@Test
+	public void testPropertiesView() {
+		TableProperties properties = new TableProperties(this.table("one=1\ntwo=2\n"));
+		
+		Properties expected = new Properties();
+		expected.setProperty("one", "1");
+		expected.setProperty("two", "2");
+		
+		Assert.assertEquals(expected, properties);
+		Assert.assertEquals(properties, expected);
+		Assert.assertEquals(expected.hashCode(), properties.hashCode());
+		Assert.assertEquals("1", properties.getProperty("one"));
+		Assert.assertEquals("fallback", properties.getProperty("three", "fallback"));
+		Assert.assertTrue(properties.containsValue("2"));
+		Assert.assertEquals(expected.stringPropertyNames(), properties.stringPropertyNames());
+		Assert.assertEquals(2, properties.entrySet().size());
+		Assert.assertEquals(expected, properties.clone());
+		
+		// methods added in Java 8 read the table too
+		final Properties visited = new Properties();
+		properties.forEach(new BiConsumer<Object, Object>() {
+			@Override
+			public void accept(Object key, Object value) {
+				visited.put(key, value);
+			}
+		});
+		Assert.assertEquals(expected, visited);
+		Assert.assertEquals("2", properties.getOrDefault("two", "fallback"));
+	}
+	
+	@Test
+	public void testCopiedTable() {
+		ImmutableProperties properties = ImmutableProperties.of(this.table("one=1\ntwo=2\n"));
+		Assert.assertFalse(properties instanceof TableProperties);
+		
+		// the entries are in the inherited table
+		final Properties visited = new Properties();
+		properties.forEach(new BiConsumer<Object, Object>() {
+			@Override
+			public void accept(Object key, Object value) {
+				visited.put(key, value);
+			}
+		});
+		Assert.assertEquals(2, visited.size());
+		Assert.assertEquals("1", visited.get("one"));
+		Assert.assertEquals(properties, visited);
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void testPropertiesViewReadOnly() {
+		new TableProperties(this.table("one=1")).setProperty("one", "2");
+	}
+	
+	private PropertyTable table(String content) {
+		return MappedPropertyTable.index(ByteBuffer.wrap(content.getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.ISO_8859_1);
+	}
+	
+	private File file(String content) throws IOException {
+		File file = File.createTempFile("mapped-table", ".properties");
+		file.deleteOnExit();
+		OutputStream output = new FileOutputStream(file);
+		try {
+			output.write(content.getBytes(StandardCharsets.ISO_8859_1));
+		} finally {
+			output.close();
+		}
+		return file;
+	}
+}
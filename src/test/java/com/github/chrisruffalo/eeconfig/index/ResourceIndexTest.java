@@ -0,0 +1,134 @@
+package com.github.chrisruffalo.eeconfig.index;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test indexing configuration resources in directories and archives
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ResourceIndexTest {
+
+	@Test
+	public void testIndex() throws IOException {
+		byte[] directoryContent = "from=directory\n".getBytes(StandardCharsets.ISO_8859_1);
+		byte[] archiveContent = "from=archive\n".getBytes(StandardCharsets.ISO_8859_1);
+		
+		// a directory with a nested resource and a resource outside of the prefix
+		File directory = Files.createTempDirectory("ee-config-index").toFile();
+		File nested = new File(directory, "META-INF/ee-config/nested");
+		Assert.assertTrue(nested.mkdirs());
+		Files.write(new File(directory, "META-INF/ee-config/app.properties").toPath(), directoryContent);
+		Files.write(new File(nested, "deep.properties").toPath(), directoryContent);
+		Files.write(new File(directory, "other.properties").toPath(), directoryContent);
+		
+		// an archive with the same name
+		File jar = File.createTempFile("ee-config-index", ".jar");
+		jar.deleteOnExit();
+		JarOutputStream output = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			output.putNextEntry(new ZipEntry("META-INF/ee-config/"));
+			output.closeEntry();
+			output.putNextEntry(new ZipEntry("META-INF/ee-config/app.properties"));
+			output.write(archiveContent);
+			output.closeEntry();
+		} finally {
+			output.close();
+		}
+		
+		URLClassLoader loader = new URLClassLoader(new URL[]{directory.toURI().toURL(), jar.toURI().toURL()}, null);
+		try {
+			ResourceIndex index = ResourceIndex.build(loader, Collections.singleton(ResourceIndex.DEFAULT_PREFIX));
+			Assert.assertTrue(index.isComplete());
+			Assert.assertEquals(2, index.size());
+			Assert.assertNull(index.get("other.properties"));
+			Assert.assertNotNull(index.get("META-INF/ee-config/nested/deep.properties"));
+			
+			// class loader order
+			List<IndexedResource> all = index.getAll("META-INF/ee-config/app.properties");
+			Assert.assertEquals(2, all.size());
+			Assert.assertSame(all.get(0), index.get("META-INF/ee-config/app.properties"));
+			Assert.assertEquals(loader.getResource("META-INF/ee-config/app.properties"), all.get(0).getUrl());
+			Assert.assertEquals(directoryContent.length, all.get(0).getSize());
+			Assert.assertEquals(this.crc(directoryContent), all.get(0).getHash());
+			Assert.assertEquals(archiveContent.length, all.get(1).getSize());
+			Assert.assertEquals(this.crc(archiveContent), all.get(1).getHash());
+			Assert.assertTrue(all.get(1).getUrl().toExternalForm().startsWith("jar:"));
+			Assert.assertTrue(index.getAll("missing").isEmpty());
+		} finally {
+			loader.close();
+		}
+	}
+	
+	@Test
+	public void testIncomplete() throws IOException {
+		// a root that can't be indexed, like a jboss vfs root
+		final URL root = new URL("http://localhost/META-INF/ee-config");
+		ClassLoader loader = new ClassLoader(null) {
+			@Override
+			public Enumeration<URL> getResources(String name) throws IOException {
+				return Collections.enumeration(Collections.singletonList(root));
+			}
+		};
+		ResourceIndex index = ResourceIndex.build(loader, Collections.singleton(ResourceIndex.DEFAULT_PREFIX));
+		Assert.assertFalse(index.isComplete());
+		Assert.assertFalse(ResourceIndex.empty().isComplete());
+	}
+	
+	@Test
+	public void testIndexPerClassLoader() throws IOException {
+		URLClassLoader first = new URLClassLoader(new URL[0], null);
+		URLClassLoader second = new URLClassLoader(new URL[0], null);
+		try {
+			ResourceIndexExtension extension = new ResourceIndexExtension();
+			ResourceIndex index = extension.getIndex(first);
+			Assert.assertSame(index, extension.getIndex(first));
+			Assert.assertFalse(index == extension.getIndex(second));
+		} finally {
+			first.close();
+			second.close();
+		}
+	}
+	
+	@Test
+	public void testPrefixes() {
+		String previous = System.getProperty(ResourceIndex.PREFIXES_PROPERTY);
+		System.setProperty(ResourceIndex.PREFIXES_PROPERTY, "config, /more/ ,,");
+		try {
+			Set<String> prefixes = ResourceIndex.prefixes();
+			Assert.assertEquals(3, prefixes.size());
+			Assert.assertTrue(prefixes.contains(ResourceIndex.DEFAULT_PREFIX));
+			Assert.assertTrue(prefixes.contains("config/"));
+			Assert.assertTrue(prefixes.contains("more/"));
+		} finally {
+			if(previous == null) {
+				System.clearProperty(ResourceIndex.PREFIXES_PROPERTY);
+			} else {
+				System.setProperty(ResourceIndex.PREFIXES_PROPERTY, previous);
+			}
+		}
+	}
+	
+	private long crc(byte[] bytes) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,70 @@
+package com.github.chrisruffalo.eeconfig.mime;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.apache.commons.configuration.AbstractConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.source.impl.BufferedSource;
+import com.github.chrisruffalo.eeconfig.source.impl.FileSource;
+
+/**
+ * Test detecting and parsing formats through the registry
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class FormatRegistryTest {
+
+	@Test
+	public void testMagicWithoutExtension() throws IOException {
+		Assert.assertEquals(SupportedType.XML, FormatRegistry.detect(this.source("\uFEFF  <?xml version=\"1.0\"?><config/>", ".cfg")));
+		Assert.assertEquals(SupportedType.JSON, FormatRegistry.detect(this.source("\n{ \"one\": 1 }", ".cfg")));
+		Assert.assertEquals(SupportedType.YAML, FormatRegistry.detect(this.source("---\none: 1", ".cfg")));
+		Assert.assertEquals(SupportedType.TEXT, FormatRegistry.detect(this.source("one=1", ".cfg")));
+		Assert.assertEquals(SupportedType.TEXT, FormatRegistry.detect(this.source("   ", ".cfg")));
+		
+		// buffered sources are peeked without another read
+		Assert.assertEquals(SupportedType.XML, FormatRegistry.detect(BufferedSource.of(this.source("<?xml version=\"1.0\"?><config/>", ".cfg"))));
+	}
+	
+	@Test
+	public void testExtensionFirst() throws IOException {
+		// the extension decides, the contents are not read
+		Assert.assertEquals(SupportedType.YAML, FormatRegistry.detect(this.source("{ \"one\": 1 }", ".yml")));
+		Assert.assertEquals(SupportedType.TEXT, FormatRegistry.detect(this.source("<?xml version=\"1.0\"?><config/>", ".properties")));
+		Assert.assertEquals(SupportedType.TEXT, FormatRegistry.detect(this.source("{ \"one\": 1 }", ".txt")));
+		Assert.assertEquals(SupportedType.TEXT, FormatRegistry.detect(this.source("---\none: 1", ".CONF")));
+		
+		FormatRegistry.registerExtension("registrytest", SupportedType.JSON);
+		Assert.assertEquals(SupportedType.JSON, FormatRegistry.detect(this.source("one=1", ".registrytest")));
+	}
+	
+	@Test
+	public void testParsers() throws IOException {
+		// no yaml parser for properties, falls back to text
+		Properties properties = FormatRegistry.getParser(SupportedType.YAML, Properties.class).parse(new ByteArrayInputStream("one=1".getBytes("ISO-8859-1")));
+		Assert.assertEquals("1", properties.getProperty("one"));
+		
+		Assert.assertNotNull(FormatRegistry.getParser(SupportedType.XML, AbstractConfiguration.class));
+		Assert.assertNull(FormatRegistry.getParser(SupportedType.TEXT, String.class));
+	}
+	
+	private FileSource source(String content, String suffix) throws IOException {
+		File file = File.createTempFile("format-registry", suffix);
+		file.deleteOnExit();
+		OutputStream output = new FileOutputStream(file);
+		try {
+			output.write(content.getBytes("UTF-8"));
+		} finally {
+			output.close();
+		}
+		return new FileSource(file);
+	}
+}
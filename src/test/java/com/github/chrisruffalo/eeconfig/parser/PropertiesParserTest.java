@@ -0,0 +1,105 @@
+package com.github.chrisruffalo.eeconfig.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.immutable.CompactPropertyTable;
+
+/**
+ * Test parsing properties in to compact tables
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class PropertiesParserTest {
+
+	@Test
+	public void testMatchesProperties() throws IOException {
+		StringBuilder text = new StringBuilder("continued=one, \\\n  two\nescaped\\ key=\\u0041\n");
+		for(int i = 0; i < 500; i++) {
+			text.append("key.").append(i).append(" = value ").append(i).append('\n');
+		}
+		byte[] bytes = text.toString().getBytes(StandardCharsets.ISO_8859_1);
+		Properties expected = new Properties();
+		expected.load(new ByteArrayInputStream(bytes));
+		
+		CompactPropertyTable table = PropertiesParser.parse(ByteBuffer.wrap(bytes), StandardCharsets.ISO_8859_1);
+		Assert.assertEquals(expected, this.toMap(table));
+		Assert.assertEquals("one, two", table.get("continued"));
+		Assert.assertEquals("A", table.get("escaped key"));
+		Assert.assertNull(table.get("missing"));
+		Assert.assertNull(table.get(null));
+	}
+	
+	@Test
+	public void testLayers() {
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder();
+		// most important first
+		PropertiesParser.parse(this.bytes("common=first\ndupe=a\ndupe=b\n"), StandardCharsets.ISO_8859_1, builder, 0);
+		PropertiesParser.parse(this.bytes("common=second\nsecond=2\n"), StandardCharsets.ISO_8859_1, builder, 1);
+		PropertiesParser.parse(this.bytes("common=third\nsecond=3\nthird=3\n"), StandardCharsets.ISO_8859_1, builder, 2);
+		Assert.assertTrue(builder.isShadowed("common", 1));
+		Assert.assertFalse(builder.isShadowed("third", 2));
+		
+		CompactPropertyTable table = builder.build();
+		Assert.assertEquals(4, table.size());
+		Assert.assertEquals("first", table.get("common"));
+		Assert.assertEquals("b", table.get("dupe"));
+		Assert.assertEquals("2", table.get("second"));
+		Assert.assertEquals("3", table.get("third"));
+	}
+	
+	@Test
+	public void testEncoding() {
+		String text = "gr\u00fc\u00dfe=h\u00e9llo";
+		
+		CompactPropertyTable latin = PropertiesParser.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.ISO_8859_1);
+		Assert.assertEquals("h\u00e9llo", latin.get("gr\u00fc\u00dfe"));
+		
+		CompactPropertyTable utf8 = PropertiesParser.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+		Assert.assertEquals("h\u00e9llo", utf8.get("gr\u00fc\u00dfe"));
+		
+		// a byte order mark switches to utf-8 and is not part of the first key
+		CompactPropertyTable marked = PropertiesParser.parse(ByteBuffer.wrap(("\uFEFF" + text).getBytes(StandardCharsets.UTF_8)), StandardCharsets.ISO_8859_1);
+		Assert.assertEquals("h\u00e9llo", marked.get("gr\u00fc\u00dfe"));
+		Assert.assertEquals(1, marked.size());
+	}
+	
+	@Test
+	public void testFormatParser() throws IOException {
+		Properties properties = PropertiesParser.FORMAT_PARSER.parse(new ByteArrayInputStream("one=1\ntwo=2\n".getBytes(StandardCharsets.ISO_8859_1)));
+		Assert.assertEquals(2, properties.size());
+		Assert.assertEquals("2", properties.getProperty("two"));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testBuildOnce() {
+		CompactPropertyTable.Builder builder = new CompactPropertyTable.Builder();
+		builder.build();
+		builder.build();
+	}
+	
+	private ByteBuffer bytes(String text) {
+		return ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+	}
+	
+	private Map<String, String> toMap(CompactPropertyTable table) {
+		Map<String, String> map = new HashMap<String, String>();
+		Iterator<String> keys = table.keys();
+		while(keys.hasNext()) {
+			String key = keys.next();
+			map.put(key, table.get(key));
+		}
+		Assert.assertEquals(table.size(), map.size());
+		return map;
+	}
+}
@@ -0,0 +1,96 @@
+package com.github.chrisruffalo.eeconfig.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test finding and decoding properties in bytes against what
+ * {@link Properties} loads from the same bytes
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class PropertiesScannerTest {
+
+	private static final String TRICKY = 
+		"# comment\n" +
+		"! other comment \\\n" +
+		"plain=value\n" +
+		"   indented : colon value\n" +
+		"spaced   key value with spaces  \n" +
+		"both = = second separator\n" +
+		"empty=\n" +
+		"novalue\n" +
+		"escaped\\ key\\=x=tab\\there\\nnewline\n" +
+		"unicode=\\u0041\\u00e9\n" +
+		"continued=one, \\\n" +
+		"          two, \\\r\n" +
+		"\t\tthree\n" +
+		"key\\\n" +
+		"  split=value\n" +
+		"even=backslashes\\\\\n" +
+		"next=line\r" +
+		"cr=only\r\n" +
+		"dupe=first\n" +
+		"dupe=second\n" +
+		"trailing=slash\\";
+	
+	@Test
+	public void testMatchesProperties() throws IOException {
+		byte[] bytes = PropertiesScannerTest.TRICKY.getBytes(StandardCharsets.ISO_8859_1);
+		Properties expected = new Properties();
+		expected.load(new ByteArrayInputStream(bytes));
+		
+		Map<String, String> scanned = this.scan(ByteBuffer.wrap(bytes), StandardCharsets.ISO_8859_1);
+		Assert.assertEquals(expected, scanned);
+		Assert.assertEquals("one, two, three", scanned.get("continued"));
+		Assert.assertEquals("second", scanned.get("dupe"));
+	}
+	
+	@Test
+	public void testUtf8() throws IOException {
+		String text = "gr\u00fc\u00dfe=h\u00e9llo \u4e16\u754c\nescaped\\\u00e9=\\u00e9\u00e9\n";
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		Properties expected = new Properties();
+		expected.load(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+		
+		Assert.assertEquals(expected, this.scan(ByteBuffer.wrap(bytes), StandardCharsets.UTF_8));
+	}
+	
+	@Test
+	public void testDirectBuffer() throws IOException {
+		byte[] bytes = PropertiesScannerTest.TRICKY.getBytes(StandardCharsets.ISO_8859_1);
+		ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+		direct.put(bytes).flip();
+		
+		Properties expected = new Properties();
+		expected.load(new ByteArrayInputStream(bytes));
+		Assert.assertEquals(expected, this.scan(direct.asReadOnlyBuffer(), StandardCharsets.ISO_8859_1));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testMalformedUnicode() {
+		this.scan(ByteBuffer.wrap("bad=\\u00zz".getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.ISO_8859_1);
+	}
+	
+	private Map<String, String> scan(ByteBuffer buffer, final Charset charset) {
+		final Map<String, String> found = new LinkedHashMap<String, String>();
+		PropertiesScanner.scan(buffer, new PropertiesScanner.Handler() {
+			@Override
+			public void entry(ByteBuffer buffer, int keyStart, int keyEnd, int valueStart, int valueEnd) {
+				found.put(PropertiesScanner.decode(buffer, keyStart, keyEnd, charset), PropertiesScanner.decode(buffer, valueStart, valueEnd, charset));
+			}
+		});
+		return found;
+	}
+}
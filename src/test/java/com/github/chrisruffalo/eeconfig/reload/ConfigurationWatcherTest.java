@@ -0,0 +1,152 @@
+package com.github.chrisruffalo.eeconfig.reload;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.impl.BufferedSource;
+import com.github.chrisruffalo.eeconfig.source.impl.FileSource;
+import com.github.chrisruffalo.eeconfig.source.impl.MappedFileSource;
+import com.github.chrisruffalo.eeconfig.source.impl.PathSource;
+import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
+import com.github.chrisruffalo.eeconfig.strategy.locator.FileLocator;
+import com.github.chrisruffalo.eeconfig.strategy.locator.MappedFileLocator;
+
+/**
+ * Test that the watcher calls listeners when watched files change
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ConfigurationWatcherTest {
+
+	@Test
+	public void testFileOf() {
+		Path file = new File("some.properties").toPath();
+		Assert.assertEquals(file, ConfigurationWatcher.fileOf(new PathSource(file)));
+		Assert.assertEquals(file, ConfigurationWatcher.fileOf(new FileSource(file.toFile())));
+		Assert.assertEquals(file, ConfigurationWatcher.fileOf(BufferedSource.of(new PathSource(file))));
+		Assert.assertNull(ConfigurationWatcher.fileOf(new UnfoundSource()));
+		
+		// memory mapped files and files that were not found
+		Assert.assertEquals(file, ConfigurationWatcher.fileOf(new MappedFileSource(file.toFile())));
+		Assert.assertEquals(file, ConfigurationWatcher.fileOf(new UnfoundSource("some.properties", file)));
+		Path missing = new File("missing-ee-config-watch.properties").toPath();
+		Assert.assertEquals(missing, ConfigurationWatcher.fileOf(new FileLocator().locate(missing.toString())));
+		Assert.assertEquals(missing, ConfigurationWatcher.fileOf(new MappedFileLocator().locate(missing.toString())));
+	}
+	
+	@Test
+	public void testChange() throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("ee-config-watch");
+		Path watched = directory.resolve("watched.properties");
+		Path other = directory.resolve("other.properties");
+		Files.write(watched, "key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+		
+		ReloadScheduler scheduler = new ReloadScheduler(10, 1);
+		ConfigurationWatcher watcher = new ConfigurationWatcher(scheduler);
+		try {
+			final CountDownLatch changed = new CountDownLatch(1);
+			Runnable listener = new Runnable() {
+				@Override
+				public void run() {
+					changed.countDown();
+				}
+			};
+			Assert.assertEquals(1, watcher.watch(Arrays.<ISource>asList(new PathSource(watched), new UnfoundSource()), listener));
+			// watching again is allowed
+			Assert.assertEquals(1, watcher.watch(Collections.<ISource>singletonList(new PathSource(watched)), listener));
+			
+			// another file in the same directory doesn't count
+			Files.write(other, "key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertFalse(changed.await(1, TimeUnit.SECONDS));
+			
+			Files.write(watched, "key=changed value\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertTrue(changed.await(30, TimeUnit.SECONDS));
+			
+			// the changed file is kept until the listener asks for it
+			Assert.assertEquals(Collections.singleton(watched.toAbsolutePath()), watcher.changes(listener));
+			Assert.assertTrue(watcher.changes(listener).isEmpty());
+		} finally {
+			watcher.close();
+			scheduler.shutdown();
+			Files.deleteIfExists(watched);
+			Files.deleteIfExists(other);
+			Files.deleteIfExists(directory);
+		}
+	}
+	
+	@Test
+	public void testCreated() throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("ee-config-watch");
+		Path missing = directory.resolve("missing.properties");
+		
+		ReloadScheduler scheduler = new ReloadScheduler(10, 1);
+		ConfigurationWatcher watcher = new ConfigurationWatcher(scheduler);
+		try {
+			final CountDownLatch created = new CountDownLatch(1);
+			Runnable listener = new Runnable() {
+				@Override
+				public void run() {
+					created.countDown();
+				}
+			};
+			Assert.assertEquals(1, watcher.watch(Collections.<ISource>singletonList(new FileLocator().locate(missing.toString())), listener));
+			
+			Files.write(missing, "key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertTrue(created.await(30, TimeUnit.SECONDS));
+		} finally {
+			watcher.close();
+			scheduler.shutdown();
+			Files.deleteIfExists(missing);
+			Files.deleteIfExists(directory);
+		}
+	}
+	
+	@Test
+	public void testReplaced() throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("ee-config-watch");
+		Path first = directory.resolve("first.properties");
+		Path second = directory.resolve("second.properties");
+		Files.write(first, "key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(second, "key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+		
+		ReloadScheduler scheduler = new ReloadScheduler(10, 1);
+		ConfigurationWatcher watcher = new ConfigurationWatcher(scheduler);
+		try {
+			final CountDownLatch changed = new CountDownLatch(1);
+			Runnable listener = new Runnable() {
+				@Override
+				public void run() {
+					changed.countDown();
+				}
+			};
+			Assert.assertEquals(1, watcher.watch(Collections.<ISource>singletonList(new PathSource(first)), listener));
+			// the first file is no longer located
+			Assert.assertEquals(1, watcher.watch(Collections.<ISource>singletonList(new PathSource(second)), listener));
+			
+			Files.write(first, "key=changed value\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertFalse(changed.await(1, TimeUnit.SECONDS));
+			
+			Files.write(second, "key=changed value\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertTrue(changed.await(30, TimeUnit.SECONDS));
+		} finally {
+			watcher.close();
+			scheduler.shutdown();
+			Files.deleteIfExists(first);
+			Files.deleteIfExists(second);
+			Files.deleteIfExists(directory);
+		}
+	}
+	
+}
@@ -0,0 +1,131 @@
+package com.github.chrisruffalo.eeconfig.reload;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that bursts of changes are coalesced and that
+ * reloads are limited
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ReloadSchedulerTest {
+
+	@Test
+	public void testBurstRunsOnce() throws InterruptedException {
+		ReloadScheduler scheduler = new ReloadScheduler(100, 2);
+		try {
+			final AtomicInteger first = new AtomicInteger();
+			final AtomicInteger second = new AtomicInteger();
+			final CountDownLatch done = new CountDownLatch(2);
+			Runnable one = new Runnable() {
+				@Override
+				public void run() {
+					first.incrementAndGet();
+					done.countDown();
+				}
+			};
+			Runnable two = new Runnable() {
+				@Override
+				public void run() {
+					second.incrementAndGet();
+					done.countDown();
+				}
+			};
+			
+			// a burst of changes to files of both configurations
+			for(int i = 0; i < 20; i++) {
+				scheduler.schedule(Arrays.asList(one, two));
+				scheduler.schedule(Collections.singletonList(one));
+			}
+			
+			Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+			Thread.sleep(300);
+			Assert.assertEquals(1, first.get());
+			Assert.assertEquals(1, second.get());
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+	
+	@Test
+	public void testConcurrencyLimit() throws InterruptedException {
+		ReloadScheduler scheduler = new ReloadScheduler(0, 2);
+		try {
+			final AtomicInteger active = new AtomicInteger();
+			final AtomicInteger most = new AtomicInteger();
+			final CountDownLatch done = new CountDownLatch(8);
+			Runnable[] reloads = new Runnable[8];
+			for(int i = 0; i < reloads.length; i++) {
+				reloads[i] = new Runnable() {
+					@Override
+					public void run() {
+						int now = active.incrementAndGet();
+						synchronized(most) {
+							most.set(Math.max(most.get(), now));
+						}
+						try {
+							Thread.sleep(50);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						active.decrementAndGet();
+						done.countDown();
+					}
+				};
+			}
+			scheduler.schedule(Arrays.asList(reloads));
+			
+			Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+			Assert.assertTrue(most.get() <= 2);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+	
+	@Test
+	public void testChangeWhileRunning() throws InterruptedException {
+		final ReloadScheduler scheduler = new ReloadScheduler(10, 2);
+		try {
+			final AtomicInteger runs = new AtomicInteger();
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch release = new CountDownLatch(1);
+			final CountDownLatch twice = new CountDownLatch(2);
+			Runnable reload = new Runnable() {
+				@Override
+				public void run() {
+					if(runs.incrementAndGet() == 1) {
+						started.countDown();
+						try {
+							release.await(10, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					twice.countDown();
+				}
+			};
+			scheduler.schedule(Collections.singletonList(reload));
+			Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+			
+			// changed again while running, runs once more after
+			scheduler.schedule(Collections.singletonList(reload));
+			Thread.sleep(100);
+			Assert.assertEquals(1, runs.get());
+			release.countDown();
+			
+			Assert.assertTrue(twice.await(10, TimeUnit.SECONDS));
+			Assert.assertEquals(2, runs.get());
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+	
+}
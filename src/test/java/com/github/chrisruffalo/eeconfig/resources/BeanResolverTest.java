@@ -0,0 +1,61 @@
+package com.github.chrisruffalo.eeconfig.resources;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.github.chrisruffalo.eeconfig.strategy.locator.FileLocator;
+import com.github.chrisruffalo.eeconfig.strategy.locator.Locator;
+import com.github.chrisruffalo.eeconfig.strategy.locator.NullLocator;
+import com.github.chrisruffalo.eeconfig.support.DependentLocator;
+import com.github.chrisruffalo.eeconfig.support.DeploymentFactory;
+
+/**
+ * Test resolving strategy beans from their classes
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@RunWith(Arquillian.class)
+public class BeanResolverTest {
+
+	@Inject
+	private BeanResolver resolver;
+	
+	@Deployment
+	public static JavaArchive deployment() {
+		JavaArchive archive = DeploymentFactory.createDeployment();
+		return archive;
+	}
+	
+	/**
+	 * Test that the same reference is handed out for the same class
+	 * 
+	 */
+	@Test
+	public void testResolvedOnce() {
+		Locator first = this.resolver.resolveBeanWithDefaultClass(FileLocator.class, NullLocator.class);
+		Locator second = this.resolver.resolveBeanWithDefaultClass(FileLocator.class, NullLocator.class);
+		Assert.assertNotNull(first);
+		Assert.assertSame(first, second);
+	}
+	
+	/**
+	 * Test that dependent beans are still created for each request
+	 * 
+	 */
+	@Test
+	public void testDependentNotShared() {
+		Locator first = this.resolver.resolveBeanWithDefaultClass(DependentLocator.class, NullLocator.class);
+		Locator second = this.resolver.resolveBeanWithDefaultClass(DependentLocator.class, NullLocator.class);
+		Assert.assertTrue(first instanceof DependentLocator);
+		Assert.assertTrue(second instanceof DependentLocator);
+		Assert.assertFalse(first == second);
+	}
+
+}
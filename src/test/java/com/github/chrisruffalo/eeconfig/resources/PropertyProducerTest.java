@@ -1,6 +1,7 @@
 package com.github.chrisruffalo.eeconfig.resources;
 
 
+import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 import org.jboss.arquillian.container.test.api.Deployment;
@@ -11,6 +12,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import com.github.chrisruffalo.eeconfig.annotations.Property;
+import com.github.chrisruffalo.eeconfig.strategy.property.SystemPropertySnapshot;
 import com.github.chrisruffalo.eeconfig.support.DeploymentFactory;
 
 /**
@@ -88,4 +90,31 @@ public class PropertyProducerTest {
 		Assert.assertNotNull(property);
 		Assert.assertEquals("default", property);
 	}
+	
+	/**
+	 * Test that a produced value is reused until the System Properties change
+	 * 
+	 * @param property
+	 */
+	@Test
+	@Inject
+	public void testValueFollowsSystemProperties(@Property(value="${ee-config.test.produced}", defaultValue="default") Instance<String> property) {
+		try {
+			System.setProperty("ee-config.test.produced", "first");
+			SystemPropertySnapshot.refresh();
+			Assert.assertEquals("first", property.get());
+			Assert.assertEquals("first", property.get());
+			
+			System.setProperty("ee-config.test.produced", "second");
+			SystemPropertySnapshot.refresh();
+			Assert.assertEquals("second", property.get());
+			
+			System.clearProperty("ee-config.test.produced");
+			SystemPropertySnapshot.refresh();
+			Assert.assertEquals("default", property.get());
+		} finally {
+			System.clearProperty("ee-config.test.produced");
+			SystemPropertySnapshot.refresh();
+		}
+	}
 }
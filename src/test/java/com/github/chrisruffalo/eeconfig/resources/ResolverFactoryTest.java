@@ -0,0 +1,73 @@
+package com.github.chrisruffalo.eeconfig.resources;
+
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.github.chrisruffalo.eeconfig.annotations.Bootstrap;
+import com.github.chrisruffalo.eeconfig.annotations.Resolver;
+import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.support.DeploymentFactory;
+import com.github.chrisruffalo.eeconfig.wrapper.ResolverAnnotationWrapper;
+import com.github.chrisruffalo.eeconfig.wrapper.ResolverWrapper;
+
+/**
+ * Test the shared parts of property resolution
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@RunWith(Arquillian.class)
+public class ResolverFactoryTest {
+
+	@Resolver(bootstrap=@Bootstrap(sources=@Source("resource:properties/bootstrap.properties")))
+	private Object bootstrapped;
+	
+	@Resolver(bootstrap=@Bootstrap(sources=@Source("resource:properties/bootstrap.properties")))
+	private Object sameBootstrap;
+	
+	@Inject
+	private ResolverFactory factory;
+	
+	@Deployment
+	public static JavaArchive deployment() {
+		JavaArchive archive = DeploymentFactory.createDeployment();
+		return archive;
+	}
+	
+	/**
+	 * Test that bootstrap properties are loaded once and shared
+	 * 
+	 */
+	@Test
+	public void testBootstrapPropertiesShared() throws NoSuchFieldException {
+		Map<Object, Object> first = this.factory.getBootstrapProperties(this.wrapper("bootstrapped"));
+		Map<Object, Object> second = this.factory.getBootstrapProperties(this.wrapper("sameBootstrap"));
+		
+		Assert.assertEquals("wub", first.get("rootLogger"));
+		Assert.assertSame(first, second);
+	}
+	
+	/**
+	 * Test that shared bootstrap properties can't be changed
+	 * 
+	 */
+	@Test(expected=UnsupportedOperationException.class)
+	public void testBootstrapPropertiesReadOnly() throws NoSuchFieldException {
+		Map<Object, Object> properties = this.factory.getBootstrapProperties(this.wrapper("bootstrapped"));
+		properties.put("rootLogger", "changed");
+	}
+	
+	private ResolverWrapper wrapper(String field) throws NoSuchFieldException {
+		Resolver resolver = this.getClass().getDeclaredField(field).getAnnotation(Resolver.class);
+		return new ResolverAnnotationWrapper(resolver);
+	}
+	
+}
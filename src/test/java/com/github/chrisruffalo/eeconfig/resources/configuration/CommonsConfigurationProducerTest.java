@@ -8,6 +8,13 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -93,7 +100,13 @@ public class CommonsConfigurationProducerTest {
 			output.close();
 		}
 		
-		
+		// file that is changed by the reload test
+		CommonsConfigurationProducerTest.write("reloaded=aaaaaa\n");
+	}
+	
+	private static void write(String content) throws IOException {
+		Path file = Paths.get(System.getProperty("java.io.tmpdir"), "ee-config-commons-reload.properties");
+		Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
 	}
 	
 	/**
@@ -286,4 +299,87 @@ public class CommonsConfigurationProducerTest {
 		Assert.assertEquals("three", properties.getString("three"));
 		Assert.assertEquals("false", properties.getString("minor"));
 	}
+	
+	/**
+	 * Test that loading in parallel merges in the same order
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testParallelMergedResources(		
+		@Configuration(
+			sources = {
+				@Source(value="resource:properties/priority2.properties"),
+				@Source(value="resource:properties/priority1.properties"),
+				@Source(value="resource:properties/priority3.properties"),
+			},
+			merge = true,
+			parallel = true
+		) 
+		org.apache.commons.configuration.Configuration properties) 
+	{
+		Assert.assertNotNull(properties);
+		Assert.assertEquals("value2", properties.getString("common"));
+		Assert.assertEquals("one", properties.getString("one"));
+		Assert.assertEquals("two", properties.getString("two"));
+		Assert.assertEquals("three", properties.getString("three"));
+	}
+	
+	/**
+	 * Test a configuration that is loaded in the background
+	 * 
+	 * @param future
+	 * @throws Exception 
+	 */
+	@Test
+	@Inject
+	public void testFutureConfiguration(		
+		@Configuration(
+			sources = {
+				@Source(value="resource:properties/priority1.properties"),
+				@Source(value="resource:properties/priority2.properties"),
+			},
+			merge = true
+		) 
+		Future<org.apache.commons.configuration.Configuration> future) throws Exception 
+	{
+		org.apache.commons.configuration.Configuration properties = future.get(10, TimeUnit.SECONDS);
+		Assert.assertEquals("value1", properties.getString("common"));
+		Assert.assertEquals("two", properties.getString("two"));
+	}
+	
+	/**
+	 * Test that a reloading configuration picks up a change that keeps the 
+	 * size and the modification time of the file the same
+	 * 
+	 * @param configuration
+	 * @throws Exception
+	 */
+	@Test
+	@Inject
+	public void testReloadSameSizeAndTime(
+		@Configuration(
+			sources = {
+				@Source(value="${java.io.tmpdir}/ee-config-commons-reload.properties", resolve=true)
+			},
+			reload = true
+		)
+		org.apache.commons.configuration.Configuration configuration) throws Exception
+	{
+		Assert.assertEquals("aaaaaa", configuration.getString("reloaded"));
+		
+		// same size and, as with a coarse timestamp, the same modification time
+		Path file = Paths.get(System.getProperty("java.io.tmpdir"), "ee-config-commons-reload.properties");
+		FileTime modified = Files.getLastModifiedTime(file);
+		CommonsConfigurationProducerTest.write("reloaded=bbbbbb\n");
+		Files.setLastModifiedTime(file, modified);
+		
+		long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+		while(!"bbbbbb".equals(configuration.getString("reloaded")) && System.currentTimeMillis() < until) {
+			Thread.sleep(100);
+		}
+		Assert.assertEquals("bbbbbb", configuration.getString("reloaded"));
+	}
+	
 }
@@ -1,6 +1,8 @@
 package com.github.chrisruffalo.eeconfig.resources.configuration;
 
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -88,4 +90,26 @@ public class PluginUseTest {
 			Assert.assertEquals(DummySource.class, source.getClass());
 		}	
 	}	
+	
+	/**
+	 * Test sources that are located in the background, with the
+	 * plugged in resolver
+	 * 
+	 * @param future
+	 * @throws Exception 
+	 */
+	@Test
+	@Inject
+	public void testFutureSources(@Configuration(
+		sources = {
+			@Source(value="${java.io.tmpdir}/priority2.properties", resolve=true),
+			@Source(value="resource:properties/priority1.properties"),
+		},
+		resolver = @Resolver(impl=SharedTestPropertyResolver.class)
+	) Future<List<ISource>> future) throws Exception {
+		List<ISource> sources = future.get(10, TimeUnit.SECONDS);
+		Assert.assertEquals(2, sources.size());
+		Assert.assertTrue(this.resolver.getCount() > 0);
+	}
+	
 }
@@ -1,7 +1,21 @@
 package com.github.chrisruffalo.eeconfig.resources.configuration;
 
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 
@@ -9,13 +23,22 @@ import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.junit.Assert;
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import com.github.chrisruffalo.eeconfig.annotations.Configuration;
+import com.github.chrisruffalo.eeconfig.annotations.DefaultProperty;
+import com.github.chrisruffalo.eeconfig.annotations.Interpolation;
+import com.github.chrisruffalo.eeconfig.annotations.Resolver;
 import com.github.chrisruffalo.eeconfig.annotations.Source;
+import com.github.chrisruffalo.eeconfig.cache.ConfigurationCache;
+import com.github.chrisruffalo.eeconfig.immutable.ConfigMap;
+import com.github.chrisruffalo.eeconfig.immutable.TableProperties;
 import com.github.chrisruffalo.eeconfig.strategy.locator.ResourceLocator;
 import com.github.chrisruffalo.eeconfig.support.DeploymentFactory;
+import com.github.chrisruffalo.eeconfig.wrapper.ConfigurationWrapper;
+import com.github.chrisruffalo.eeconfig.wrapper.WrapperFactory;
 
 @RunWith(Arquillian.class)
 public class PropertiesConfigurationProducerTest {
@@ -24,12 +47,42 @@ public class PropertiesConfigurationProducerTest {
 	//@AutoLogger
 	//private Logger logger;
 	
+	@Inject
+	private ConfigurationCache cache;
+	
+	@Inject
+	private PropertiesConfigurationProducer producer;
+	
+	// loaded in the background, in parallel, by testManyFutureProperties
+	@Configuration(
+		sources = {
+			@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority3.properties", locator=ResourceLocator.class),
+		},
+		merge = true,
+		parallel = true
+	)
+	private Object parallelFuture;
+	
 	@Deployment
 	public static JavaArchive deployment() {
 		JavaArchive archive = DeploymentFactory.createDeployment();
 		return archive;
 	}
 	
+	@BeforeClass
+	public static void createReloadFile() throws IOException {
+		PropertiesConfigurationProducerTest.write("ee-config-reload.properties", "reloaded=before\n");
+		PropertiesConfigurationProducerTest.write("ee-config-reload-same.properties", "reloaded=aaaaaa\n");
+	}
+	
+	private static Path write(String name, String content) throws IOException {
+		Path file = Paths.get(System.getProperty("java.io.tmpdir"), name);
+		Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+		return file;
+	}
+	
 	/**
 	 * Test that no paths produce no valid properties
 	 * 
@@ -147,4 +200,431 @@ public class PropertiesConfigurationProducerTest {
 		Assert.assertEquals("true", properties.get("minor"));
 	}
 	
+	/**
+	 * Test that the same configuration is loaded once and
+	 * shared between injection points
+	 * 
+	 * @param properties
+	 * @param same
+	 */
+	@Test
+	@Inject
+	public void testSharedInstance(
+		@Configuration(
+			sources = {
+				@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+				@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+			},
+			merge = true
+		) Properties properties,
+		@Configuration(
+			sources = {
+				@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+				@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+			},
+			merge = true
+		) Properties same
+	) {
+		Assert.assertSame(properties, same);
+		Assert.assertTrue(this.cache.getHits() > 0);
+	}
+	
+	/**
+	 * Test that the entries of shared properties can be visited
+	 * with the methods inherited from the Hashtable
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testForEach(@Configuration(
+		sources = {
+			@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+		},
+		merge = true
+	) Properties properties) {
+		Assert.assertFalse(properties instanceof TableProperties);
+		final Properties visited = new Properties();
+		properties.forEach(new BiConsumer<Object, Object>() {
+			@Override
+			public void accept(Object key, Object value) {
+				visited.put(key, value);
+			}
+		});
+		Assert.assertFalse(visited.isEmpty());
+		Assert.assertEquals(properties.size(), visited.size());
+		Assert.assertEquals("value1", visited.get("common"));
+	}
+	
+	/**
+	 * Test that shared properties can't be changed
+	 * 
+	 * @param properties
+	 */
+	@Test(expected=UnsupportedOperationException.class)
+	@Inject
+	public void testReadOnly(@Configuration(
+		sources = @Source(value="properties/priority1.properties", locator=ResourceLocator.class)
+	) Properties properties) {
+		properties.setProperty("one", "changed");
+	}
+	
+	/**
+	 * Test that shared properties can't be changed with the
+	 * functional map methods
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testReadOnlyFunctions(@Configuration(
+		sources = @Source(value="properties/priority1.properties", locator=ResourceLocator.class)
+	) final Properties properties) {
+		final BiFunction<Object, Object, Object> remap = new BiFunction<Object, Object, Object>() {
+			@Override
+			public Object apply(Object key, Object value) {
+				return "changed";
+			}
+		};
+		final Function<Object, Object> map = new Function<Object, Object>() {
+			@Override
+			public Object apply(Object key) {
+				return "changed";
+			}
+		};
+		List<Runnable> changes = Arrays.<Runnable>asList(
+			new Runnable() {
+				@Override
+				public void run() {
+					properties.compute("one", remap);
+				}
+			},
+			new Runnable() {
+				@Override
+				public void run() {
+					properties.computeIfAbsent("missing", map);
+				}
+			},
+			new Runnable() {
+				@Override
+				public void run() {
+					properties.computeIfPresent("one", remap);
+				}
+			},
+			new Runnable() {
+				@Override
+				public void run() {
+					properties.merge("one", "changed", remap);
+				}
+			},
+			new Runnable() {
+				@Override
+				public void run() {
+					properties.replaceAll(remap);
+				}
+			}
+		);
+		for(Runnable change : changes) {
+			try {
+				change.run();
+				Assert.fail("Shared properties should be read-only");
+			} catch (UnsupportedOperationException e) {
+				// expected
+			}
+		}
+		Assert.assertEquals("one", properties.getProperty("one"));
+		Assert.assertNull(properties.getProperty("missing"));
+	}
+	
+	/**
+	 * Test that values are left alone unless interpolation is asked for
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testNoInterpolation(@Configuration(
+		sources = @Source(value="properties/interpolated.properties", locator=ResourceLocator.class)
+	) Properties properties) {
+		Assert.assertEquals("${base}/service", properties.getProperty("service"));
+	}
+	
+	/**
+	 * Test resolving references between values when the properties are loaded
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testEagerInterpolation(@Configuration(
+		sources = @Source(value="properties/interpolated.properties", locator=ResourceLocator.class),
+		resolver = @Resolver(properties = @DefaultProperty(key="default.logger", value="wub")),
+		interpolate = Interpolation.EAGER
+	) Properties properties) {
+		Assert.assertEquals("http://localhost:8080/service", properties.getProperty("service"));
+		Assert.assertEquals("http://localhost:8080/service/test", properties.getProperty("selected"));
+		Assert.assertEquals("wub", properties.getProperty("loggers"));
+		Assert.assertEquals("${not.a.key}", properties.getProperty("missing"));
+	}
+	
+	/**
+	 * Test resolving references between values as they are read
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testLazyInterpolation(@Configuration(
+		sources = @Source(value="properties/interpolated.properties", locator=ResourceLocator.class),
+		resolver = @Resolver(properties = @DefaultProperty(key="default.logger", value="wub")),
+		interpolate = Interpolation.LAZY
+	) Properties properties) {
+		Assert.assertEquals("http://localhost:8080/service/test", properties.getProperty("selected"));
+		Assert.assertEquals("wub", properties.get("loggers"));
+		Assert.assertTrue(properties.containsValue("http://localhost:8080"));
+	}
+	
+	/**
+	 * Test that visiting the entries of lazily resolved properties
+	 * sees the resolved values
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testLazyInterpolationForEach(@Configuration(
+		sources = @Source(value="properties/interpolated.properties", locator=ResourceLocator.class),
+		resolver = @Resolver(properties = @DefaultProperty(key="default.logger", value="wub")),
+		interpolate = Interpolation.LAZY
+	) Properties properties) {
+		final Properties visited = new Properties();
+		properties.forEach(new BiConsumer<Object, Object>() {
+			@Override
+			public void accept(Object key, Object value) {
+				visited.put(key, value);
+			}
+		});
+		Assert.assertEquals(properties.size(), visited.size());
+		Assert.assertEquals("http://localhost:8080/service", visited.get("service"));
+		Assert.assertEquals("http://localhost:8080/service/test", visited.get("selected"));
+		Assert.assertEquals("wub", visited.get("loggers"));
+	}
+	
+	/**
+	 * Test merging memory mapped files, which are read in place
+	 * 
+	 * @param properties
+	 */
+	@Test
+	@Inject
+	public void testMappedFiles(@Configuration(
+		sources = {
+			@Source("mapped:src/test/resources/properties/priority1.properties"),
+			@Source("mapped:src/test/resources/properties/priority2.properties"),
+			@Source("mapped:src/test/resources/properties/priority3.properties"),
+		},
+		merge = true
+	) Properties properties) {
+		Assert.assertTrue(properties instanceof TableProperties);
+		Assert.assertEquals("value1", properties.get("common"));
+		Assert.assertEquals("one", properties.getProperty("one"));
+		Assert.assertEquals("two", properties.getProperty("two"));
+		Assert.assertEquals("three", properties.getProperty("three"));
+		Assert.assertEquals("true", properties.getProperty("minor"));
+	}
+	
+	/**
+	 * Test reading a properties file with a configured encoding
+	 * 
+	 * @param utf8
+	 * @param latin
+	 */
+	@Test
+	@Inject
+	public void testEncoding(@Configuration(
+		sources = @Source(value="properties/utf8.properties", locator=ResourceLocator.class),
+		encoding = "UTF-8"
+	) Properties utf8, @Configuration(
+		sources = @Source(value="properties/utf8.properties", locator=ResourceLocator.class)
+	) Properties latin) {
+		Assert.assertEquals("gr\u00fc\u00dfe", utf8.getProperty("greeting"));
+		Assert.assertEquals("gr\u00c3\u00bc\u00c3\u009fe", latin.getProperty("greeting"));
+	}
+	
+	/**
+	 * Test injecting merged values as a configuration map
+	 * 
+	 * @param map
+	 */
+	@Test
+	@Inject
+	public void testConfigMap(@Configuration(
+		sources = {
+			@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority3.properties", locator=ResourceLocator.class),
+		},
+		merge = true
+	) ConfigMap map) {
+		Assert.assertNotNull(map);
+		Assert.assertEquals("value1", map.get("common"));
+		Assert.assertEquals("three", map.get("three"));
+		Assert.assertTrue(map.getBoolean("minor", false));
+		Assert.assertEquals("value1", map.asProperties().getProperty("common"));
+	}
+	
+	/**
+	 * Test that loading in parallel gives the same values as loading
+	 * one source after the other
+	 * 
+	 * @param sequential
+	 * @param parallel
+	 * @param first
+	 */
+	@Test
+	@Inject
+	public void testParallelLoading(@Configuration(
+		sources = {
+			@Source(value="properties/priority3.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+		},
+		merge = true
+	) Properties sequential, @Configuration(
+		sources = {
+			@Source(value="properties/priority3.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+		},
+		merge = true,
+		parallel = true
+	) Properties parallel, @Configuration(
+		sources = {
+			@Source(value="no/path/here.properties"),
+			@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+		},
+		parallel = true
+	) Properties first) {
+		Assert.assertEquals(sequential, parallel);
+		Assert.assertEquals("value3", parallel.getProperty("common"));
+		Assert.assertEquals("two", first.getProperty("two"));
+		Assert.assertNull(first.getProperty("one"));
+	}
+	
+	/**
+	 * Test properties that are loaded in the background
+	 * 
+	 * @param future
+	 * @throws Exception 
+	 */
+	@Test
+	@Inject
+	public void testFutureProperties(@Configuration(
+		sources = {
+			@Source(value="properties/priority1.properties", locator=ResourceLocator.class),
+			@Source(value="properties/priority2.properties", locator=ResourceLocator.class),
+		},
+		merge = true
+	) Future<Properties> future) throws Exception {
+		Properties properties = future.get(10, TimeUnit.SECONDS);
+		Assert.assertEquals("value1", properties.getProperty("common"));
+		Assert.assertEquals("two", properties.getProperty("two"));
+	}
+	
+	/**
+	 * Test that more parallel loads in the background than the executor
+	 * has threads all finish
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testManyFutureProperties() throws Exception {
+		Configuration annotation = this.getClass().getDeclaredField("parallelFuture").getAnnotation(Configuration.class);
+		ConfigurationWrapper configuration = WrapperFactory.wrap(annotation);
+		
+		// more than the threads of the default executor
+		int count = Math.max(4, Runtime.getRuntime().availableProcessors()) * 2 + 4;
+		List<Future<Properties>> futures = new ArrayList<Future<Properties>>(count);
+		for(int i = 0; i < count; i++) {
+			this.cache.clear();
+			futures.add(this.producer.getFutureProperties(configuration));
+		}
+		for(Future<Properties> future : futures) {
+			Properties properties = future.get(30, TimeUnit.SECONDS);
+			Assert.assertEquals("value1", properties.getProperty("common"));
+		}
+	}
+	
+	/**
+	 * Test that reloading properties are shared and pick up
+	 * changes to the file they were loaded from
+	 * 
+	 * @param properties
+	 * @param again
+	 * @throws Exception
+	 */
+	@Test
+	@Inject
+	public void testReload(@Configuration(
+		sources = {
+			@Source(value="${java.io.tmpdir}/ee-config-reload.properties", resolve=true)
+		},
+		reload = true
+	) Properties properties, @Configuration(
+		sources = {
+			@Source(value="${java.io.tmpdir}/ee-config-reload.properties", resolve=true)
+		},
+		reload = true
+	) Properties again) throws Exception {
+		Assert.assertSame(properties, again);
+		Assert.assertEquals("before", properties.getProperty("reloaded"));
+		
+		// change the file and wait for the watcher
+		PropertiesConfigurationProducerTest.write("ee-config-reload.properties", "reloaded=after the change\n");
+		long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+		while(!"after the change".equals(properties.getProperty("reloaded")) && System.currentTimeMillis() < until) {
+			Thread.sleep(100);
+		}
+		Assert.assertEquals("after the change", properties.getProperty("reloaded"));
+		
+		// still read-only
+		try {
+			properties.setProperty("reloaded", "set");
+			Assert.fail("Reloading properties should be read-only");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test that reloading properties pick up a change that keeps the
+	 * size and the modification time of the file the same
+	 * 
+	 * @param properties
+	 * @throws Exception
+	 */
+	@Test
+	@Inject
+	public void testReloadSameSizeAndTime(@Configuration(
+		sources = {
+			@Source(value="${java.io.tmpdir}/ee-config-reload-same.properties", resolve=true)
+		},
+		reload = true
+	) Properties properties) throws Exception {
+		Assert.assertEquals("aaaaaa", properties.getProperty("reloaded"));
+		
+		// same size and, as with a coarse timestamp, the same modification time
+		FileTime modified = Files.getLastModifiedTime(Paths.get(System.getProperty("java.io.tmpdir"), "ee-config-reload-same.properties"));
+		Path file = PropertiesConfigurationProducerTest.write("ee-config-reload-same.properties", "reloaded=bbbbbb\n");
+		Files.setLastModifiedTime(file, modified);
+		
+		long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+		while(!"bbbbbb".equals(properties.getProperty("reloaded")) && System.currentTimeMillis() < until) {
+			Thread.sleep(100);
+		}
+		Assert.assertEquals("bbbbbb", properties.getProperty("reloaded"));
+	}
+	
 }
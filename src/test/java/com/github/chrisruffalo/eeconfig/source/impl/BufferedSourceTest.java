@@ -0,0 +1,67 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.mime.MimeGuesser;
+import com.github.chrisruffalo.eeconfig.mime.SupportedType;
+
+/**
+ * Test reading sources once into a shared buffer
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class BufferedSourceTest {
+
+	@Test
+	public void testReadOnce() throws IOException {
+		CountingSource counting = new CountingSource("properties/priority1.properties");
+		BufferedSource source = BufferedSource.of(counting);
+		Assert.assertSame(source, BufferedSource.of(source));
+		
+		// guess and then load from the same source
+		Assert.assertEquals(SupportedType.TEXT, MimeGuesser.guess(source));
+		Properties properties = new Properties();
+		InputStream stream = source.stream();
+		try {
+			properties.load(stream);
+		} finally {
+			stream.close();
+		}
+		
+		Assert.assertEquals("one", properties.getProperty("one"));
+		Assert.assertEquals(1, counting.opened);
+		Assert.assertEquals(source.bytes().length, source.size());
+	}
+	
+	@Test
+	public void testUnavailable() {
+		BufferedSource source = BufferedSource.of(new UnfoundSource());
+		Assert.assertFalse(source.available());
+		Assert.assertEquals(0, source.bytes().length);
+		Assert.assertEquals(SupportedType.TEXT, MimeGuesser.guess(source));
+	}
+	
+	/**
+	 * Counts how many times the contents are opened
+	 */
+	private static class CountingSource extends ResourceSource {
+		
+		private int opened = 0;
+		
+		public CountingSource(String path) {
+			super(path);
+		}
+
+		@Override
+		public InputStream stream() {
+			this.opened++;
+			return super.stream();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.SourceAttributes;
+
+/**
+ * Test that sources with the same contents have the same hash
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ContentHashTest {
+
+	@Test
+	public void testSameContents() throws IOException {
+		byte[] contents = "key=value\n".getBytes(StandardCharsets.ISO_8859_1);
+		long expected = ContentHash.of(contents);
+		Assert.assertEquals(expected, ContentHash.of(new ByteArrayInputStream(contents)));
+		Assert.assertEquals(expected, ContentHash.of(ByteBuffer.wrap(contents)));
+		ByteBuffer direct = ByteBuffer.allocateDirect(contents.length);
+		direct.put(contents);
+		direct.flip();
+		Assert.assertEquals(expected, ContentHash.of(direct));
+		Assert.assertEquals(0, direct.position());
+		
+		Path file = Files.createTempFile("ee-config-hash", ".properties");
+		Path copy = Files.createTempFile("ee-config-hash-copy", ".properties");
+		try {
+			Files.write(file, contents);
+			Files.write(copy, contents);
+			Assert.assertEquals(expected, new PathSource(file).contentHash());
+			Assert.assertEquals(expected, new PathSource(copy).contentHash());
+			Assert.assertEquals(expected, new FileSource(file.toFile()).contentHash());
+			Assert.assertEquals(expected, new MappedFileSource(file.toFile()).contentHash());
+			Assert.assertEquals(expected, BufferedSource.of(new PathSource(file)).contentHash());
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(copy);
+		}
+	}
+	
+	@Test
+	public void testChangedContents() throws IOException {
+		Path file = Files.createTempFile("ee-config-hash", ".properties");
+		try {
+			Files.write(file, "key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+			PathSource source = new PathSource(file);
+			long before = source.contentHash();
+			
+			// same size, different contents
+			Files.write(file, "key=other\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertEquals(before, source.contentHash());
+			Assert.assertFalse(before == source.refresh().contentHash());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testUnavailable() {
+		Assert.assertEquals(ContentHash.UNKNOWN, new UnfoundSource().contentHash());
+		Assert.assertEquals(ContentHash.UNKNOWN, BufferedSource.of(new UnfoundSource()).contentHash());
+		List<Long> hashes = ContentHash.all(Arrays.<ISource>asList(new UnfoundSource(), null));
+		Assert.assertEquals(Arrays.asList(ContentHash.UNKNOWN, ContentHash.UNKNOWN), hashes);
+	}
+	
+	@Test
+	public void testPlainSource() {
+		// a source that only implements the ISource interface
+		ISource plain = new ISource() {
+			@Override
+			public boolean available() {
+				return true;
+			}
+			
+			@Override
+			public InputStream stream() {
+				return new ByteArrayInputStream("key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+			}
+			
+			@Override
+			public String getPath() {
+				return "plain.properties";
+			}
+			
+			@Override
+			public String getExtension() {
+				return "properties";
+			}
+		};
+		Assert.assertEquals(ContentHash.UNKNOWN, SourceAttributes.contentHash(plain));
+		Assert.assertEquals(0, SourceAttributes.lastModified(plain));
+		Assert.assertEquals(-1, SourceAttributes.size(plain));
+		Assert.assertEquals(ContentHash.of("key=value\n".getBytes(StandardCharsets.ISO_8859_1)), BufferedSource.of(plain).contentHash());
+	}
+	
+}
@@ -0,0 +1,84 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.strategy.locator.FileLocator;
+
+/**
+ * Test that path sources keep the attributes they read until refreshed
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class PathSourceTest {
+
+	@Test
+	public void testSnapshot() throws IOException {
+		Path file = Files.createTempFile("ee-config-path", ".properties");
+		try {
+			Files.write(file, "key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+			PathSource source = new PathSource(file);
+			Assert.assertTrue(source.available());
+			Assert.assertEquals(10, source.size());
+			Assert.assertEquals(Files.getLastModifiedTime(file).toMillis(), source.lastModified());
+			Assert.assertEquals("properties", source.getExtension());
+			
+			Properties properties = new Properties();
+			InputStream stream = source.stream();
+			try {
+				properties.load(stream);
+			} finally {
+				stream.close();
+			}
+			Assert.assertEquals("value", properties.getProperty("key"));
+			
+			// changes are only seen after a refresh
+			Files.write(file, "key=changed value\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertEquals(10, source.size());
+			Assert.assertEquals(18, source.refresh().size());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testMissing() throws IOException {
+		Path file = Files.createTempFile("ee-config-path", ".properties");
+		PathSource source = new PathSource(file);
+		Files.delete(file);
+		
+		// still the snapshot
+		Assert.assertTrue(source.available());
+		
+		source.refresh();
+		Assert.assertFalse(source.available());
+		Assert.assertEquals(-1, source.size());
+		Assert.assertEquals(0, source.lastModified());
+		Assert.assertNull(source.getFileKey());
+		Assert.assertEquals(-1, source.stream().read());
+	}
+	
+	@Test
+	public void testLocator() throws IOException {
+		Path file = Files.createTempFile("ee-config-path", ".properties");
+		try {
+			ISource found = new FileLocator().locate(file.toString());
+			Assert.assertTrue(found instanceof PathSource);
+			Assert.assertTrue(found.available());
+			
+			Assert.assertTrue(new FileLocator().locate(file.toString() + ".missing") instanceof UnfoundSource);
+			Assert.assertFalse(new FileLocator().locate(file.getParent().toString()).available());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
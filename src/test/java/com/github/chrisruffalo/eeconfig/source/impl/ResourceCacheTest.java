@@ -0,0 +1,99 @@
+package com.github.chrisruffalo.eeconfig.source.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that resource lookups are remembered per class loader
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ResourceCacheTest {
+
+	@Test
+	public void testLookupOnce() {
+		CountingLoader loader = new CountingLoader();
+		
+		URL url = ResourceCache.getResource(loader, "properties/priority1.properties");
+		Assert.assertNotNull(url);
+		Assert.assertEquals(url, ResourceCache.getResource(loader, "properties/priority1.properties"));
+		Assert.assertNull(ResourceCache.getResource(loader, "properties/not-here.properties"));
+		Assert.assertNull(ResourceCache.getResource(loader, "properties/not-here.properties"));
+		Assert.assertEquals(2, loader.lookups);
+		
+		// other loaders and cleared loaders look again
+		CountingLoader other = new CountingLoader();
+		Assert.assertEquals(url, ResourceCache.getResource(other, "properties/priority1.properties"));
+		Assert.assertEquals(1, other.lookups);
+		ResourceCache.clear(loader);
+		ResourceCache.getResource(loader, "properties/priority1.properties");
+		Assert.assertEquals(3, loader.lookups);
+	}
+	
+	@Test
+	public void testArchivedBytes() throws IOException {
+		File jar = File.createTempFile("ee-config-resources", ".jar");
+		jar.deleteOnExit();
+		JarOutputStream output = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			output.putNextEntry(new ZipEntry("archived.properties"));
+			output.write("key=archived\n".getBytes(StandardCharsets.ISO_8859_1));
+			output.closeEntry();
+		} finally {
+			output.close();
+		}
+		
+		URLClassLoader loader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+		ResourceCache.setCacheBytes(true);
+		try {
+			Assert.assertEquals("archived", this.load(loader, "archived.properties").getProperty("key"));
+			Assert.assertEquals("archived", this.load(loader, "archived.properties").getProperty("key"));
+			Assert.assertNull(ResourceCache.open(loader, "missing.properties"));
+		} finally {
+			ResourceCache.setCacheBytes(false);
+			ResourceCache.clear(loader);
+			loader.close();
+		}
+	}
+	
+	private Properties load(ClassLoader loader, String path) throws IOException {
+		Properties properties = new Properties();
+		InputStream stream = ResourceCache.open(loader, path);
+		try {
+			properties.load(stream);
+		} finally {
+			stream.close();
+		}
+		return properties;
+	}
+	
+	/**
+	 * Counts the resources looked up through it
+	 */
+	private static class CountingLoader extends ClassLoader {
+		
+		private int lookups = 0;
+		
+		private CountingLoader() {
+			super(ResourceCacheTest.class.getClassLoader());
+		}
+		
+		@Override
+		public URL getResource(String name) {
+			this.lookups++;
+			return super.getResource(name);
+		}
+	}
+}
@@ -1,6 +1,10 @@
 package com.github.chrisruffalo.eeconfig.strategy.property;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -43,6 +47,24 @@ public class DefaultPropertyResolverTest {
 		Assert.assertEquals("value1 value2", resolved);
 	}
 
+	/**
+	 * Test that looked up values without tokens are not kept as templates
+	 * 
+	 */
+	@Test
+	public void testPlainValuesNotCached() {
+		Map<Object, Object> seeds = new HashMap<Object, Object>();
+		seeds.put("url", "http://localhost:8080/some/long/one-off/path");
+		seeds.put("nested", "${url}/more");
+		
+		PropertyResolver resolver = new DefaultPropertyResolver();
+		DefaultPropertyResolver.TEMPLATES.clear();
+		
+		Assert.assertEquals("http://localhost:8080/some/long/one-off/path/more", resolver.resolveProperties("${nested}", seeds));
+		// the requested string and the nested value, but not the plain url
+		Assert.assertEquals(2, DefaultPropertyResolver.TEMPLATES.size());
+	}
+
 	/**
 	 * Test resolving a string with keys that resolve to other keys
 	 * 
@@ -96,4 +118,116 @@ public class DefaultPropertyResolverTest {
 	
 		Assert.assertEquals("${token1}", resolved);
 	}
+	
+	/**
+	 * Test resolving a token whose name is made from other tokens
+	 * 
+	 */
+	@Test
+	public void testNestedResolution() {
+		Map<Object, Object> seeds = new HashMap<Object, Object>();
+		seeds.put("env", "prod");
+		seeds.put("db.prod.url", "jdbc:${db.prod.host}/app");
+		seeds.put("db.prod.host", "prod-db");
+		
+		PropertyResolver resolver = new DefaultPropertyResolver();
+		
+		Assert.assertEquals("jdbc:prod-db/app", resolver.resolveProperties("${db.${env}.url}", seeds));
+		// when the outer token has no value the resolved name is left in place
+		Assert.assertEquals("${db.test.url}", resolver.resolveProperties("${db.${missing}.url}", seeds, Collections.<Object, Object>singletonMap("missing", "test")));
+		// an unterminated outer token is left alone but inner tokens are still resolved
+		Assert.assertEquals("${db.prod", resolver.resolveProperties("${db.${env}", seeds));
+	}
+	
+	/**
+	 * Test that a token used many times in the same string is resolved the same way
+	 * each time and that cycles don't interfere with other tokens
+	 * 
+	 */
+	@Test
+	public void testRepeatedTokensAndCycles() {
+		Map<Object, Object> seeds = new HashMap<Object, Object>();
+		seeds.put("token1", "${token2}");
+		seeds.put("token2", "${token1}");
+		seeds.put("token3", "${token4}-${token4}");
+		seeds.put("token4", "value4");
+		
+		PropertyResolver resolver = new DefaultPropertyResolver();
+		
+		String resolved = resolver.resolveProperties("${token3} ${token1} ${token3} ${token2}", seeds);
+		Assert.assertEquals("value4-value4 ${token1} value4-value4 ${token2}", resolved);
+	}
+	
+	/**
+	 * Test resolving into an existing builder
+	 * 
+	 */
+	@Test
+	public void testResolveIntoBuilder() {
+		Map<Object, Object> seeds = new HashMap<Object, Object>();
+		seeds.put("token1", "value1");
+		
+		DefaultPropertyResolver resolver = new DefaultPropertyResolver();
+		
+		StringBuilder output = new StringBuilder("prefix:");
+		resolver.resolveProperties("${token1}/${token2}", seeds, null, output);
+		Assert.assertEquals("prefix:value1/${token2}", output.toString());
+	}
+	
+	/**
+	 * Test resolving many strings at once
+	 * 
+	 */
+	@Test
+	public void testBatchResolution() {
+		Map<Object, Object> seeds = new HashMap<Object, Object>();
+		seeds.put("token1", "${token2}-value1");
+		seeds.put("token2", "value2");
+		
+		DefaultPropertyResolver resolver = new DefaultPropertyResolver();
+		
+		List<String> resolved = resolver.resolveAll(Arrays.asList("${token1}", "plain", null, "${token2}/${token3}"), seeds, null);
+		Assert.assertEquals(Arrays.asList("value2-value1", "plain", null, "value2/${token3}"), resolved);
+		
+		Map<String, String> templates = new LinkedHashMap<String, String>();
+		templates.put("b", "${token2}");
+		templates.put("a", "${token1}");
+		Map<String, String> resolvedMap = resolver.resolveAll(templates, seeds, null);
+		Assert.assertEquals(Arrays.asList("b", "a"), Arrays.asList(resolvedMap.keySet().toArray()));
+		Assert.assertEquals("value2", resolvedMap.get("b"));
+		Assert.assertEquals("value2-value1", resolvedMap.get("a"));
+	}
+	
+	/**
+	 * Test that resolvers without a batch implementation are
+	 * used one string at a time
+	 * 
+	 */
+	@Test
+	public void testBatchFallback() {
+		final DefaultPropertyResolver delegate = new DefaultPropertyResolver();
+		final int[] calls = new int[1];
+		PropertyResolver resolver = new PropertyResolver() {
+			@Override
+			public String resolveProperties(String fullString) {
+				return this.resolveProperties(fullString, null, null);
+			}
+			
+			@Override
+			public String resolveProperties(String fullString, Map<Object, Object> bootstrapProperties) {
+				return this.resolveProperties(fullString, bootstrapProperties, null);
+			}
+			
+			@Override
+			public String resolveProperties(String fullString, Map<Object, Object> bootstrapProperties, Map<Object, Object> defaultProperties) {
+				calls[0]++;
+				return delegate.resolveProperties(fullString, bootstrapProperties, defaultProperties);
+			}
+		};
+		
+		Map<Object, Object> seeds = Collections.<Object, Object>singletonMap("token1", "value1");
+		List<String> resolved = PropertyResolvers.resolveAll(resolver, Arrays.asList("${token1}", "${token2}"), seeds, null);
+		Assert.assertEquals(Arrays.asList("value1", "${token2}"), resolved);
+		Assert.assertEquals(2, calls[0]);
+	}
 }
@@ -0,0 +1,79 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test compiling strings into property templates
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class PropertyTemplateTest {
+
+	@Test
+	public void testNoTokens() {
+		PropertyTemplate template = PropertyTemplate.compile("no tokens here");
+		Assert.assertFalse(template.hasTokens());
+		Assert.assertEquals(0, template.getTokenCount());
+		Assert.assertEquals("no tokens here", template.getLiteral(0));
+	}
+	
+	@Test
+	public void testSegments() {
+		PropertyTemplate template = PropertyTemplate.compile("${one}/path/${two}.properties");
+		Assert.assertTrue(template.hasTokens());
+		Assert.assertEquals(2, template.getTokenCount());
+		Assert.assertEquals("", template.getLiteral(0));
+		Assert.assertEquals("one", template.getToken(0));
+		Assert.assertEquals("/path/", template.getLiteral(1));
+		Assert.assertEquals("two", template.getToken(1));
+		Assert.assertEquals(".properties", template.getLiteral(2));
+	}
+	
+	@Test
+	public void testUnterminatedToken() {
+		PropertyTemplate template = PropertyTemplate.compile("${one}-${two");
+		Assert.assertEquals(1, template.getTokenCount());
+		Assert.assertEquals("one", template.getToken(0));
+		Assert.assertEquals("-${two", template.getLiteral(1));
+	}
+	
+	@Test
+	public void testNestedTokens() {
+		PropertyTemplate template = PropertyTemplate.compile("url=${db.${env}.url}");
+		Assert.assertEquals(1, template.getTokenCount());
+		Assert.assertEquals("url=", template.getLiteral(0));
+		Assert.assertEquals("db.${env}.url", template.getToken(0));
+		
+		PropertyTemplate name = template.getTokenTemplate(0);
+		Assert.assertEquals(1, name.getTokenCount());
+		Assert.assertEquals("db.", name.getLiteral(0));
+		Assert.assertEquals("env", name.getToken(0));
+		Assert.assertEquals(".url", name.getLiteral(1));
+	}
+	
+	@Test
+	public void testUnmatchedEnds() {
+		PropertyTemplate template = PropertyTemplate.compile("}${{one}}");
+		Assert.assertEquals(1, template.getTokenCount());
+		Assert.assertEquals("}", template.getLiteral(0));
+		Assert.assertEquals("{one", template.getToken(0));
+		Assert.assertEquals("}", template.getLiteral(1));
+	}
+	
+	@Test
+	public void testCacheIsBounded() {
+		PropertyTemplateCache cache = new PropertyTemplateCache(2);
+		PropertyTemplate first = cache.get("${first}");
+		Assert.assertSame(first, cache.get("${first}"));
+		
+		cache.get("${second}");
+		cache.get("${third}");
+		Assert.assertEquals(2, cache.size());
+		
+		// oldest was dropped and is compiled again
+		Assert.assertNotSame(first, cache.get("${first}"));
+	}
+	
+}
@@ -0,0 +1,78 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the snapshot of System Properties used for resolution
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class SystemPropertySnapshotTest {
+
+	// unique key for each test
+	private String key;
+	
+	// interval before the test
+	private long interval;
+	
+	@Before
+	public void before() {
+		this.key = "ee-config.test." + UUID.randomUUID().toString();
+		this.interval = SystemPropertySnapshot.getRefreshInterval();
+	}
+	
+	@After
+	public void after() {
+		System.clearProperty(this.key);
+		SystemPropertySnapshot.setRefreshInterval(this.interval);
+		SystemPropertySnapshot.refresh();
+	}
+	
+	@Test
+	public void testExplicitRefresh() {
+		// no automatic refresh
+		SystemPropertySnapshot.setRefreshInterval(0);
+		SystemPropertySnapshot before = SystemPropertySnapshot.refresh();
+		
+		// not seen until refreshed
+		System.setProperty(this.key, "value");
+		Assert.assertSame(before, SystemPropertySnapshot.current());
+		Assert.assertFalse(SystemPropertySnapshot.current().containsKey(this.key));
+		Assert.assertEquals("${" + this.key + "}", new DefaultPropertyResolver().resolveProperties("${" + this.key + "}"));
+		
+		// seen after refresh
+		SystemPropertySnapshot after = SystemPropertySnapshot.refresh();
+		Assert.assertEquals("value", after.getProperty(this.key));
+		Assert.assertEquals("value", new DefaultPropertyResolver().resolveProperties("${" + this.key + "}"));
+		Assert.assertTrue(after.getGeneration() != before.getGeneration());
+	}
+	
+	@Test
+	public void testGenerationOnlyChangesWithValues() {
+		SystemPropertySnapshot.setRefreshInterval(0);
+		SystemPropertySnapshot first = SystemPropertySnapshot.refresh();
+		SystemPropertySnapshot second = SystemPropertySnapshot.refresh();
+		Assert.assertNotSame(first, second);
+		Assert.assertEquals(first.getGeneration(), second.getGeneration());
+	}
+	
+	@Test
+	public void testAutomaticRefresh() throws InterruptedException {
+		SystemPropertySnapshot.setRefreshInterval(1);
+		SystemPropertySnapshot.refresh();
+		System.setProperty(this.key, "value");
+		Thread.sleep(5);
+		Assert.assertEquals("value", SystemPropertySnapshot.current().getProperty(this.key));
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void testReadOnly() {
+		SystemPropertySnapshot.current().getValues().put(this.key, "value");
+	}
+}
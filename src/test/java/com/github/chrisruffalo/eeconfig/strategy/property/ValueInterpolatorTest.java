@@ -0,0 +1,103 @@
+package com.github.chrisruffalo.eeconfig.strategy.property;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.chrisruffalo.eeconfig.immutable.LazyProperties;
+
+/**
+ * Test resolving references between the values of a loaded configuration
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+public class ValueInterpolatorTest {
+
+	@Test
+	public void testChainedReferences() {
+		Map<String, String> values = new HashMap<String, String>();
+		values.put("host", "localhost");
+		values.put("port", "8080");
+		values.put("base", "http://${host}:${port}");
+		values.put("service", "${base}/service");
+		
+		ValueInterpolator interpolator = new ValueInterpolator(values, new DefaultPropertyResolver(), null, null);
+		Map<String, String> resolved = interpolator.resolveAll();
+		Assert.assertEquals("http://localhost:8080", resolved.get("base"));
+		Assert.assertEquals("http://localhost:8080/service", resolved.get("service"));
+		Assert.assertTrue(interpolator.getCycles().isEmpty());
+	}
+	
+	@Test
+	public void testNestedAndExternalReferences() {
+		Map<String, String> values = new HashMap<String, String>();
+		values.put("env", "test");
+		values.put("url.test", "http://test");
+		values.put("selected", "${url.${env}}");
+		values.put("external", "${bootstrap.value}-${missing.value}");
+		
+		Map<Object, Object> bootstrap = new HashMap<Object, Object>();
+		bootstrap.put("bootstrap.value", "boot");
+		// keys in the configuration win over bootstrap values
+		bootstrap.put("env", "prod");
+		
+		ValueInterpolator interpolator = new ValueInterpolator(values, new DefaultPropertyResolver(), bootstrap, null);
+		Assert.assertEquals("http://test", interpolator.get("selected"));
+		Assert.assertEquals("boot-${missing.value}", interpolator.get("external"));
+		Assert.assertNull(interpolator.get("not.loaded"));
+	}
+	
+	@Test
+	public void testCycles() {
+		Map<String, String> values = new HashMap<String, String>();
+		values.put("a", "a${b}");
+		values.put("b", "b${a}");
+		values.put("c", "c${a}");
+		values.put("self", "${self}");
+		
+		// the result is the same no matter which key is resolved first
+		ValueInterpolator first = new ValueInterpolator(values, null, null, null);
+		Assert.assertEquals("ca${b}", first.get("c"));
+		Assert.assertEquals("a${b}", first.get("a"));
+		Assert.assertEquals("b${a}", first.get("b"));
+		
+		ValueInterpolator second = new ValueInterpolator(values, null, null, null);
+		Assert.assertEquals("b${a}", second.get("b"));
+		Assert.assertEquals("ca${b}", second.get("c"));
+		
+		Map<String, String> resolved = second.resolveAll();
+		Assert.assertEquals("${self}", resolved.get("self"));
+		Assert.assertEquals(3, second.getCycles().size());
+		Assert.assertFalse(second.getCycles().contains("c"));
+	}
+	
+	@Test
+	public void testLazyProperties() {
+		Map<String, String> values = new HashMap<String, String>();
+		values.put("host", "localhost");
+		values.put("url", "http://${host}");
+		
+		LazyProperties properties = new LazyProperties(values, new ValueInterpolator(values, null, Collections.emptyMap(), null));
+		Assert.assertEquals("http://localhost", properties.getProperty("url"));
+		Assert.assertEquals("http://localhost", properties.get("url"));
+		Assert.assertEquals("fallback", properties.getProperty("nope", "fallback"));
+		
+		// bulk views see resolved values
+		Assert.assertTrue(properties.containsValue("http://localhost"));
+		Assert.assertFalse(properties.containsValue("http://${host}"));
+		for(Map.Entry<Object, Object> entry : properties.entrySet()) {
+			Assert.assertEquals(properties.getProperty((String)entry.getKey()), entry.getValue());
+		}
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void testLazyPropertiesReadOnly() {
+		Map<String, String> values = Collections.singletonMap("one", "1");
+		LazyProperties properties = new LazyProperties(values, new ValueInterpolator(values, null, null, null));
+		properties.setProperty("one", "2");
+	}
+}
@@ -0,0 +1,39 @@
+package com.github.chrisruffalo.eeconfig.support;
+
+import javax.enterprise.context.Dependent;
+
+import com.github.chrisruffalo.eeconfig.source.ISource;
+import com.github.chrisruffalo.eeconfig.source.impl.UnfoundSource;
+import com.github.chrisruffalo.eeconfig.strategy.locator.BaseLocator;
+
+/**
+ * Dependent scoped locator with state, like a custom
+ * strategy that is not thread-safe
+ * 
+ * @author Chris Ruffalo
+ *
+ */
+@Dependent
+public class DependentLocator extends BaseLocator {
+
+	private String last;
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ISource locate(String path) {
+		this.last = path;
+		return new UnfoundSource(path);
+	}
+	
+	/**
+	 * The last path located by this instance
+	 * 
+	 * @return
+	 */
+	public String getLast() {
+		return this.last;
+	}
+	
+}